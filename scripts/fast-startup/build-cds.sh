@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+#
+# Construit l'archive AppCDS du profil fast-startup (appelé par mvn -Pfast-startup verify).
+#
+# 1. Extrait le JAR Spring Boot (l'archive CDS ne peut pas référencer des classes dans des JAR imbriqués)
+#    target/fast-startup/todolist-x.y.z.jar + target/fast-startup/lib/*.jar
+# 2. Démarrage d'entraînement : le contexte Spring est créé (avec le code AOT) puis l'application s'arrête
+#    (spring.context.exit=onRefresh). Toutes les classes chargées sont écrites dans target/fast-startup/app.jsa.
+#
+# Usage : build-cds.sh <jar> ; APP_ARGS permet de passer des propriétés (ex : --spring.datasource.url=...).
+set -euo pipefail
+
+JAR="${1:?Usage: build-cds.sh <jar>}"
+OUT="$(dirname "$JAR")/fast-startup"
+APP_JAR="$OUT/$(basename "$JAR")"
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+
+# shellcheck disable=SC2086
+# -Xlog:cds=error : les classes non archivables (proxies générés, JFR...) sont simplement ignorées
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -Xlog:cds=error \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" ${APP_ARGS:-}
+
+echo "Archive CDS : $OUT/app.jsa"
@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+#
+# Lancement de l'application sans Docker.
+#
+# Si le profil fast-startup a été construit (mvn -Pfast-startup verify), lance le JAR extrait
+# avec l'archive AppCDS et le code Spring AOT. Sinon, lance le JAR classique.
+# Les arguments sont transmis à l'application (ex : --server.port=8081).
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+FAST_DIR="$ROOT/target/fast-startup"
+
+if [[ -f "$FAST_DIR/app.jsa" ]]; then
+    APP_JAR="$(find "$FAST_DIR" -maxdepth 1 -name '*.jar' | head -n 1)"
+    exec java -XX:SharedArchiveFile="$FAST_DIR/app.jsa" -Dspring.aot.enabled=true ${JAVA_OPTS:-} -jar "$APP_JAR" "$@"
+fi
+
+JAR="$(find "$ROOT/target" -maxdepth 1 -name '*.jar' | head -n 1)"
+if [[ -z "$JAR" ]]; then
+    echo "Aucun JAR dans target/ : lancer d'abord mvn package (ou mvn -Pfast-startup verify)" >&2
+    exit 1
+fi
+exec java ${JAVA_OPTS:-} -jar "$JAR" "$@"
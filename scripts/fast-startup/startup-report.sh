@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# Compare le démarrage du JAR classique et du lancement fast-startup (AOT + AppCDS).
+#
+# Pour chaque mode, RUNS démarrages (3 par défaut), avec deux mesures :
+# - startup : le "Started TodolistApplication in X seconds" de Spring Boot
+# - first request : du lancement de la JVM à la première réponse HTTP (POST /api/users/login),
+#   ce que voit réellement un load balancer qui ajoute une instance
+#
+# Résultat affiché et écrit dans target/fast-startup/startup-report.txt.
+# Usage : startup-report.sh <jar> ; variables : RUNS, PORT (18080), APP_ARGS.
+set -euo pipefail
+
+JAR="${1:?Usage: startup-report.sh <jar>}"
+OUT="$(dirname "$JAR")/fast-startup"
+APP_JAR="$OUT/$(basename "$JAR")"
+RUNS="${RUNS:-3}"
+PORT="${PORT:-18080}"
+LOG="$OUT/startup-report.log"
+REPORT="$OUT/startup-report.txt"
+
+if [[ ! -f "$OUT/app.jsa" ]]; then
+    echo "Archive CDS absente : lancer d'abord build-cds.sh" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# measure <mode> <commande java...> : affiche "startup_ms first_request_ms"
+measure() {
+    shift
+    local start pid code first_request startup
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    "$@" --server.port="$PORT" ${APP_ARGS:-} > "$LOG" 2>&1 &
+    pid=$!
+
+    code=000
+    while [[ "$code" == "000" ]]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "L'application s'est arrêtée, voir $LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+        code=$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/users/login" \
+            -H 'Content-Type: application/json' -d '{}' || true)
+    done
+    first_request=$(( $(now_ms) - start ))
+
+    startup=$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$LOG" | head -n 1)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    echo "$(awk -v s="$startup" 'BEGIN { printf "%d", s * 1000 }') $first_request"
+}
+
+# report <mode> <commande java...> : moyenne sur RUNS démarrages
+report() {
+    local mode="$1" total_startup=0 total_first=0 startup first
+    for _ in $(seq 1 "$RUNS"); do
+        read -r startup first < <(measure "$@")
+        total_startup=$(( total_startup + startup ))
+        total_first=$(( total_first + first ))
+    done
+    printf '%-14s startup %6d ms   first request %6d ms\n' "$mode" $(( total_startup / RUNS )) $(( total_first / RUNS ))
+}
+
+{
+    echo "Démarrage moyen sur $RUNS lancements"
+    report "plain jar" java -jar "$JAR"
+    report "aot + appcds" java -XX:SharedArchiveFile="$OUT/app.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR"
+} | tee "$REPORT"
@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+#
+# Deux instances de l'application sur la même machine, partageant la même base MySQL,
+# pour tester le bus d'invalidation (table cache_invalidations).
+#
+# - node-a sur le port PORT_A (8080), node-b sur PORT_B (8081), logs dans target/two-nodes/
+# - les arguments sont transmis aux deux instances (ex : --spring.datasource.url=...)
+#
+# Exemple : POST /api/users/register sur 8080, puis GET /api/users sur 8081 : le nouvel utilisateur
+# apparaît après au plus invalidation.poll-interval-ms ; un POST /api/users/logout sur 8080 rend
+# le token invalide sur 8081. Ctrl+C arrête les deux instances.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+LOGS="$ROOT/target/two-nodes"
+PORT_A="${PORT_A:-8080}"
+PORT_B="${PORT_B:-8081}"
+
+mkdir -p "$LOGS"
+trap 'kill $(jobs -p) 2>/dev/null || true' EXIT
+
+"$ROOT/scripts/fast-startup/run.sh" --server.port="$PORT_A" --invalidation.node-id=node-a "$@" > "$LOGS/node-a.log" 2>&1 &
+"$ROOT/scripts/fast-startup/run.sh" --server.port="$PORT_B" --invalidation.node-id=node-b "$@" > "$LOGS/node-b.log" 2>&1 &
+
+echo "node-a : http://localhost:$PORT_A/api (log $LOGS/node-a.log)"
+echo "node-b : http://localhost:$PORT_B/api (log $LOGS/node-b.log)"
+wait
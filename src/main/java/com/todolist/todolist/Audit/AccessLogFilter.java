@@ -0,0 +1,86 @@
+package com.todolist.todolist.Audit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Une ligne de journal d'accès par requête HTTP (voir AuditLog).
+ *
+ * Premier filtre exécuté, avant la chaîne Spring Security : la durée mesurée inclut le rate limiting
+ * et l'authentification JWT, et une requête rejetée (403, 429) est journalisée comme les autres.
+ *
+ * Les informations connues plus loin dans la chaîne sont transmises par attributs de la requête :
+ * - USER_ID_ATTRIBUTE : posé par JwtAuthenticationFilter quand le token est accepté
+ * - ERROR_ATTRIBUTE : message d'erreur posé par GlobalExceptionHandler
+ * - endpoint et id du todo : motif de la route ("/todos/{id}") et ses variables, posés par Spring MVC
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_ATTRIBUTE = AccessLogFilter.class.getName() + ".userId";
+    public static final String ERROR_ATTRIBUTE = AccessLogFilter.class.getName() + ".error";
+
+    private final AuditLog auditLog;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlStatementCounter.reset();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            String endpoint = endpoint(request);
+            auditLog.access(
+                    request.getMethod(),
+                    endpoint,
+                    failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                    (System.nanoTime() - start) / 1000,
+                    request.getAttribute(USER_ID_ATTRIBUTE) instanceof Long userId ? userId : 0L,
+                    SqlStatementCounter.count(),
+                    todoId(request, endpoint),
+                    request.getAttribute(ERROR_ATTRIBUTE) instanceof String error ? error : null
+            );
+        }
+    }
+
+    /**
+     * Motif de la route plutôt que l'URL : "/todos/{id}" regroupe tous les todos, et un client
+     * ne peut pas remplir le journal avec des URLs arbitraires. Chemin brut (sans /api) si aucune route ne correspond.
+     */
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static long todoId(HttpServletRequest request, String endpoint) {
+        if (!endpoint.startsWith("/todos/")
+                || !(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables)
+                || !(variables.get("id") instanceof String id)) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
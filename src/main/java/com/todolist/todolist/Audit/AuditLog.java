@@ -0,0 +1,235 @@
+package com.todolist.todolist.Audit;
+
+import com.todolist.todolist.Utils.MpscRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'accès et d'audit structuré (JSON, une ligne par événement), écrit hors du thread de la requête.
+ *
+ * - access(...) : une ligne par requête HTTP (AccessLogFilter) : utilisateur, endpoint, statut,
+ *   durée, nombre de requêtes SQL, id du todo, message d'erreur éventuel
+ * - audit(...) : événement de sécurité (login, logout, token refusé, mot de passe changé...)
+ *
+ * Le thread de la requête ne fait que remplir une case d'un anneau MpscRingBuffer (sans verrou,
+ * sans allocation). Un unique thread "audit-log-writer" vide l'anneau par lots vers RollingFileWriter :
+ * une requête n'attend jamais le disque.
+ *
+ * Anneau plein (disque lent, rafale de requêtes), selon audit-log.on-full :
+ * - drop (défaut) : l'événement est abandonné immédiatement
+ * - wait : la requête attend une place au plus audit-log.full-wait-ms, puis l'événement est abandonné
+ * Les événements abandonnés sont comptés (métrique todolist.audit-log.dropped).
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    public enum OnFull { DROP, WAIT }
+
+    private static final int DRAIN_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit-log.file:logs/access.log}")
+    private String file;
+
+    /**
+     * Nombre de cases de l'anneau (arrondi à la puissance de 2 supérieure).
+     */
+    @Value("${audit-log.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${audit-log.on-full:drop}")
+    private String onFull;
+
+    @Value("${audit-log.full-wait-ms:5}")
+    private long fullWaitMs;
+
+    @Value("${audit-log.max-file-size-mb:50}")
+    private long maxFileSizeMb;
+
+    @Value("${audit-log.max-files:10}")
+    private int maxFiles;
+
+    /**
+     * Taille du ByteBuffer direct du fichier : un appel système write() par buffer plein.
+     */
+    @Value("${audit-log.write-buffer-kb:256}")
+    private int writeBufferKb;
+
+    private MpscRingBuffer<LogEvent> ring;
+    private OnFull onFullPolicy;
+    private Thread writerThread;
+    private volatile boolean running;
+    private boolean writeFailureLogged;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    public AuditLog(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        onFullPolicy = OnFull.valueOf(onFull.trim().toUpperCase());
+        ring = new MpscRingBuffer<>(bufferSize, LogEvent::new);
+        RollingFileWriter writer = new RollingFileWriter(
+                Path.of(file), maxFileSizeMb * 1024 * 1024, maxFiles, writeBufferKb * 1024);
+
+        FunctionCounter.builder("todolist.audit-log.dropped", dropped, AtomicLong::get)
+                .description("Événements abandonnés car l'anneau était plein")
+                .register(meterRegistry);
+        FunctionCounter.builder("todolist.audit-log.written", written, AtomicLong::get)
+                .description("Événements écrits dans le fichier")
+                .register(meterRegistry);
+        Gauge.builder("todolist.audit-log.pending", ring, MpscRingBuffer::size)
+                .description("Événements en attente d'écriture")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(() -> writeLoop(writer), "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Arrêt : le thread d'écriture vide l'anneau puis ferme le fichier.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread != null) {
+            running = false;
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * @param userId 0 si anonyme
+     * @param sqlCount -1 si inconnu
+     * @param todoId 0 si la route ne concerne pas un todo
+     * @param detail Message d'erreur, ou null
+     */
+    public void access(String method, String endpoint, int status, long durationMicros,
+                       long userId, int sqlCount, long todoId, String detail) {
+        long position = claim();
+        if (position == MpscRingBuffer.FULL) {
+            return;
+        }
+        LogEvent event = ring.get(position);
+        event.type = LogEvent.ACCESS;
+        event.timestamp = System.currentTimeMillis();
+        event.method = method;
+        event.endpoint = endpoint;
+        event.status = status;
+        event.durationMicros = durationMicros;
+        event.userId = userId;
+        event.sqlCount = sqlCount;
+        event.todoId = todoId;
+        event.detail = detail;
+        ring.publish(position);
+    }
+
+    /**
+     * @param action Nom court et stable de l'événement ("login", "token_rejected"...)
+     * @param userId 0 si inconnu
+     * @param detail Précision éventuelle, ou null
+     */
+    public void audit(String action, long userId, String detail) {
+        long position = claim();
+        if (position == MpscRingBuffer.FULL) {
+            return;
+        }
+        LogEvent event = ring.get(position);
+        event.type = LogEvent.AUDIT;
+        event.timestamp = System.currentTimeMillis();
+        event.action = action;
+        event.userId = userId;
+        event.detail = detail;
+        ring.publish(position);
+    }
+
+    private long claim() {
+        if (ring == null) {
+            return MpscRingBuffer.FULL;
+        }
+        long position = ring.claim();
+        if (position == MpscRingBuffer.FULL && onFullPolicy == OnFull.WAIT) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fullWaitMs);
+            while (position == MpscRingBuffer.FULL && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                position = ring.claim();
+            }
+        }
+        if (position == MpscRingBuffer.FULL) {
+            dropped.incrementAndGet();
+        }
+        return position;
+    }
+
+    /**
+     * Boucle du thread d'écriture : lots de DRAIN_BATCH événements encodés dans le buffer du fichier,
+     * écrit sur disque dès que l'anneau est vide (ou que le buffer est plein).
+     */
+    private void writeLoop(RollingFileWriter writer) {
+        while (running || ring.size() > 0) {
+            int count = ring.drain(event -> {
+                try {
+                    writer.write(event);
+                } catch (IOException e) {
+                    writeFailed(e);
+                } finally {
+                    event.clear();
+                }
+            }, DRAIN_BATCH);
+            written.addAndGet(count);
+
+            if (count < DRAIN_BATCH) {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    writeFailed(e);
+                }
+                if (count == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            writeFailed(e);
+        }
+    }
+
+    /**
+     * Disque plein, fichier supprimé... : le contenu du buffer est perdu, l'écriture continue
+     * avec les événements suivants. Une seule trace dans le log applicatif, pas une par lot.
+     */
+    private void writeFailed(IOException e) {
+        if (!writeFailureLogged) {
+            writeFailureLogged = true;
+            log.error("Échec d'écriture du journal d'accès {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.todolist.todolist.Audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Remplace le bean DataSource (pool Hikari) par un MeteredDataSource qui l'enveloppe.
+ *
+ * Le MeterRegistry est demandé au premier enregistrement et non injecté : un BeanPostProcessor
+ * est créé avant les autres beans, une dépendance directe les priverait de ce post-traitement.
+ */
+@Component
+class ConnectionMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean enabled;
+
+    ConnectionMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${db-metrics.enabled:true}") boolean enabled
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof MeteredDataSource)) {
+            return new MeteredDataSource(dataSource, meterRegistry);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,47 @@
+package com.todolist.todolist.Audit;
+
+/**
+ * Case de l'anneau d'AuditLog : remplie par le thread de la requête, lue par le thread d'écriture.
+ *
+ * Objet mutable réutilisé (aucune allocation par événement). Les valeurs absentes sont 0, -1 ou null,
+ * elles ne sont pas écrites dans le fichier.
+ */
+final class LogEvent {
+
+    static final String ACCESS = "access";
+    static final String AUDIT = "audit";
+
+    String type;
+    long timestamp;
+
+    // Accès (une ligne par requête HTTP)
+    String method;
+    String endpoint;
+    int status;
+    long durationMicros;
+    int sqlCount;
+    long todoId;
+
+    // Audit (événement de sécurité : login, logout, token refusé...)
+    String action;
+
+    long userId;
+    String detail;
+
+    LogEvent() {
+        clear();
+    }
+
+    void clear() {
+        type = null;
+        method = null;
+        endpoint = null;
+        action = null;
+        detail = null;
+        status = 0;
+        durationMicros = -1;
+        sqlCount = -1;
+        todoId = 0;
+        userId = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.todolist.todolist.Audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource qui mesure, par endpoint, l'attente d'une connexion du pool et la durée de son emprunt.
+ *
+ * - todolist.db.connection.acquire : temps passé dans getConnection() (pool épuisé = attente)
+ * - todolist.db.connection.hold : de getConnection() à close(), c'est-à-dire jusqu'au retour dans le pool
+ *
+ * Les métriques Hikari (hikaricp.connections.*) donnent les mêmes durées pour tout le pool ; le tag
+ * endpoint ("/todos/{id}") montre quelle route garde les connexions. Hors d'une route : "filter-chain"
+ * (filtre JWT, avant Spring MVC) ou "background" (jobs planifiés, threads sans requête HTTP).
+ *
+ * Mesure prise à la fermeture : le motif de la route est alors connu pour les connexions ouvertes
+ * dans un contrôleur ou un service.
+ */
+final class MeteredDataSource extends DelegatingDataSource {
+
+    private static final String NO_ROUTE = "filter-chain";
+    private static final String NO_REQUEST = "background";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<String, Timers> timersByEndpoint = new ConcurrentHashMap<>();
+
+    MeteredDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        return metered(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return metered(connection, start);
+    }
+
+    private Connection metered(Connection connection, long start) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, start, System.nanoTime()));
+    }
+
+    private void record(long acquireNanos, long holdNanos) {
+        Timers timers = timersByEndpoint.computeIfAbsent(currentEndpoint(), this::register);
+        timers.acquire.record(acquireNanos, TimeUnit.NANOSECONDS);
+        timers.hold.record(holdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timers register(String endpoint) {
+        MeterRegistry registry = meterRegistry.getObject();
+        return new Timers(
+                Timer.builder("todolist.db.connection.acquire")
+                        .description("Attente d'une connexion du pool")
+                        .tag("endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(50_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(registry),
+                Timer.builder("todolist.db.connection.hold")
+                        .description("Durée d'emprunt d'une connexion, jusqu'à son retour dans le pool")
+                        .tag("endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(50_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(registry)
+        );
+    }
+
+    /**
+     * Motif de la route (jamais l'URL brute : le nombre de séries de la métrique reste borné).
+     */
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_REQUEST;
+        }
+        Object pattern = servletAttributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : NO_ROUTE;
+    }
+
+    private record Timers(Timer acquire, Timer hold) {
+    }
+
+    /**
+     * Délègue tout à la connexion du pool ; seul le premier close() enregistre les durées.
+     * equals / hashCode restent ceux du proxy (identité), comme pour toute connexion.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long requested;
+        private final long acquired;
+        private boolean closed;
+
+        ConnectionHandler(Connection target, long requested, long acquired) {
+            this.target = target;
+            this.requested = requested;
+            this.acquired = acquired;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        record(acquired - requested, System.nanoTime() - acquired);
+                    }
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
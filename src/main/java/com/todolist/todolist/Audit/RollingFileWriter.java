@@ -0,0 +1,237 @@
+package com.todolist.todolist.Audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Écriture des événements en JSON, une ligne par événement, dans un fichier tournant.
+ *
+ * Utilisé par le seul thread d'écriture d'AuditLog (pas thread-safe).
+ *
+ * - Les lignes sont encodées directement en UTF-8 dans un ByteBuffer "direct" (hors tas) : le
+ *   FileChannel l'écrit sans copie intermédiaire, un appel système par buffer plein et non par ligne.
+ * - Rotation par taille : access.log → access.log.1 → ... → access.log.{maxFiles - 1}, le plus ancien est supprimé.
+ */
+final class RollingFileWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter SECOND_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    /**
+     * Longueur maximale d'un texte (chemin, message) : une ligne tient toujours dans MAX_LINE_BYTES.
+     */
+    private static final int MAX_TEXT_LENGTH = 512;
+    private static final int MAX_LINE_BYTES = 16 * 1024;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final ByteBuffer buffer;
+
+    private FileChannel channel;
+    private long fileSize;
+
+    /**
+     * Début d'horodatage ("2026-01-31T12:34:56") recalculé une fois par seconde seulement.
+     */
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] cachedSecondBytes;
+
+    RollingFileWriter(Path file, long maxFileSize, int maxFiles, int bufferSize) throws IOException {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_LINE_BYTES));
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        open();
+    }
+
+    void write(LogEvent event) throws IOException {
+        if (buffer.remaining() < MAX_LINE_BYTES) {
+            flush();
+        }
+        buffer.put((byte) '{');
+        putName("ts", false);
+        putTimestamp(event.timestamp);
+        putName("type", true);
+        putString(event.type);
+
+        if (event.method != null) {
+            putName("method", true);
+            putString(event.method);
+        }
+        if (event.endpoint != null) {
+            putName("endpoint", true);
+            putString(event.endpoint);
+        }
+        if (event.action != null) {
+            putName("action", true);
+            putString(event.action);
+        }
+        if (event.status != 0) {
+            putName("status", true);
+            putLong(event.status);
+        }
+        if (event.durationMicros >= 0) {
+            putName("durationUs", true);
+            putLong(event.durationMicros);
+        }
+        if (event.userId != 0) {
+            putName("userId", true);
+            putLong(event.userId);
+        }
+        if (event.sqlCount >= 0) {
+            putName("sql", true);
+            putLong(event.sqlCount);
+        }
+        if (event.todoId != 0) {
+            putName("todoId", true);
+            putLong(event.todoId);
+        }
+        if (event.detail != null) {
+            putName("detail", true);
+            putString(event.detail);
+        }
+        buffer.put((byte) '}').put((byte) '\n');
+    }
+
+    /**
+     * Écrit le buffer dans le fichier (rotation avant si le fichier dépasserait maxFileSize).
+     * Le buffer est vidé même en cas d'erreur : ces lignes sont perdues, pas réécrites en boucle.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        try {
+            if (buffer.hasRemaining()) {
+                if (fileSize > 0 && fileSize + buffer.remaining() > maxFileSize) {
+                    rotate();
+                }
+                while (buffer.hasRemaining()) {
+                    fileSize += channel.write(buffer);
+                }
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        Files.deleteIfExists(archive(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(archive(i))) {
+                Files.move(archive(i), archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void putName(String name, boolean comma) {
+        if (comma) {
+            buffer.put((byte) ',');
+        }
+        buffer.put((byte) '"');
+        for (int i = 0; i < name.length(); i++) {
+            buffer.put((byte) name.charAt(i));
+        }
+        buffer.put((byte) '"').put((byte) ':');
+    }
+
+    private void putTimestamp(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondBytes = SECOND_FORMAT.format(Instant.ofEpochSecond(second)).getBytes();
+        }
+        int millis = Math.floorMod(epochMillis, 1000);
+        buffer.put((byte) '"').put(cachedSecondBytes).put((byte) '.')
+                .put((byte) ('0' + millis / 100))
+                .put((byte) ('0' + millis / 10 % 10))
+                .put((byte) ('0' + millis % 10))
+                .put((byte) 'Z').put((byte) '"');
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Chaîne JSON échappée, encodée en UTF-8 caractère par caractère (sans byte[] intermédiaire).
+     */
+    private void putString(String value) {
+        buffer.put((byte) '"');
+        int length = Math.min(value.length(), MAX_TEXT_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put(hex(c >> 4)).put(hex(c));
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private static byte hex(int value) {
+        return (byte) "0123456789abcdef".charAt(value & 0xF);
+    }
+}
@@ -0,0 +1,32 @@
+package com.todolist.todolist.Audit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate sur le thread courant (colonne "sql" du journal d'accès).
+ *
+ * Déclaré dans application.properties (hibernate.session_factory.statement_inspector) : Hibernate
+ * l'instancie lui-même, d'où l'état statique. Un int[] par thread, incrémenté sans allocation.
+ * Les requêtes JdbcTemplate, qui ne passent pas par Hibernate, ne sont pas comptées.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Remet le compteur du thread à zéro (début de requête HTTP).
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -1,16 +1,43 @@
 package com.todolist.todolist.Controller;
 
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Idempotency.Idempotent;
+import com.todolist.todolist.Import.ImportFormat;
+import com.todolist.todolist.Import.TodoImportService;
+import com.todolist.todolist.Json.Todo.AgendaItem;
+import com.todolist.todolist.Json.Todo.BulkTodoRequest;
+import com.todolist.todolist.Json.Todo.BulkTodoResult;
 import com.todolist.todolist.Json.Todo.CreateTodoRequest;
 import com.todolist.todolist.Json.Todo.BasicTodo;
+import com.todolist.todolist.Json.Todo.TodoImportStatus;
+import com.todolist.todolist.Json.Todo.MoveTodoRequest;
+import com.todolist.todolist.Json.Todo.TagFilter;
+import com.todolist.todolist.Json.Todo.TodoListEnvelope;
+import com.todolist.todolist.Json.Todo.TodoMergePatch;
+import com.todolist.todolist.Json.Todo.TodoStats;
+import com.todolist.todolist.Json.Todo.UpdateOccurrenceRequest;
 import com.todolist.todolist.Json.Todo.UpdateTodoRequest;
 import com.todolist.todolist.Security.CheckTodoOwnership;
 import com.todolist.todolist.Service.TodoService;
+import com.todolist.todolist.Service.TodoStatsService;
+import com.todolist.todolist.Stream.TodoEventBroker;
 import com.todolist.todolist.Utils.AuthenticationUtils;
+import com.todolist.todolist.Utils.ETags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("todos")
@@ -18,14 +45,89 @@ import java.util.List;
 public class TodoController {
     
     private final TodoService todoService;
+    private final TodoStatsService todoStatsService;
     private final AuthenticationUtils authenticationUtils;
+    private final TodoEventBroker todoEventBroker;
+    private final TodoImportService todoImportService;
 
+    /**
+     * Liste des todos ; tags=a,b,-c filtre par étiquettes (match=all : toutes, any : au moins une,
+     * "-" : sans cette étiquette), combinable avec fields. sort=rank : ordre manuel de l'utilisateur
+     * (PUT /todos/{id}/position), non combinable avec tags.
+     */
     @GetMapping
-    public List<BasicTodo> getTodoList(){
+    public List<?> getTodoList(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) String sort
+    ){
         Long userId = authenticationUtils.getCurrentUserId();
-        return todoService.getAllTodosOfUser(userId);
+        boolean byRank = sort != null;
+        if (byRank && !sort.equals("rank")) {
+            throw new BadRequestException("sort accepte seulement la valeur rank");
+        }
+        if (tags != null) {
+            if (byRank) {
+                throw new BadRequestException("sort=rank ne se combine pas avec tags");
+            }
+            TagFilter filter = TagFilter.parse(tags, match);
+            return fields != null
+                    ? todoService.getTodoFieldsOfUserByTags(userId, fields, filter)
+                    : todoService.getTodosOfUserByTags(userId, filter);
+        }
+        if (fields != null) {
+            return todoService.getTodoFieldsOfUser(userId, fields, byRank);
+        }
+        return todoService.getAllTodosOfUser(userId, byRank);
     }
 
+    @GetMapping(produces = TodoListEnvelope.MEDIA_TYPE)
+    public TodoListEnvelope getCompactTodoList(){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoService.getCompactTodosOfUser(userId);
+    }
+
+    @GetMapping(params = "format=compact")
+    public TodoListEnvelope getCompactTodoListByParam(){
+        return getCompactTodoList();
+    }
+
+    /**
+     * Compteurs du tableau de bord (total, en retard, aujourd'hui, cette semaine, créés ce mois-ci),
+     * lus en mémoire sans requête d'agrégat (voir TodoStatsServiceImpl).
+     */
+    @GetMapping("/stats")
+    public TodoStats getTodoStats(){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoStatsService.getStatsOfUser(userId);
+    }
+
+    /**
+     * Agenda du 'from' au 'to' inclus (yyyy-MM-dd) : todos ponctuels et occurrences des todos récurrents,
+     * par échéance croissante. Les occurrences sont calculées à la volée, elles n'existent pas en base.
+     */
+    @GetMapping("/agenda")
+    public List<AgendaItem> getAgenda(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoService.getAgendaOfUser(userId, from, to);
+    }
+
+    /**
+     * Flux SSE des changements de todos de l'utilisateur (événements created, updated, deleted),
+     * à la place du polling de GET /todos. À la reconnexion, le navigateur renvoie Last-Event-ID
+     * et reçoit les événements manqués, ou "reset" s'il doit tout recharger.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTodoChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoEventBroker.subscribe(userId, lastEventId);
+    }
+
+    @Idempotent
     @PostMapping
     public BasicTodo createTodo(@Valid @RequestBody CreateTodoRequest createTodoRequest){
         Long userId = authenticationUtils.getCurrentUserId();
@@ -34,8 +136,55 @@ public class TodoController {
 
     @CheckTodoOwnership
     @PutMapping("/{id}")
-    public BasicTodo updateTodo(@PathVariable Long id, @RequestBody UpdateTodoRequest updateTodo){
-        return todoService.updateTodo(id, updateTodo);
+    public ResponseEntity<BasicTodo> updateTodo(
+            @PathVariable Long id,
+            @RequestBody UpdateTodoRequest updateTodo,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
+    ){
+        BasicTodo todo = todoService.updateTodo(id, updateTodo, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+
+    /**
+     * Pas de @CheckTodoOwnership : l'UPDATE vérifie lui-même le propriétaire (WHERE user_id = ?).
+     */
+    @PatchMapping(value = "/{id}", consumes = TodoMergePatch.MEDIA_TYPE)
+    public ResponseEntity<BasicTodo> patchTodo(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
+    ){
+        Long userId = authenticationUtils.getCurrentUserId();
+        BasicTodo todo = todoService.patchTodo(id, userId, TodoMergePatch.fromJson(patch), ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+
+    /**
+     * Glisser-déposer : place le todo juste après afterId ou juste avant beforeId.
+     * Pas de @CheckTodoOwnership : le service ne cherche le todo que parmi ceux de l'utilisateur.
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<BasicTodo> moveTodo(
+            @PathVariable Long id,
+            @RequestBody MoveTodoRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
+    ){
+        Long userId = authenticationUtils.getCurrentUserId();
+        BasicTodo todo = todoService.moveTodo(id, userId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+
+    /**
+     * Marque une occurrence d'un todo récurrent (terminée, annulée ou déplacée), date au format yyyy-MM-dd.
+     */
+    @CheckTodoOwnership
+    @PutMapping("/{id}/occurrences/{date}")
+    public AgendaItem updateOccurrence(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestBody UpdateOccurrenceRequest request
+    ){
+        return todoService.updateOccurrence(id, date, request);
     }
 
     @CheckTodoOwnership
@@ -43,4 +192,42 @@ public class TodoController {
     public void deleteTodo(@PathVariable Long id){
         todoService.deleteTodo(id);
     }
+
+    @DeleteMapping
+    public BulkTodoResult deleteTodos(@Valid @RequestBody BulkTodoRequest request){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoService.deleteTodos(request.getIds(), userId);
+    }
+
+    @PatchMapping
+    public BulkTodoResult patchTodos(@Valid @RequestBody BulkTodoRequest request){
+        Long userId = authenticationUtils.getCurrentUserId();
+        Map<String, Object> patch = request.getPatch() == null ? Map.of() : request.getPatch();
+        return todoService.patchTodos(request.getIds(), userId, TodoMergePatch.fromJson(patch));
+    }
+
+    /**
+     * Import en arrière-plan d'un fichier CSV (text/csv) ou NDJSON (application/x-ndjson), encodé en UTF-8.
+     * Le corps est lu tel quel (pas de multipart) ; la réponse 202 pointe vers GET /todos/import/{jobId}.
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<TodoImportStatus> importTodos(HttpServletRequest request) throws IOException {
+        Long userId = authenticationUtils.getCurrentUserId();
+        ImportFormat format = ImportFormat.of(request.getContentType());
+        TodoImportStatus status = todoImportService.submit(userId, format, request.getInputStream());
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(status.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    /**
+     * Pas de @CheckTodoOwnership : jobId n'est pas un id de todo, le service filtre par utilisateur.
+     */
+    @GetMapping("/import/{jobId}")
+    public TodoImportStatus getImportStatus(@PathVariable Long jobId){
+        Long userId = authenticationUtils.getCurrentUserId();
+        return todoImportService.getStatus(userId, jobId);
+    }
 }
@@ -1,19 +1,29 @@
 package com.todolist.todolist.Controller;
 
+import com.todolist.todolist.Exception.ForbiddenException;
+import com.todolist.todolist.Idempotency.Idempotent;
 import com.todolist.todolist.Json.Login.LoginRequest;
 import com.todolist.todolist.Json.User.UpdateUserRequest;
 import com.todolist.todolist.Json.User.BasicUser;
 import com.todolist.todolist.Json.User.CreateUserRequest;
+import com.todolist.todolist.Json.User.UserMergePatch;
+import com.todolist.todolist.Json.User.UserPage;
 import com.todolist.todolist.Json.Login.LoginResponse;
 import com.todolist.todolist.Service.UserService;
+import com.todolist.todolist.Utils.AuthenticationUtils;
+import com.todolist.todolist.Utils.ETags;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("users")
@@ -21,7 +31,10 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final Validator validator;
+    private final AuthenticationUtils authenticationUtils;
 
+    @Idempotent
     @PostMapping("/register")
     public ResponseEntity<@NonNull BasicUser> register(@Valid @RequestBody CreateUserRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED).body(userService.createUser(request));
@@ -32,28 +45,86 @@ public class UserController {
         return ResponseEntity.ok(userService.login(request));
     }
 
+    /**
+     * Révoque le token présenté : il n'est plus accepté, même avant son expiration.
+     * La route est authentifiée, le header Authorization est donc forcément un "Bearer <token>" valide.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<@NonNull Void> logout(@RequestHeader("Authorization") String authorization) {
+        userService.logout(authorization.substring("Bearer ".length()));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Annuaire paginé : GET /users?limit=50&q=ali, q filtre par préfixe du username, du prénom ou du nom.
+     * Le corps reste un tableau JSON (comme avant la pagination) ; la page suivante est annoncée dans
+     * le header Link (rel="next", RFC 8288), absent sur la dernière page.
+     */
     @GetMapping
-    public ResponseEntity<@NonNull List<BasicUser>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<@NonNull List<?>> getUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String fields
+    ) {
+        UserPage page = userService.getUserPage(after, limit, q, fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<@NonNull BasicUser> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<@NonNull Object> getUserById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(userService.getUserFieldsById(id, fields));
+        }
+        BasicUser user = userService.getUserById(id);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<@NonNull BasicUser> updateUser(
             @PathVariable Long id,
-            @Valid @RequestBody UpdateUserRequest request
+            @Valid @RequestBody UpdateUserRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
+    ) {
+        checkCurrentUser(id);
+        BasicUser user = userService.updateUser(id, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = UserMergePatch.MEDIA_TYPE)
+    public ResponseEntity<@NonNull BasicUser> patchUser(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(userService.updateUser(id, request));
+        checkCurrentUser(id);
+        BasicUser user = userService.patchUser(id, UserMergePatch.fromJson(patch, validator), ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<@NonNull Void> deleteUser(@PathVariable Long id) {
+        checkCurrentUser(id);
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Un utilisateur ne modifie ou ne supprime que son propre compte (pas de rôle administrateur).
+     *
+     * @throws ForbiddenException 403 si id n'est pas l'utilisateur authentifié
+     */
+    private void checkCurrentUser(Long id) {
+        if (!id.equals(authenticationUtils.getCurrentUserId())) {
+            throw new ForbiddenException("Vous n'avez pas la permission de modifier cet utilisateur");
+        }
+    }
 }
 
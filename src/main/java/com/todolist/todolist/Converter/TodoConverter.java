@@ -1,7 +1,11 @@
 package com.todolist.todolist.Converter;
 
+import com.todolist.todolist.Entity.Tag;
 import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.User;
 import com.todolist.todolist.Json.Todo.BasicTodo;
+import com.todolist.todolist.Json.Todo.CompactTodo;
+import com.todolist.todolist.Json.Todo.TodoListEnvelope;
 import com.todolist.todolist.Json.User.BasicUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -52,8 +56,12 @@ public class TodoConverter {
         basicTodo.setDescription(todo.getDescription());
         basicTodo.setNote(todo.getNote());
         basicTodo.setFinalDate(todo.getFinalDate());
+        basicTodo.setRecurrence(todo.getRecurrence());
+        basicTodo.setTags(tagNames(todo));
+        basicTodo.setRank(todo.getRank());
         basicTodo.setCreatedAt(todo.getCreatedAt());
         basicTodo.setUser(basicUser);
+        basicTodo.setVersion(todo.getVersion());
         return basicTodo;
     }
     
@@ -75,5 +83,45 @@ public class TodoConverter {
                 .map(this::convertTodoToBasicTodo)
                 .collect(Collectors.toList());
     }
-}
 
+    /**
+     * Convertit les todos d'un utilisateur au format compact (TodoListEnvelope).
+     * 
+     * L'utilisateur est converti une seule fois ; chaque todo ne garde que l'id du propriétaire.
+     * todo.getUser().getId() ne déclenche pas de requête : Hibernate connaît l'id du proxy LAZY
+     * (colonne user_id), l'utilisateur n'est donc pas rechargé pour chaque todo.
+     * 
+     * @param owner L'utilisateur propriétaire de tous les todos
+     * @param todos Liste d'entités Todo de cet utilisateur
+     * @return L'enveloppe compacte (version, owner, items)
+     */
+    public TodoListEnvelope convertTodosToEnvelope(User owner, List<Todo> todos) {
+        List<CompactTodo> items = todos.stream()
+                .map(todo -> new CompactTodo(
+                        todo.getId(),
+                        todo.getDescription(),
+                        todo.getNote(),
+                        todo.getFinalDate(),
+                        todo.getRecurrence(),
+                        tagNames(todo),
+                        todo.getRank(),
+                        todo.getCreatedAt(),
+                        todo.getUser().getId(),
+                        todo.getVersion()
+                ))
+                .collect(Collectors.toList());
+
+        return new TodoListEnvelope(TodoListEnvelope.VERSION, userConverter.convertUserToBasicUser(owner), items);
+    }
+
+    /**
+     * Noms des étiquettes triés. Todo.tags est LAZY avec @BatchSize : pour une liste, les étiquettes
+     * sont chargées par paquets de 100 todos et non une requête par todo.
+     */
+    private static List<String> tagNames(Todo todo) {
+        return todo.getTags().stream()
+                .map(Tag::getName)
+                .sorted()
+                .toList();
+    }
+}
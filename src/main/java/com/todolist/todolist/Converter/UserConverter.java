@@ -43,6 +43,7 @@ public class UserConverter {
         basicUser.setUsername(user.getUsername());
         basicUser.setEmail(user.getEmail());
         basicUser.setCreatedAt(user.getCreatedAt());
+        basicUser.setVersion(user.getVersion());
         return basicUser;
 
     }
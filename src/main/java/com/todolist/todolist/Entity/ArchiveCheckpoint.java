@@ -0,0 +1,38 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point de reprise du job d'archivage, une ligne par table archivée ("todos", "users").
+ *
+ * lastId = dernier id traité lors du parcours par clé (keyset). Il est mis à jour dans la même
+ * transaction que le batch : après un arrêt brutal, le job reprend exactement où il s'était arrêté.
+ * Il est remis à 0 quand un parcours complet de la table est terminé.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="archive_checkpoints")
+public class ArchiveCheckpoint {
+    @Id
+    @Column(name="table_name", length = 64)
+    private String tableName;
+
+    @Column(name="last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name="updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ArchiveCheckpoint(String tableName) {
+        this.tableName = tableName;
+        this.lastId = 0L;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,48 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copie d'un todo supprimé (soft delete) déplacé hors de la table "todos" par le job d'archivage.
+ *
+ * L'id est conservé tel quel (pas de génération) pour garder la traçabilité avec l'ancienne ligne.
+ * user_id est une simple colonne (pas de clé étrangère) car l'utilisateur peut lui-même être archivé.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="todos_archive")
+public class ArchivedTodo {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String note;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name="final_date", nullable=false)
+    private LocalDateTime finalDate;
+
+    @Column(length = 128)
+    private String recurrence;
+
+    @Column(name="created_at", nullable=false)
+    private LocalDateTime createdAt;
+
+    @Column(name="deleted_at", nullable=false)
+    private LocalDateTime deletedAt;
+
+    @Column(name="user_id", nullable=false)
+    private Long userId;
+
+    @Column(name="archived_at", nullable=false)
+    private LocalDateTime archivedAt;
+}
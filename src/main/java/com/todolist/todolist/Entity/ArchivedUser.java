@@ -0,0 +1,45 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copie d'un utilisateur supprimé (soft delete) déplacé hors de la table "users" par le job d'archivage.
+ *
+ * Le mot de passe (hash) n'est volontairement pas archivé : le compte ne peut plus servir à se connecter.
+ * Les contraintes d'unicité ne sont pas reprises, ce qui libère le username et l'email pour un nouveau compte.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="users_archive")
+public class ArchivedUser {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String firstname;
+
+    @Column(nullable = false)
+    private String lastname;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name="deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Column(name="archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Une invalidation de cache publiée par une instance (DatabaseInvalidationBus), lue par toutes les autres.
+ *
+ * cacheKeys = clés invalidées séparées par un saut de ligne, ou null pour vider tout le cache.
+ * Une ligne par modification, quel que soit le nombre de clés (une opération groupée = un seul INSERT).
+ *
+ * L'id auto-incrémenté sert de position de lecture : chaque instance lit les lignes d'id supérieur
+ * à la dernière traitée. Les lignes sont supprimées après invalidation.retention-minutes.
+ *
+ * Index (cache_name, id) : relecture des lignes des caches durables au démarrage d'une instance.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at"),
+        @Index(name = "idx_cache_invalidations_cache_name_id", columnList = "cache_name, id")
+})
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="cache_name", nullable = false, length = 64)
+    private String cacheName;
+
+    @Column(name="cache_keys", columnDefinition = "TEXT")
+    private String cacheKeys;
+
+    @Column(name="node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,50 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse mémorisée pour une clé d'idempotence (DatabaseIdempotencyStore, déploiement multi-instances).
+ * 
+ * keyHash = SHA-256 de la clé complète (utilisateur + endpoint + Idempotency-Key) : taille fixe,
+ * et la clé primaire garantit qu'une seule instance peut "réserver" une clé (INSERT concurrent → doublon).
+ * 
+ * status : IN_PROGRESS pendant l'exécution, COMPLETED quand la réponse est enregistrée.
+ * expiresAt : fin du bail de réservation (IN_PROGRESS), puis fin de conservation de la réponse (COMPLETED).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="idempotency_records", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @Column(name="key_hash", length = 64)
+    private String keyHash;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(name="http_status")
+    private Integer httpStatus;
+
+    @Column(name="body_type")
+    private String bodyType;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name="expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Étiquette d'un utilisateur, attachée à ses todos par la table de jointure todo_tags (Todo.tags).
+ * 
+ * Le nom est normalisé (TagNames) et unique par utilisateur ; l'étiquette est créée au premier todo qui l'utilise.
+ * user_id sans clé étrangère, comme todo_import_jobs : l'archivage d'un utilisateur supprime ses étiquettes.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="tags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tags_user_name", columnNames = {"user_id", "name"})
+})
+public class Tag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    public Tag(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+}
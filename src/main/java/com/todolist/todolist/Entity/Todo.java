@@ -4,14 +4,26 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * @DynamicUpdate : l'UPDATE généré ne contient que les colonnes modifiées
+ * (une modification de la note ne réécrit pas la description TEXT).
+ */
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name="todos")
+@Table(name="todos", indexes = {
+        @Index(name = "idx_todos_user_final_date", columnList = "user_id, final_date"),
+        @Index(name = "idx_todos_user_deleted_rank", columnList = "user_id, deleted_at, sort_rank")
+})
 public class Todo {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,16 +38,54 @@ public class Todo {
     @Column(name="final_date", nullable=false)
     private LocalDateTime finalDate;
 
+    /**
+     * Règle de récurrence normalisée (RecurrenceRule.toString()), null pour un todo ponctuel.
+     * finalDate est alors l'échéance de la première occurrence ; les suivantes sont calculées
+     * à la lecture (GET /todos/agenda) et ne sont pas stockées.
+     */
+    @Column(length = 128)
+    private String recurrence;
+
+    /**
+     * Position dans l'ordre manuel de l'utilisateur, clé FractionalIndex : déplacer un todo ne réécrit
+     * que sa propre ligne. GET /todos?sort=rank suit l'index (user_id, deleted_at, sort_rank), sans tri.
+     * null pour les todos créés avant l'ajout de la colonne, jusqu'à leur classement (TodoRankServiceImpl).
+     */
+    @Column(name = "sort_rank")
+    private String rank;
+
     @Column(name="created_at",nullable=false)
     private LocalDateTime createdAt;
 
     @Column(name="deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * Version pour le verrouillage optimiste : Hibernate ajoute "AND version = ?" à chaque UPDATE
+     * et l'incrémente. Si un autre client a modifié la ligne entre-temps, aucune ligne n'est mise à jour
+     * et Hibernate lève une exception (→ 412). Exposée au client sous forme d'ETag.
+     * DEFAULT 0 pour les lignes existantes lors de l'ajout de la colonne (ddl-auto=update).
+     */
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * Étiquettes du todo. Modifier l'ensemble incrémente la version (ETag) comme une autre colonne.
+     * @BatchSize : pour une liste de todos, les étiquettes sont lues par paquets de 100 todos
+     * au lieu d'une requête par todo.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "todo_tags",
+            joinColumns = @JoinColumn(name = "todo_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @BatchSize(size = 100)
+    private Set<Tag> tags = new HashSet<>();
+
     @PrePersist
     protected void onCreate (){
         this.createdAt = LocalDateTime.now();
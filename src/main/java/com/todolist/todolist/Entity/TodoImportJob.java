@@ -0,0 +1,81 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Import de todos en arrière-plan (POST /todos/import), suivi par GET /todos/import/{jobId}.
+ * 
+ * La progression est enregistrée dans la même transaction que chaque lot inséré : les compteurs
+ * correspondent toujours aux lignes réellement présentes dans "todos", et n'importe quelle instance
+ * peut répondre à GET, pas seulement celle qui exécute l'import.
+ * 
+ * user_id sans clé étrangère : la table n'empêche pas l'archivage d'un utilisateur supprimé.
+ * errors : les premières erreurs de lignes, une par ligne de texte ("numéro\tmessage").
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="todo_import_jobs", indexes = {
+        @Index(name = "idx_todo_import_jobs_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_todo_import_jobs_created_at", columnList = "created_at")
+})
+public class TodoImportJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    @Column(name="rows_read", nullable = false)
+    private long rowsRead;
+
+    @Column(name="rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name="rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Column(columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(length = 512)
+    private String failure;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name="started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name="finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Dernière écriture (création, lot inséré, fin) : un job PENDING ou RUNNING qui n'avance plus
+     * a été interrompu (instance arrêtée pendant l'import).
+     */
+    @Column(name="updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exception à une série de todos récurrents : une occurrence terminée, annulée ou déplacée.
+ * 
+ * Les occurrences ordinaires ne sont pas stockées, elles sont calculées à partir de la règle
+ * (Todo.recurrence, voir RecurrenceRule). Seules celles qui diffèrent de la règle ont une ligne ici,
+ * identifiée par sa date d'origine (occurrence_date, une date produite par la règle).
+ * 
+ * Les exceptions d'une série sont supprimées quand sa règle ou sa première échéance change :
+ * leurs dates d'origine ne correspondraient plus à la nouvelle série.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="todo_occurrences", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_todo_occurrences_todo_date", columnNames = {"todo_id", "occurrence_date"})
+})
+public class TodoOccurrence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "todo_id", nullable = false)
+    private Todo todo;
+
+    @Column(name="occurrence_date", nullable = false)
+    private LocalDateTime occurrenceDate;
+
+    /**
+     * Nouvelle échéance si l'occurrence a été déplacée, null sinon.
+     */
+    @Column(name="final_date")
+    private LocalDateTime finalDate;
+
+    @Column(name="completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private boolean cancelled;
+}
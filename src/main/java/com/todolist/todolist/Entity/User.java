@@ -4,14 +4,26 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
+/**
+ * @DynamicUpdate : voir Todo, seules les colonnes modifiées sont écrites.
+ * 
+ * Index firstname / lastname : recherche par préfixe de l'annuaire (LIKE 'abc%', une requête par colonne,
+ * voir UserRepositoryImpl.searchPageNotDeleted), username est déjà indexé par sa contrainte unique.
+ * InnoDB ajoute l'id à chaque index secondaire : la condition id > curseur y est vérifiée sans lire la ligne.
+ */
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name="users")
+@Table(name="users", indexes = {
+        @Index(name = "idx_users_firstname", columnList = "firstname"),
+        @Index(name = "idx_users_lastname", columnList = "lastname")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,6 +50,13 @@ public class User {
     @Column(name="deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * Version pour le verrouillage optimiste (même mécanisme que Todo.version), exposée en ETag.
+     */
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,69 @@
+package com.todolist.todolist.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Suppression en cascade des todos d'un utilisateur supprimé, faite en arrière-plan par UserDeletionServiceImpl.
+ * 
+ * Créée dans la transaction de deleteUser() : un utilisateur supprimé a toujours son job.
+ * lastTodoId = dernier todo traité (parcours par clé), avancé dans la même transaction que chaque lot :
+ * après un arrêt brutal, le traitement reprend au lot suivant. Relancer un lot déjà fait ne change rien
+ * (l'UPDATE ne touche que les todos encore vivants).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name="user_deletion_jobs", indexes = {
+        @Index(name = "idx_user_deletion_jobs_status", columnList = "status, created_at")
+})
+public class UserDeletionJob {
+
+    public enum Status {
+        PENDING,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name="user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * Date de suppression de l'utilisateur, reprise pour ses todos : ils sont archivés en même temps que lui.
+     */
+    @Column(name="deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Column(name="last_todo_id", nullable = false)
+    private Long lastTodoId;
+
+    @Column(name="todos_deleted", nullable = false)
+    private long todosDeleted;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name="updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name="completed_at")
+    private LocalDateTime completedAt;
+
+    public UserDeletionJob(Long userId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.status = Status.PENDING;
+        this.deletedAt = deletedAt;
+        this.lastTodoId = 0L;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 400 : paramètre ou contenu de requête invalide.
+ */
+public class BadRequestException extends DomainException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,19 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 409 : la demande entre en conflit avec l'état actuel (nom d'utilisateur ou email déjà pris, requête idempotente ou import déjà en cours,
+ * contrainte unique de la base violée par deux requêtes simultanées : voir GlobalExceptionHandler).
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -0,0 +1,26 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Erreur métier attendue (ressource absente, doublon, accès refusé...), traduite en réponse 4xx
+ * par GlobalExceptionHandler.
+ *
+ * Pas de stack trace : fillInStackTrace() parcourt toute la pile d'appels (filtres, proxies, aspects),
+ * c'est la partie la plus coûteuse d'une exception. Elle ne sert à rien ici : l'erreur ne vient
+ * pas d'un bug, le message suffit. Un scanner qui essaie des ids au hasard ne coûte donc presque rien.
+ *
+ * Hiérarchie : NotFoundException (404), ForbiddenException (403), ConflictException (409),
+ * PreconditionFailedException (412), BadRequestException (400).
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * @return Le code HTTP renvoyé au client
+     */
+    public abstract HttpStatus getStatus();
+}
@@ -0,0 +1,18 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 403 : la ressource existe mais appartient à un autre utilisateur.
+ */
+public class ForbiddenException extends DomainException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.FORBIDDEN;
+    }
+}
@@ -1,15 +1,27 @@
 package com.todolist.todolist.Exception;
 
+import com.todolist.todolist.Audit.AccessLogFilter;
+import com.todolist.todolist.Utils.RateLimitedLogger;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -26,12 +38,25 @@ import java.util.Map;
  * - Codes HTTP appropriés selon le type d'erreur
  * - Centralisation de la gestion des erreurs
  * - Évite de dupliquer les try-catch dans chaque controller
+ * 
+ * Journalisation : les erreurs attendues (validation, 4xx) ne sont pas écrites dans le log applicatif
+ * (synchrone) mais ajoutées à la ligne du journal d'accès asynchrone (AccessLogFilter, colonne "detail").
+ * Seules les erreurs inattendues (500) gardent un log synchrone avec stack trace.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /**
+     * Log des erreurs métier (DomainException) : niveau INFO, limité par type d'exception.
+     */
+    private final RateLimitedLogger domainLogger;
+
+    public GlobalExceptionHandler(@Value("${error-log.domain-max-per-minute:20}") int domainMaxPerMinute) {
+        this.domainLogger = new RateLimitedLogger(logger, domainMaxPerMinute);
+    }
+
     /**
      * Gère les erreurs de validation des @RequestBody avec @Valid.
      * 
@@ -56,7 +81,7 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
         
-        logger.warn("Erreur de validation: {}", errors);
+        recordError("Erreur de validation: " + errors);
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
@@ -80,7 +105,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentials(BadCredentialsException ex) {
-        logger.warn("Tentative de connexion échouée: {}", ex.getMessage());
+        recordError("Tentative de connexion échouée: " + ex.getMessage());
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.UNAUTHORIZED.value(),
@@ -104,7 +129,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFound(UsernameNotFoundException ex) {
-        logger.warn("Utilisateur non trouvé: {}", ex.getMessage());
+        recordError("Utilisateur non trouvé: " + ex.getMessage());
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
@@ -117,32 +142,179 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Gère toutes les RuntimeException génériques (erreurs métier).
+     * Gère les erreurs métier attendues (DomainException et ses sous-classes).
      * 
-     * Lancée pour :
-     * - Username déjà existant
-     * - Email déjà existant
-     * - Todo non trouvé
-     * - Utilisateur déjà supprimé
-     * - etc.
+     * Lancées par exemple par :
+     * - TodoServiceImpl / UserServiceImpl (404 todo ou utilisateur inexistant, 409 email déjà pris)
+     * - TodoOwnershipAspect (403 todo d'un autre utilisateur, 404 todo inexistant)
+     * - IdempotencyAspect / IdempotencyStore (409 requête identique en cours)
+     * - ETags (412 version modifiée entre-temps)
      * 
-     * @param ex L'exception contenant le message d'erreur
-     * @return 400 Bad Request avec le message d'erreur
+     * Le chemin le plus fréquent en cas d'abus (ids au hasard) : exception sans stack trace,
+     * message ajouté au journal d'accès, log INFO limité à quelques lignes par minute.
+     * 
+     * @param ex L'exception contenant le code HTTP et le message
+     * @return Le code HTTP de l'exception avec son message
      */
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
-        logger.error("RuntimeException: {}", ex.getMessage(), ex);
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ErrorResponse> handleDomainException(DomainException ex) {
+        recordError(ex.getMessage());
+        domainLogger.info(ex.getClass().getSimpleName(), "{} {}: {}",
+                ex.getStatus().value(), ex.getClass().getSimpleName(), ex.getMessage());
         
         ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
+                ex.getStatus().value(),
                 "Erreur",
                 Map.of("error", ex.getMessage()),
                 LocalDateTime.now()
         );
         
+        return ResponseEntity.status(ex.getStatus()).body(errorResponse);
+    }
+
+    /**
+     * Gère les ResponseStatusException (qui portent leur propre code HTTP).
+     * 
+     * Le code de l'application lance des DomainException ; celles-ci peuvent encore venir
+     * de Spring ou d'une bibliothèque.
+     * 
+     * Sans ce handler, elles seraient interceptées par handleRuntimeException et transformées en 500.
+     * 
+     * @param ex L'exception contenant le code HTTP et le message
+     * @return Le code HTTP de l'exception avec son message
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
+        recordError(ex.getReason());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getStatusCode().value(),
+                "Erreur",
+                Map.of("error", ex.getReason() != null ? ex.getReason() : ex.getStatusCode().toString()),
+                LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(ex.getStatusCode()).body(errorResponse);
+    }
+
+    /**
+     * Gère les requêtes mal formées détectées par Spring MVC : corps JSON illisible, paramètre ou
+     * variable de chemin du mauvais type (GET /todos/abc).
+     * 
+     * Ce sont des RuntimeException : sans ce handler elles arriveraient dans handleRuntimeException
+     * (500 et stack trace) alors que l'erreur vient du client.
+     * 
+     * Le message du parseur (classes Java, position dans le flux) reste dans le journal d'accès :
+     * le client reçoit un message court.
+     * 
+     * @param ex L'exception levée par Spring MVC
+     * @return 400 Bad Request avec un message court
+     */
+    @ExceptionHandler({HttpMessageNotReadableException.class, TypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleMalformedRequest(RuntimeException ex) {
+        recordError(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        
+        String message = ex instanceof TypeMismatchException mismatch && mismatch.getPropertyName() != null
+                ? "Valeur invalide pour le paramètre " + mismatch.getPropertyName()
+                : "Corps de la requête illisible (JSON mal formé ou champ du mauvais type)";
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Requête invalide",
+                Map.of("error", message),
+                LocalDateTime.now()
+        );
+        
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Gestion d'un client parti pendant une réponse asynchrone (flux SSE GET /todos/stream fermé).
+     * 
+     * Ce n'est pas une erreur de l'application et il n'y a plus personne à qui répondre :
+     * on ne logue rien et on n'écrit pas de corps.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsable(AsyncRequestNotUsableException ex) {
+    }
+    
+    /**
+     * Gère les conflits de verrouillage optimiste (@Version).
+     * 
+     * Lancée quand deux clients modifient la même ligne en même temps : le second UPDATE
+     * ("... WHERE id = ? AND version = ?") ne trouve plus la version qu'il a lue.
+     * 
+     * @param ex L'exception levée par Hibernate au moment du flush
+     * @return 412 Precondition Failed : le client doit relire la ressource avant de réessayer
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex) {
+        recordError("Conflit de modification concurrente: " + ex.getPersistentClassName() + " " + ex.getIdentifier());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Modification concurrente",
+                Map.of("error", "La ressource a été modifiée entre-temps, rechargez-la avant de réessayer"),
+                LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
+    /**
+     * Gère les violations de contrainte de la base.
+     * 
+     * Une contrainte unique (username / email des utilisateurs, nom d'étiquette par utilisateur,
+     * clé d'idempotence) est le dernier rempart contre deux requêtes simultanées qui ont passé
+     * les vérifications du service : c'est un conflit (409), pas une panne.
+     * Les autres violations (clé étrangère, NOT NULL) restent des erreurs inattendues.
+     * 
+     * @param ex L'exception traduite par Spring (flush ou commit)
+     * @return 409 Conflict pour une contrainte unique, sinon 500 comme handleRuntimeException
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        ConstraintViolationException violation = null;
+        for (Throwable cause = ex.getCause(); cause != null && violation == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation) {
+                violation = constraintViolation;
+            }
+        }
+        if (violation == null || violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            return handleRuntimeException(ex);
+        }
+        recordError("Contrainte unique " + violation.getConstraintName());
+        return handleDomainException(new ConflictException(
+                "La ressource existe déjà (créée ou modifiée en même temps par une autre requête)"));
+    }
+
+    /**
+     * Gère toutes les autres RuntimeException.
+     * 
+     * Les erreurs métier sont des DomainException (voir handleDomainException) et les requêtes
+     * mal formées passent par handleMalformedRequest : arriver ici signifie une exception non prévue
+     * (bug, panne d'une dépendance). Log ERROR avec la stack trace, comme handleGenericException.
+     * 
+     * Le message de l'exception (SQL, noms de contraintes, classes internes) ne va que dans le log :
+     * le client reçoit un message fixe.
+     * 
+     * @param ex L'exception non prévue
+     * @return 500 Internal Server Error avec un message générique
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+        logger.error("RuntimeException: {}", ex.getMessage(), ex);
+        recordError(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Erreur interne du serveur",
+                Map.of("error", "Une erreur inattendue s'est produite"),
+                LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
     /**
      * Gère toutes les autres exceptions non prévues.
      * 
@@ -150,11 +322,27 @@ public class GlobalExceptionHandler {
      * En production, on ne doit jamais montrer les détails internes de l'erreur.
      * 
      * @param ex L'exception générique
-     * @return 500 Internal Server Error avec un message générique
+     * @return 500 Internal Server Error avec un message générique (ou le code 4xx d'une erreur client de Spring MVC)
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        /**
+         * Erreurs client levées par Spring MVC lui-même (route inconnue, méthode non supportée,
+         * paramètre manquant...) : elles portent leur code 4xx. Ce ne sont pas des bugs, pas de stack trace.
+         */
+        if (ex instanceof org.springframework.web.ErrorResponse clientError
+                && clientError.getStatusCode().is4xxClientError()) {
+            recordError(ex.getMessage());
+            return ResponseEntity.status(clientError.getStatusCode()).body(new ErrorResponse(
+                    clientError.getStatusCode().value(),
+                    "Erreur",
+                    Map.of("error", ex.getMessage()),
+                    LocalDateTime.now()
+            ));
+        }
+        
         logger.error("Exception non gérée: {} - {}", ex.getClass().getName(), ex.getMessage(), ex);
+        recordError(ex.getClass().getName() + ": " + ex.getMessage());
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -166,6 +354,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
+    /**
+     * Message d'erreur repris par AccessLogFilter dans la ligne de journal de la requête.
+     */
+    private static void recordError(String message) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(AccessLogFilter.ERROR_ATTRIBUTE, message, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
     /**
      * Classe pour structurer les réponses d'erreur en JSON.
      * 
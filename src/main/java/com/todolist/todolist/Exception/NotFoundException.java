@@ -0,0 +1,18 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 404 : la ressource n'existe pas (ou a été supprimée).
+ */
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
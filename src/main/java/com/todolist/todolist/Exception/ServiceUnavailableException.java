@@ -0,0 +1,18 @@
+package com.todolist.todolist.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 503 : capacité de traitement momentanément épuisée (file des imports pleine), le client peut réessayer plus tard.
+ */
+public class ServiceUnavailableException extends DomainException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
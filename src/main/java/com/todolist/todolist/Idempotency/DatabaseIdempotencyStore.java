@@ -0,0 +1,188 @@
+package com.todolist.todolist.Idempotency;
+
+import com.todolist.todolist.Entity.IdempotencyRecord;
+import com.todolist.todolist.Exception.ConflictException;
+import com.todolist.todolist.Repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Stockage des réponses idempotentes en base (table idempotency_records), pour plusieurs instances.
+ * 
+ * Workflow :
+ * 1. Les doublons sur la MÊME instance sont regroupés en mémoire sur l'exécution en cours (inFlight)
+ * 2. Réponse déjà enregistrée (COMPLETED, non expirée) → rejouée
+ * 3. Sinon, réservation de la clé par INSERT (IN_PROGRESS) : une seule instance peut réussir
+ * 4. L'instance qui a réservé exécute le traitement puis enregistre la réponse (COMPLETED)
+ * 5. Une autre instance qui trouve la clé IN_PROGRESS répond 409 (le client réessaiera)
+ * 6. En cas d'échec du traitement, la réservation est supprimée
+ * 
+ * La réservation est un bail court (idempotency.lease-seconds, de l'ordre du délai d'une requête) ;
+ * seule la réponse enregistrée est gardée idempotency.ttl-seconds. Si l'instance s'arrête pendant
+ * le traitement, la clé est reprise à l'expiration du bail, sans attendre la purge.
+ * 
+ * Le corps de la réponse est stocké en JSON avec son type (limité aux DTOs du package Json).
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final String DTO_PACKAGE = "com.todolist.todolist.Json.";
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public DatabaseIdempotencyStore(
+            IdempotencyRecordRepository repository,
+            PlatformTransactionManager transactionManager,
+            JsonMapper jsonMapper
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public StoredResponse execute(String key, Supplier<StoredResponse> action) {
+        String keyHash = sha256(key);
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(keyHash, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            StoredResponse response = executeOnce(keyHash, action);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keyHash, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private StoredResponse executeOnce(String keyHash, Supplier<StoredResponse> action) {
+        Optional<StoredResponse> stored = findCompleted(keyHash);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.reserve(keyHash, now, now.plusSeconds(leaseSeconds)));
+        } catch (DataIntegrityViolationException e) {
+            // Clé déjà présente : reprise si elle a expiré, sinon réservée par une autre instance (ou terminée)
+            Integer takenOver = transactionTemplate.execute(status ->
+                    repository.takeOverExpired(keyHash, now, now.plusSeconds(leaseSeconds)));
+            if (takenOver == null || takenOver == 0) {
+                return findCompleted(keyHash).orElseThrow(() -> new ConflictException(
+                        "Une requête avec la même clé d'idempotence est en cours"));
+            }
+        }
+
+        StoredResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteById(keyHash));
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> repository.findById(keyHash).ifPresent(record -> {
+            record.setStatus(IdempotencyRecord.COMPLETED);
+            record.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+            record.setHttpStatus(response.status());
+            if (response.body() != null) {
+                record.setBodyType(response.body().getClass().getName());
+                record.setBody(jsonMapper.writeValueAsString(response.body()));
+            }
+            repository.save(record);
+        }));
+        return response;
+    }
+
+    /**
+     * @return La réponse enregistrée si la clé est terminée et non expirée
+     */
+    private Optional<StoredResponse> findCompleted(String keyHash) {
+        return repository.findById(keyHash)
+                .filter(record -> IdempotencyRecord.COMPLETED.equals(record.getStatus()))
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(this::toResponse);
+    }
+
+    private StoredResponse toResponse(IdempotencyRecord record) {
+        if (record.getBodyType() == null) {
+            return new StoredResponse(record.getHttpStatus(), null);
+        }
+        if (!record.getBodyType().startsWith(DTO_PACKAGE)) {
+            throw new IllegalStateException("Type de réponse non autorisé: " + record.getBodyType());
+        }
+        try {
+            Class<?> type = Class.forName(record.getBodyType());
+            return new StoredResponse(record.getHttpStatus(), jsonMapper.readValue(record.getBody(), type));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Type de réponse inconnu: " + record.getBodyType(), e);
+        }
+    }
+
+    private StoredResponse join(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
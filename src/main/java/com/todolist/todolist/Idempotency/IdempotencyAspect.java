@@ -0,0 +1,114 @@
+package com.todolist.todolist.Idempotency;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Aspect AOP qui applique le header "Idempotency-Key" sur les méthodes annotées @Idempotent.
+ * 
+ * @Around (et non @Before comme TodoOwnershipAspect) : l'aspect doit pouvoir NE PAS appeler la méthode
+ * quand la réponse est rejouée, et récupérer son résultat pour le mémoriser.
+ * 
+ * Clé mémorisée = "<utilisateur>|<méthode> <route>|<Idempotency-Key>"
+ * - utilisateur : le username authentifié, ou "ip:<adresse>" pour les routes anonymes (register)
+ * - la même clé envoyée sur deux endpoints différents ne se mélange pas
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Around("@annotation(com.todolist.todolist.Idempotency.Idempotent)")
+    public Object applyIdempotency(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Le header " + HEADER + " est trop long");
+        }
+
+        String key = scope(request) + "|" + request.getMethod() + " " + request.getServletPath() + "|" + idempotencyKey;
+
+        boolean[] executed = {false};
+        StoredResponse response;
+        try {
+            response = idempotencyStore.execute(key, () -> {
+                executed[0] = true;
+                return toStoredResponse(proceed(joinPoint));
+            });
+        } catch (ProceedException e) {
+            throw e.getCause();
+        }
+
+        if (!executed[0] && attributes.getResponse() != null) {
+            HttpServletResponse httpResponse = attributes.getResponse();
+            httpResponse.setHeader(REPLAYED_HEADER, "true");
+        }
+
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        if (ResponseEntity.class.isAssignableFrom(returnType)) {
+            return ResponseEntity.status(response.status()).body(response.body());
+        }
+        return response.body();
+    }
+
+    private String scope(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static StoredResponse toStoredResponse(Object result) {
+        if (result instanceof ResponseEntity<?> entity) {
+            return new StoredResponse(entity.getStatusCode().value(), entity.getBody());
+        }
+        return new StoredResponse(HttpStatus.OK.value(), result);
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ProceedException(e);
+        }
+    }
+
+    /**
+     * Transporte une exception checked de la méthode interceptée à travers le Supplier du store.
+     */
+    private static final class ProceedException extends RuntimeException {
+        ProceedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.todolist.todolist.Idempotency;
+
+import java.util.function.Supplier;
+
+/**
+ * Stockage des réponses associées aux clés d'idempotence.
+ * 
+ * Deux implémentations, choisies avec la propriété idempotency.store :
+ * - memory (défaut) : InMemoryIdempotencyStore, une seule instance de l'application
+ * - database : DatabaseIdempotencyStore, partagé entre plusieurs instances via la table idempotency_records
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Exécute action une seule fois par clé.
+     * 
+     * - Clé inconnue : exécute action et mémorise son résultat (sauf en cas d'exception)
+     * - Exécution en cours pour la même clé : attend son résultat
+     * - Résultat déjà mémorisé (et non expiré) : le renvoie sans exécuter action
+     * 
+     * @param key La clé complète (utilisateur + endpoint + Idempotency-Key)
+     * @param action Le traitement réel (appel du controller)
+     * @return La réponse, calculée ou rejouée
+     */
+    StoredResponse execute(String key, Supplier<StoredResponse> action);
+}
@@ -0,0 +1,32 @@
+package com.todolist.todolist.Idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rend un endpoint non idempotent (POST) rejouable sans effet de bord grâce au header "Idempotency-Key".
+ * 
+ * Même principe que @CheckTodoOwnership : l'annotation marque la méthode du controller,
+ * IdempotencyAspect intercepte l'appel.
+ * 
+ * Utilisation :
+ * @Idempotent
+ * @PostMapping
+ * public BasicTodo createTodo(@Valid @RequestBody CreateTodoRequest request) { ... }
+ * 
+ * Fonctionnement :
+ * 1. Sans header Idempotency-Key : la méthode s'exécute normalement
+ * 2. Première requête avec une clé : la méthode s'exécute, la réponse est mémorisée
+ * 3. Requête identique pendant l'exécution de la première : elle attend et reçoit la même réponse
+ * 4. Requête identique après : la réponse mémorisée est renvoyée sans rappeler le service
+ *    (header "Idempotent-Replayed: true")
+ * 5. Si la première exécution échoue (exception), rien n'est mémorisé : le client peut réessayer
+ * 
+ * La clé est propre à chaque utilisateur (ou à chaque IP pour les routes anonymes) et à chaque endpoint.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
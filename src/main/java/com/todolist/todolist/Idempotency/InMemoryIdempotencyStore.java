@@ -0,0 +1,143 @@
+package com.todolist.todolist.Idempotency;
+
+import com.todolist.todolist.Exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Stockage en mémoire des réponses idempotentes (une seule instance de l'application).
+ * 
+ * - Thread-safe : ConcurrentHashMap.putIfAbsent garantit qu'une seule requête "gagne" une clé
+ * - Coalescing : les doublons concurrents attendent le CompletableFuture de la première exécution
+ * - Borné : au-delà de idempotency.max-entries, les entrées les plus anciennes sont supprimées (FIFO)
+ * - TTL : les entrées expirent après idempotency.ttl-seconds (purge périodique + vérification à la lecture)
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Ordre d'insertion, pour supprimer les entrées les plus anciennes quand la limite est atteinte.
+     */
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    /**
+     * Temps d'attente maximum d'un doublon pendant que la première requête s'exécute.
+     */
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Override
+    public StoredResponse execute(String key, Supplier<StoredResponse> action) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry mine = new Entry(key);
+            Entry existing = entries.putIfAbsent(key, mine);
+
+            if (existing == null) {
+                insertionOrder.add(mine);
+                evictOverflow();
+                return run(mine, action);
+            }
+
+            if (existing.isExpired(now)) {
+                entries.remove(key, existing);
+                continue;
+            }
+
+            return await(existing);
+        }
+    }
+
+    /**
+     * Purge périodique des entrées expirées.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        insertionOrder.removeIf(entry -> {
+            if (entry.isExpired(now)) {
+                entries.remove(entry.key, entry);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private StoredResponse run(Entry entry, Supplier<StoredResponse> action) {
+        try {
+            StoredResponse response = action.get();
+            entry.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            entry.future.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            // Échec : rien n'est mémorisé, le client pourra réessayer avec la même clé
+            entries.remove(entry.key, entry);
+            insertionOrder.remove(entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("Une requête avec la même clé d'idempotence est en cours");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest.key, oldest);
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+
+        /**
+         * Long.MAX_VALUE tant que l'exécution est en cours (une entrée en cours n'expire pas).
+         */
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
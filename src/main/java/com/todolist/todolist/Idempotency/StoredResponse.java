@@ -0,0 +1,7 @@
+package com.todolist.todolist.Idempotency;
+
+/**
+ * Réponse mémorisée pour une clé d'idempotence : code HTTP + corps (DTO).
+ */
+public record StoredResponse(int status, Object body) {
+}
@@ -0,0 +1,174 @@
+package com.todolist.todolist.Import;
+
+import com.todolist.todolist.Json.Todo.CreateTodoRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lecteur CSV (RFC 4180) en flux : séparateur virgule, guillemets doublés à l'intérieur d'une valeur
+ * entre guillemets, fins de ligne \n ou \r\n, sauts de ligne permis dans une valeur entre guillemets.
+ *
+ * Un enregistrement trop long (MAX_RECORD_CHARS) est lu jusqu'au bout mais pas gardé en mémoire :
+ * la ligne est rejetée et la lecture continue à la suivante.
+ */
+final class CsvRowReader implements ImportRowReader {
+
+    /**
+     * Même format que finalDate dans le corps de POST /todos (CreateTodoRequest).
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd:HH:mm:ss");
+
+    private static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    private int noteColumn = -1;
+    private int descriptionColumn = -1;
+    private int finalDateColumn = -1;
+    private int recurrenceColumn = -1;
+    /**
+     * Sauts de ligne lus jusqu'ici, y compris dans les valeurs entre guillemets.
+     */
+    private long newlines;
+
+    /**
+     * Ligne du fichier où commence l'enregistrement lu par readRecord.
+     */
+    private long recordLine;
+    private boolean tooLong;
+
+    CsvRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (readRecord()) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (tooLong) {
+                return ImportRow.failed(recordLine, "Ligne trop longue (plus de " + MAX_RECORD_CHARS + " caractères)");
+            }
+
+            CreateTodoRequest todo = new CreateTodoRequest();
+            todo.setNote(column(noteColumn));
+            String description = column(descriptionColumn);
+            todo.setDescription(description == null || description.isEmpty() ? null : description);
+            String recurrence = column(recurrenceColumn);
+            todo.setRecurrence(recurrence == null || recurrence.isBlank() ? null : recurrence);
+            String finalDate = column(finalDateColumn);
+            if (finalDate != null && !finalDate.isBlank()) {
+                try {
+                    todo.setFinalDate(LocalDateTime.parse(finalDate.trim(), DATE_FORMAT));
+                } catch (DateTimeParseException e) {
+                    return ImportRow.failed(recordLine, "finalDate doit respecter le format yyyy-MM-dd:HH:mm:ss");
+                }
+            }
+            return ImportRow.of(recordLine, todo);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (!readRecord()) {
+            throw new ImportFileException("Fichier CSV vide : la première ligne doit être l'en-tête");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && !name.isEmpty() && name.charAt(0) == '\uFEFF') {
+                name = name.substring(1);
+            }
+            switch (name) {
+                case "note" -> noteColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "finaldate", "final_date" -> finalDateColumn = i;
+                case "recurrence" -> recurrenceColumn = i;
+                default -> {
+                }
+            }
+        }
+        if (noteColumn < 0 || finalDateColumn < 0) {
+            throw new ImportFileException("En-tête CSV invalide : les colonnes note et finalDate sont obligatoires");
+        }
+    }
+
+    private String column(int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Lit un enregistrement complet dans fields.
+     *
+     * @return false à la fin du fichier (aucun caractère lu)
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        tooLong = false;
+        recordLine = newlines + 1;
+        int length = 0;
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (c == '\n') {
+                newlines++;
+            }
+            if (++length > MAX_RECORD_CHARS) {
+                tooLong = true;
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private void append(char c) {
+        if (!tooLong) {
+            field.append(c);
+        }
+    }
+}
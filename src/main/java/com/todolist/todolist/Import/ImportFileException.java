@@ -0,0 +1,12 @@
+package com.todolist.todolist.Import;
+
+/**
+ * Fichier inutilisable dans son ensemble : l'import s'arrête (statut FAILED) avec ce message.
+ * Une ligne invalide, elle, est seulement rejetée (ImportRow.error).
+ */
+class ImportFileException extends RuntimeException {
+
+    ImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.todolist.todolist.Import;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats acceptés par POST /todos/import, choisis par le Content-Type de la requête.
+ *
+ * - CSV : première ligne = en-tête avec les colonnes note, description, finalDate (ordre libre,
+ *   recurrence facultative, autres colonnes ignorées), valeurs entre guillemets si elles contiennent une virgule ou un saut de ligne
+ * - NDJSON : un objet JSON par ligne, même forme que le corps de POST /todos
+ */
+public enum ImportFormat {
+
+    CSV(ImportFormat.CSV_MEDIA_TYPE),
+    NDJSON(ImportFormat.NDJSON_MEDIA_TYPE);
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+
+    ImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * @return Le format correspondant au Content-Type (paramètres comme charset ignorés), ou null
+     */
+    public static ImportFormat of(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (ImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.todolist.todolist.Import;
+
+import com.todolist.todolist.Json.Todo.CreateTodoRequest;
+
+/**
+ * Une ligne du fichier importé : le todo lu, ou l'erreur de lecture (valeur illisible, JSON invalide...).
+ *
+ * @param line Numéro de ligne dans le fichier, lignes vides et en-tête CSV compris (1 = première ligne),
+ *             où commence l'enregistrement : une valeur CSV entre guillemets peut en couvrir plusieurs
+ */
+record ImportRow(long line, CreateTodoRequest todo, String error) {
+
+    static ImportRow of(long line, CreateTodoRequest todo) {
+        return new ImportRow(line, todo, null);
+    }
+
+    static ImportRow failed(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+}
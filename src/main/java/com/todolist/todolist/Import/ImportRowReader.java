@@ -0,0 +1,16 @@
+package com.todolist.todolist.Import;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecture en flux du fichier importé, une ligne à la fois : la mémoire utilisée ne dépend pas de la taille du fichier.
+ */
+interface ImportRowReader extends Closeable {
+
+    /**
+     * @return La ligne suivante, ou null à la fin du fichier
+     * @throws ImportFileException si le fichier entier est inutilisable (en-tête CSV invalide)
+     */
+    ImportRow next() throws IOException;
+}
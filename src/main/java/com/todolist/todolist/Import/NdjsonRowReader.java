@@ -0,0 +1,58 @@
+package com.todolist.todolist.Import;
+
+import com.todolist.todolist.Json.Todo.CreateTodoRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lecteur NDJSON : chaque ligne non vide est un objet JSON lu comme le corps de POST /todos.
+ * Une ligne invalide est rejetée sans interrompre la lecture des suivantes.
+ */
+final class NdjsonRowReader implements ImportRowReader {
+
+    private static final int MAX_ERROR_CHARS = 200;
+
+    private final BufferedReader reader;
+    private final ObjectReader todoReader;
+    private long line;
+
+    NdjsonRowReader(BufferedReader reader, ObjectReader todoReader) {
+        this.reader = reader;
+        this.todoReader = todoReader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                CreateTodoRequest todo = todoReader.readValue(text);
+                return todo != null ? ImportRow.of(line, todo) : ImportRow.failed(line, "Objet JSON attendu");
+            } catch (MismatchedInputException e) {
+                // Message de Jackson trop technique (noms de classes) : seul le champ fautif est donné
+                String field = e.getPath().isEmpty() ? "" : " (" + e.getPath().get(e.getPath().size() - 1).getPropertyName() + ")";
+                return ImportRow.failed(line, "Objet JSON attendu, avec des valeurs du bon type" + field);
+            } catch (JacksonException e) {
+                return ImportRow.failed(line, truncate("JSON invalide : " + e.getOriginalMessage()));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_CHARS ? message.substring(0, MAX_ERROR_CHARS) + "…" : message;
+    }
+}
@@ -0,0 +1,470 @@
+package com.todolist.todolist.Import;
+
+import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.TodoImportJob;
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.ConflictException;
+import com.todolist.todolist.Exception.NotFoundException;
+import com.todolist.todolist.Exception.ServiceUnavailableException;
+import com.todolist.todolist.Json.Todo.CreateTodoRequest;
+import com.todolist.todolist.Json.Todo.TodoImportStatus;
+import com.todolist.todolist.Repository.TodoImportJobRepository;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Repository.UserRepository;
+import com.todolist.todolist.Service.Impl.TodoTagIndex;
+import com.todolist.todolist.Service.TodoRankService;
+import com.todolist.todolist.Service.TodoStatsService;
+import com.todolist.todolist.Utils.RecurrenceRule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Import de todos en arrière-plan (POST /todos/import).
+ *
+ * Déroulement :
+ * 1. La requête copie le corps dans un fichier temporaire (taille bornée par todo-import.max-bytes) puis
+ *    enregistre le job (PENDING) et répond 202 : le client n'attend pas l'insertion de milliers de lignes
+ * 2. Un thread du pool "todo-import-" relit le fichier en flux, valide chaque ligne comme POST /todos
+ *    et regroupe les todos valides par lots (todo-import.batch-size)
+ * 3. Chaque lot est inséré par un INSERT JDBC en batch (TodoRepository.insertBatch), dans une transaction
+ *    courte qui enregistre aussi la progression du job
+ * 4. En fin de fichier : statut COMPLETED, ou FAILED si le fichier entier est inutilisable
+ *
+ * L'import n'est pas atomique : en cas d'échec, les lots déjà insérés restent (rowsImported les compte).
+ * Un seul import actif par utilisateur (409 sinon, vérifié sous verrou de la ligne users), et la file
+ * du pool est bornée (503 si elle est pleine).
+ *
+ * Les todos importés ne passent pas par TodoServiceImpl : pas d'événement SSE par ligne (le client
+ * recharge GET /todos à la fin), statistiques recalculées à chaque lot (TodoStatsService.recount).
+ * Les étiquettes ne sont pas importées (INSERT JDBC sans todo_tags) : une ligne qui en porte est rejetée,
+ * et l'index des étiquettes de l'utilisateur est oublié puis reconstruit à la prochaine lecture.
+ */
+@Service
+@RequiredArgsConstructor
+public class TodoImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoImportService.class);
+
+    private static final List<TodoImportJob.Status> ACTIVE = List.of(TodoImportJob.Status.PENDING, TodoImportJob.Status.RUNNING);
+    private static final int MAX_FAILURE_CHARS = 512;
+
+    private final TodoImportJobRepository jobRepository;
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final TodoStatsService todoStatsService;
+    private final TodoTagIndex tagIndex;
+    private final TodoRankService todoRankService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+
+    @Value("${todo-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${todo-import.threads:2}")
+    private int threads;
+
+    @Value("${todo-import.queue-size:8}")
+    private int queueSize;
+
+    @Value("${todo-import.max-bytes:52428800}")
+    private long maxBytes;
+
+    @Value("${todo-import.max-rows:100000}")
+    private long maxRows;
+
+    /**
+     * Nombre de lignes rejetées dont le message est conservé (les suivantes sont seulement comptées).
+     */
+    @Value("${todo-import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * Un job PENDING ou RUNNING sans écriture depuis ce délai est considéré comme interrompu.
+     */
+    @Value("${todo-import.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    @Value("${todo-import.retention-days:7}")
+    private int retentionDays;
+
+    private ThreadPoolExecutor executor;
+    private ObjectReader todoReader;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("todo-import-"));
+        todoReader = jsonMapper.readerFor(CreateTodoRequest.class);
+    }
+
+    /**
+     * Les imports en cours sont interrompus : leur job passe en FAILED s'il reste le temps de l'écrire,
+     * sinon il sera vu comme interrompu après todo-import.stale-after-minutes.
+     */
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Enregistre le fichier et met l'import en file.
+     *
+     * @throws ConflictException si un import de l'utilisateur est déjà en attente ou en cours
+     * @throws BadRequestException si le fichier dépasse todo-import.max-bytes
+     * @throws ServiceUnavailableException si la file des imports est pleine
+     */
+    public TodoImportStatus submit(Long userId, ImportFormat format, InputStream body) {
+        // Refus rapide avant de lire le fichier ; la vérification qui fait foi est refaite sous verrou
+        if (jobRepository.existsActive(userId, ACTIVE, staleBefore())) {
+            throw new ConflictException("Un import est déjà en cours pour cet utilisateur");
+        }
+
+        Path file = spool(body, format);
+
+        TodoImportJob saved;
+        try {
+            saved = transactionTemplate.execute(status -> createJob(userId, format));
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        // Réponse calculée avant la mise en file : le thread d'import modifie ensuite le job
+        TodoImportStatus accepted = toStatus(saved);
+
+        try {
+            executor.execute(() -> run(saved, file));
+        } catch (RejectedExecutionException e) {
+            jobRepository.delete(saved);
+            deleteQuietly(file);
+            throw new ServiceUnavailableException("Trop d'imports en cours, réessayez dans quelques instants");
+        }
+        return accepted;
+    }
+
+    /**
+     * Deux soumissions simultanées passeraient toutes les deux un simple "existe-t-il un import actif ?" :
+     * la ligne de l'utilisateur est verrouillée (SELECT ... FOR UPDATE) jusqu'à l'INSERT du job,
+     * la seconde attend le commit de la première puis voit son job.
+     */
+    private TodoImportJob createJob(Long userId, ImportFormat format) {
+        if (userRepository.lockByIdNotDeleted(userId).isEmpty()) {
+            throw new NotFoundException("Utilisateur non trouvé");
+        }
+        if (jobRepository.existsActive(userId, ACTIVE, staleBefore())) {
+            throw new ConflictException("Un import est déjà en cours pour cet utilisateur");
+        }
+        TodoImportJob job = new TodoImportJob();
+        job.setUserId(userId);
+        job.setStatus(TodoImportJob.Status.PENDING);
+        job.setFormat(format.name());
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        return jobRepository.save(job);
+    }
+
+    /**
+     * @throws NotFoundException si le job n'existe pas ou appartient à un autre utilisateur
+     */
+    public TodoImportStatus getStatus(Long userId, Long jobId) {
+        TodoImportJob job = jobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new NotFoundException("Import non trouvé"));
+        return toStatus(job);
+    }
+
+    /**
+     * Supprime les jobs plus anciens que todo-import.retention-days (toutes les heures par défaut).
+     */
+    @Scheduled(fixedDelayString = "${todo-import.purge-interval-ms:3600000}")
+    public void purgeOldJobs() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> jobRepository.deleteCreatedBefore(before));
+        if (deleted != null && deleted > 0) {
+            logger.info("Jobs d'import purgés: {}", deleted);
+        }
+    }
+
+    private Path spool(InputStream body, ImportFormat format) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("todo-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new BadRequestException("Fichier trop volumineux (maximum " + maxBytes / (1024 * 1024) + " Mo)");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new IllegalStateException("Impossible d'enregistrer le fichier importé", e);
+        } catch (BadRequestException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void run(TodoImportJob job, Path file) {
+        ImportRun importRun = new ImportRun(job);
+        String failure = null;
+        try {
+            job.setStatus(TodoImportJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getStartedAt());
+            jobRepository.save(job);
+
+            try (ImportRowReader reader = open(job, file)) {
+                ImportRow row;
+                while ((row = reader.next()) != null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new ImportFileException("Import interrompu (arrêt de l'application)");
+                    }
+                    if (importRun.rowsRead >= maxRows) {
+                        failure = "Trop de lignes (maximum " + maxRows + ")";
+                        break;
+                    }
+                    importRun.accept(row);
+                    if (importRun.batch.size() >= batchSize) {
+                        flush(importRun);
+                    }
+                }
+            }
+            // Après "trop de lignes" aussi : les lignes lues jusqu'à la limite sont importées
+            flush(importRun);
+        } catch (ImportFileException e) {
+            failure = e.getMessage();
+        } catch (CharacterCodingException e) {
+            failure = "Fichier illisible : encodage UTF-8 attendu";
+        } catch (Exception e) {
+            logger.error("Échec de l'import {}", job.getId(), e);
+            failure = "Erreur interne pendant l'import";
+        } finally {
+            deleteQuietly(file);
+        }
+        finish(importRun, failure);
+    }
+
+    private ImportRowReader open(TodoImportJob job, Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (ImportFormat.valueOf(job.getFormat()) == ImportFormat.CSV) {
+            return new CsvRowReader(reader);
+        }
+        return new NdjsonRowReader(reader, todoReader);
+    }
+
+    /**
+     * Insère le lot et enregistre la progression dans la même transaction. En cas d'échec,
+     * les compteurs en mémoire reviennent aux valeurs enregistrées.
+     */
+    private void flush(ImportRun importRun) {
+        TodoImportJob job = importRun.job;
+        long rowsRead = job.getRowsRead();
+        long rowsImported = job.getRowsImported();
+        long rowsRejected = job.getRowsRejected();
+
+        job.setRowsRead(importRun.rowsRead);
+        job.setRowsRejected(importRun.rowsRejected);
+        job.setErrors(importRun.errors.isEmpty() ? null : importRun.errors.toString());
+        job.setUpdatedAt(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!importRun.batch.isEmpty()) {
+                    List<String> ranks = todoRankService.ranksAtEnd(job.getUserId(), importRun.batch.size());
+                    for (int i = 0; i < ranks.size(); i++) {
+                        importRun.batch.get(i).setRank(ranks.get(i));
+                    }
+                    int inserted = todoRepository.insertBatch(job.getUserId(), importRun.batch, LocalDateTime.now());
+                    job.setRowsImported(rowsImported + inserted);
+                    todoStatsService.recount(job.getUserId());
+                    tagIndex.forget(job.getUserId());
+                }
+                jobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            job.setRowsRead(rowsRead);
+            job.setRowsImported(rowsImported);
+            job.setRowsRejected(rowsRejected);
+            throw e;
+        }
+        importRun.batch.clear();
+    }
+
+    private void finish(ImportRun importRun, String failure) {
+        TodoImportJob job = importRun.job;
+        job.setStatus(failure == null ? TodoImportJob.Status.COMPLETED : TodoImportJob.Status.FAILED);
+        job.setFailure(failure == null ? null : truncate(failure, MAX_FAILURE_CHARS));
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        try {
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            logger.error("Impossible d'enregistrer la fin de l'import {}", job.getId(), e);
+        }
+    }
+
+    private TodoImportStatus toStatus(TodoImportJob job) {
+        String status = job.getStatus().name();
+        String failure = job.getFailure();
+        if (ACTIVE.contains(job.getStatus()) && job.getUpdatedAt().isBefore(staleBefore())) {
+            status = TodoImportJob.Status.FAILED.name();
+            failure = "Import interrompu (aucune progression depuis " + staleAfterMinutes + " minutes)";
+        }
+
+        double rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : job.getUpdatedAt();
+            long millis = Duration.between(job.getStartedAt(), end).toMillis();
+            rowsPerSecond = millis > 0 ? Math.round(job.getRowsRead() * 10_000.0 / millis) / 10.0 : 0;
+        }
+
+        return new TodoImportStatus(
+                job.getId(),
+                status,
+                job.getFormat(),
+                job.getRowsRead(),
+                job.getRowsImported(),
+                job.getRowsRejected(),
+                rowsPerSecond,
+                parseErrors(job.getErrors()),
+                failure,
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    private static List<TodoImportStatus.RowError> parseErrors(String errors) {
+        List<TodoImportStatus.RowError> result = new ArrayList<>();
+        if (errors == null) {
+            return result;
+        }
+        for (String line : errors.split("\n")) {
+            int separator = line.indexOf('\t');
+            if (separator > 0) {
+                result.add(new TodoImportStatus.RowError(Long.parseLong(line.substring(0, separator)), line.substring(separator + 1)));
+            }
+        }
+        return result;
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusMinutes(staleAfterMinutes);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Fichier temporaire d'import non supprimé: {}", file);
+        }
+    }
+
+    /**
+     * État d'un import en cours d'exécution, propre au thread qui le traite.
+     */
+    private final class ImportRun {
+
+        final TodoImportJob job;
+        final List<Todo> batch = new ArrayList<>();
+        final StringBuilder errors = new StringBuilder();
+        long rowsRead;
+        long rowsRejected;
+        int errorsKept;
+
+        ImportRun(TodoImportJob job) {
+            this.job = job;
+        }
+
+        void accept(ImportRow row) {
+            rowsRead++;
+            String error = row.error() != null ? row.error() : validate(row.todo());
+            if (error != null) {
+                reject(row.line(), error);
+                return;
+            }
+            if (row.todo().getTags() != null && !row.todo().getTags().isEmpty()) {
+                reject(row.line(), "Les étiquettes ne sont pas prises en charge par l'import");
+                return;
+            }
+            Todo todo = new Todo();
+            todo.setNote(row.todo().getNote());
+            todo.setDescription(row.todo().getDescription());
+            todo.setFinalDate(row.todo().getFinalDate());
+            if (row.todo().getRecurrence() != null && !row.todo().getRecurrence().isBlank()) {
+                try {
+                    todo.setRecurrence(RecurrenceRule.parse(row.todo().getRecurrence()).toString());
+                } catch (BadRequestException e) {
+                    reject(row.line(), e.getMessage());
+                    return;
+                }
+            }
+            batch.add(todo);
+        }
+
+        private String validate(CreateTodoRequest todo) {
+            Set<ConstraintViolation<CreateTodoRequest>> violations = validator.validate(todo);
+            if (violations.isEmpty()) {
+                return null;
+            }
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        private void reject(long line, String message) {
+            rowsRejected++;
+            if (errorsKept++ < maxErrors) {
+                if (!errors.isEmpty()) {
+                    errors.append('\n');
+                }
+                errors.append(line).append('\t').append(message.replaceAll("[\\t\\r\\n]+", " "));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.todolist.todolist.Invalidation;
+
+/**
+ * Noms des caches locaux, partagés entre l'instance qui publie une invalidation et celles qui l'appliquent.
+ */
+public final class CacheNames {
+
+    /**
+     * Premières pages de l'annuaire des utilisateurs (UserServiceImpl).
+     */
+    public static final String USER_DIRECTORY = "user-directory";
+
+    /**
+     * Liste de révocation des JWT (TokenRevocationService).
+     */
+    public static final String TOKEN_REVOCATIONS = "token-revocations";
+
+    /**
+     * Données dérivées des todos, par id de todo.
+     */
+    public static final String TODOS = "todos";
+
+    /**
+     * Index todo → propriétaire (TodoOwnershipIndex), invalidé à la suppression d'un todo.
+     */
+    public static final String TODO_OWNERSHIP = "todo-ownership";
+
+    /**
+     * Compteurs de GET /todos/stats (TodoStatsServiceImpl), par id d'utilisateur.
+     */
+    public static final String TODO_STATS = "todo-stats";
+
+    /**
+     * Bitmaps des étiquettes (TodoTagIndex), par id d'utilisateur.
+     */
+    public static final String TODO_TAGS = "todo-tags";
+
+    private CacheNames() {
+    }
+}
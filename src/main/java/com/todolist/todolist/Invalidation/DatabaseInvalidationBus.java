@@ -0,0 +1,285 @@
+package com.todolist.todolist.Invalidation;
+
+import com.todolist.todolist.Entity.CacheInvalidation;
+import com.todolist.todolist.Repository.CacheInvalidationRepository;
+import com.todolist.todolist.Utils.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bus d'invalidation multi-instances par la base (table cache_invalidations), sans broker externe.
+ *
+ * Publication : l'invalidation est appliquée tout de suite aux caches de cette instance, puis écrite
+ * dans la table (une ligne, dans sa propre transaction, après le commit de la modification).
+ *
+ * Réception : toutes les invalidation.poll-interval-ms, chaque instance lit les lignes d'id supérieur
+ * à sa position (floor) et applique celles publiées par les autres instances.
+ *
+ * Livraison "au moins une fois" : la position n'avance qu'après application. Piège des ids
+ * auto-incrémentés : ils sont attribués à l'INSERT mais visibles au commit, une ligne 11 peut être
+ * lue avant la 10. Les lignes déjà appliquées au-dessus d'un trou sont donc mémorisées (appliedAbove)
+ * et la position n'avance que sur des ids consécutifs. Un trou qui ne se comble pas (INSERT annulé)
+ * est sauté après invalidation.gap-timeout-ms.
+ *
+ * Une instance qui n'a pas pu lire la table pendant plus de la moitié de la rétention a peut-être
+ * manqué des lignes déjà purgées : elle vide tous ses caches et repart de la fin de la table.
+ *
+ * Caches durables (LocalCache.durable(), ex. révocations de tokens) : vider le cache ne suffit pas,
+ * l'information serait perdue. La ligne est donc écrite dans la transaction de la modification
+ * (un échec d'écriture l'annule, rien n'est perdu en silence), et les lignes de ces caches encore
+ * en table sont rejouées au démarrage et après une perte de fil. La rétention (24h par défaut)
+ * doit couvrir la durée de vie d'un token : au-delà, une révocation ne sert plus à rien.
+ *
+ * Métriques : todolist.invalidation.published / applied (compteurs), todolist.invalidation.lag
+ * (délai entre la publication et l'application sur une autre instance), todolist.invalidation.pending
+ * (lignes lues en attente derrière un trou).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "database", matchIfMissing = true)
+public class DatabaseInvalidationBus implements InvalidationBus, SmartInitializingSingleton {
+
+    private static final String KEY_SEPARATOR = "\n";
+
+    private final CacheInvalidationRepository repository;
+    private final LocalCaches localCaches;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Identifiant de l'instance : deux instances sur la même machine doivent en avoir un différent
+     * (par défaut nom de la machine + pid, c'est le cas).
+     */
+    @Value("${invalidation.node-id:}")
+    private String nodeId;
+
+    @Value("${invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${invalidation.retention-minutes:1440}")
+    private long retentionMinutes;
+
+    @Value("${jwt.expiration:86400000}")
+    private long tokenLifetimeMs;
+
+    /**
+     * Tous les ids inférieurs ou égaux ont été traités.
+     */
+    private long floor;
+
+    /**
+     * Ids supérieurs à floor déjà traités → heure de lecture (ms).
+     */
+    private final TreeMap<Long, Long> appliedAbove = new TreeMap<>();
+
+    private long lastPoll;
+
+    private Counter published;
+    private Counter applied;
+    private Timer lag;
+
+    public DatabaseInvalidationBus(
+            CacheInvalidationRepository repository,
+            LocalCaches localCaches,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.localCaches = localCaches;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Les caches sont vides au démarrage : les invalidations plus anciennes ne concernent pas cette instance.
+     */
+    @PostConstruct
+    void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = defaultNodeId();
+        }
+        if (Duration.ofMinutes(retentionMinutes).toMillis() < tokenLifetimeMs) {
+            log.warn("invalidation.retention-minutes ({}) inférieur à la durée de vie d'un token : "
+                    + "une instance qui démarre peut manquer des révocations", retentionMinutes);
+        }
+        floor = repository.findMaxId();
+        lastPoll = System.currentTimeMillis();
+
+        published = Counter.builder("todolist.invalidation.published")
+                .description("Invalidations écrites dans cache_invalidations par cette instance")
+                .register(meterRegistry);
+        applied = Counter.builder("todolist.invalidation.applied")
+                .description("Invalidations d'autres instances appliquées aux caches locaux")
+                .register(meterRegistry);
+        lag = Timer.builder("todolist.invalidation.lag")
+                .description("Délai entre la publication d'une invalidation et son application ici")
+                .register(meterRegistry);
+        Gauge.builder("todolist.invalidation.pending", this, bus -> bus.pendingCount())
+                .description("Invalidations lues en attente derrière un id manquant")
+                .register(meterRegistry);
+
+        log.info("Bus d'invalidation par la base, instance {}, position {}", nodeId, floor);
+    }
+
+    /**
+     * Relecture des caches durables une fois tous les beans créés : les caches dépendent du bus,
+     * ils ne peuvent pas être recherchés dès start(). Le serveur web et les @Scheduled démarrent après.
+     */
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        replayDurable(floor);
+    }
+
+    @Override
+    public void publish(String cacheName, List<String> keys) {
+        if (!localCaches.contains(cacheName) || (keys != null && keys.isEmpty())) {
+            return;
+        }
+        if (localCaches.isDurable(cacheName)) {
+            // Dans la transaction en cours (ou la sienne s'il n'y en a pas) : une erreur fait échouer la requête
+            repository.save(invalidationOf(cacheName, keys));
+            Transactions.afterCommit(() -> {
+                localCaches.invalidate(cacheName, keys);
+                published.increment();
+            });
+            return;
+        }
+        Transactions.afterCommit(() -> {
+            localCaches.invalidate(cacheName, keys);
+
+            CacheInvalidation invalidation = invalidationOf(cacheName, keys);
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.save(invalidation));
+                published.increment();
+            } catch (RuntimeException e) {
+                // La modification est déjà commitée : on ne fait pas échouer la requête, les autres
+                // instances garderont leur valeur en cache jusqu'à sa prochaine invalidation
+                log.error("Invalidation {} non publiée", cacheName, e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.poll-interval-ms:500}")
+    public synchronized void poll() {
+        long now = System.currentTimeMillis();
+        if (now - lastPoll > Duration.ofMinutes(retentionMinutes).toMillis() / 2) {
+            log.warn("Table cache_invalidations non lue depuis {} ms : caches locaux vidés", now - lastPoll);
+            localCaches.invalidateAll();
+            appliedAbove.clear();
+            floor = repository.findMaxId();
+            replayDurable(floor);
+            lastPoll = now;
+            return;
+        }
+
+        List<CacheInvalidation> rows = repository.findAfter(floor, Limit.of(batchSize));
+        lastPoll = now;
+
+        for (CacheInvalidation row : rows) {
+            if (appliedAbove.containsKey(row.getId())) {
+                continue;
+            }
+            if (!nodeId.equals(row.getNodeId())) {
+                localCaches.invalidate(row.getCacheName(), keysOf(row));
+                applied.increment();
+                lag.record(Duration.between(row.getCreatedAt(), LocalDateTime.now()));
+            }
+            appliedAbove.put(row.getId(), now);
+        }
+
+        while (!appliedAbove.isEmpty()) {
+            Map.Entry<Long, Long> first = appliedAbove.firstEntry();
+            if (first.getKey() != floor + 1 && now - first.getValue() < gapTimeoutMs) {
+                break;
+            }
+            floor = first.getKey();
+            appliedAbove.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Purge des lignes lues par toutes les instances. Exécutée par chaque instance, sans conséquence
+     * si elles le font en même temps.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.purge-interval-ms:60000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(retentionMinutes);
+        transactionTemplate.executeWithoutResult(status -> repository.deleteCreatedBefore(before));
+    }
+
+    /**
+     * Réapplique les lignes des caches durables d'id inférieur ou égal à maxId (toutes instances confondues :
+     * les appliquer deux fois ne change rien).
+     */
+    private void replayDurable(long maxId) {
+        List<String> cacheNames = localCaches.durableCacheNames();
+        if (cacheNames.isEmpty()) {
+            return;
+        }
+        long after = 0L;
+        int replayed = 0;
+        List<CacheInvalidation> rows;
+        do {
+            rows = repository.findOfCachesBetween(cacheNames, after, maxId, Limit.of(batchSize));
+            for (CacheInvalidation row : rows) {
+                localCaches.invalidate(row.getCacheName(), keysOf(row));
+                after = row.getId();
+            }
+            replayed += rows.size();
+        } while (rows.size() == batchSize);
+        log.info("{} invalidations durables rejouées ({})", replayed, cacheNames);
+    }
+
+    private CacheInvalidation invalidationOf(String cacheName, List<String> keys) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setCacheName(cacheName);
+        invalidation.setCacheKeys(keys == null ? null : String.join(KEY_SEPARATOR, keys));
+        invalidation.setNodeId(nodeId);
+        invalidation.setCreatedAt(LocalDateTime.now());
+        return invalidation;
+    }
+
+    private synchronized int pendingCount() {
+        return appliedAbove.size();
+    }
+
+    private static List<String> keysOf(CacheInvalidation row) {
+        return row.getCacheKeys() == null ? null : Arrays.asList(row.getCacheKeys().split(KEY_SEPARATOR));
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,32 @@
+package com.todolist.todolist.Invalidation;
+
+import java.util.List;
+
+/**
+ * Diffusion des invalidations de caches locaux à toutes les instances de l'application.
+ *
+ * Deux implémentations, choisies avec la propriété invalidation.transport :
+ * - database (défaut) : DatabaseInvalidationBus, table cache_invalidations lue régulièrement par chaque instance
+ * - local : LocalInvalidationBus, une seule instance, rien n'est écrit en base
+ *
+ * Dans une transaction, l'invalidation n'est appliquée et diffusée qu'après le commit : un rollback
+ * ne vide aucun cache, et un cache rechargé juste après lit bien la nouvelle valeur.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Invalide des clés d'un cache, sur cette instance puis sur les autres.
+     *
+     * @param cacheName Voir CacheNames ; sans cache local de ce nom, rien n'est publié
+     * @param keys Les clés (sans saut de ligne), ou null pour vider tout le cache
+     */
+    void publish(String cacheName, List<String> keys);
+
+    default void publish(String cacheName, String key) {
+        publish(cacheName, List.of(key));
+    }
+
+    default void publishAll(String cacheName) {
+        publish(cacheName, (List<String>) null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.todolist.todolist.Invalidation;
+
+import java.util.List;
+
+/**
+ * Cache en mémoire d'une instance, tenu à jour par l'InvalidationBus.
+ *
+ * Tout bean qui implémente cette interface est trouvé automatiquement par le bus : une invalidation
+ * publiée sous cacheName() est appliquée sur chaque instance qui possède ce cache.
+ *
+ * invalidate(...) doit être idempotent : la livraison est "au moins une fois", la même invalidation
+ * peut arriver deux fois.
+ *
+ * Un cache durable (durable() == true) reçoit des clés qui portent une information (ex. une révocation
+ * de token) plutôt qu'un simple "à recharger" : perdue, elle ne serait jamais reconstituée. Voir
+ * DatabaseInvalidationBus pour ce que cela change à la publication et à la lecture.
+ */
+public interface LocalCache {
+
+    /**
+     * @return Le nom du cache (voir CacheNames), identique sur toutes les instances
+     */
+    String cacheName();
+
+    /**
+     * @param keys Les clés à retirer, ou null pour vider tout le cache
+     */
+    void invalidate(List<String> keys);
+
+    /**
+     * @return true si aucune invalidation de ce cache ne doit être perdue
+     */
+    default boolean durable() {
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.todolist.todolist.Invalidation;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Les caches locaux de l'instance (beans LocalCache), indexés par nom.
+ *
+ * Recherchés au premier usage et non injectés : les caches (UserServiceImpl, TokenRevocationService)
+ * dépendent eux-mêmes du bus, une injection directe créerait un cycle.
+ */
+@Component
+class LocalCaches {
+
+    private final ObjectProvider<LocalCache> provider;
+    private volatile Map<String, LocalCache> byName;
+
+    LocalCaches(ObjectProvider<LocalCache> provider) {
+        this.provider = provider;
+    }
+
+    boolean contains(String cacheName) {
+        return caches().containsKey(cacheName);
+    }
+
+    boolean isDurable(String cacheName) {
+        LocalCache cache = caches().get(cacheName);
+        return cache != null && cache.durable();
+    }
+
+    List<String> durableCacheNames() {
+        return caches().values().stream().filter(LocalCache::durable).map(LocalCache::cacheName).sorted().toList();
+    }
+
+    void invalidate(String cacheName, List<String> keys) {
+        LocalCache cache = caches().get(cacheName);
+        if (cache != null) {
+            cache.invalidate(keys);
+        }
+    }
+
+    void invalidateAll() {
+        caches().values().forEach(cache -> cache.invalidate(null));
+    }
+
+    private Map<String, LocalCache> caches() {
+        Map<String, LocalCache> caches = byName;
+        if (caches == null) {
+            caches = provider.stream().collect(Collectors.toUnmodifiableMap(LocalCache::cacheName, Function.identity()));
+            byName = caches;
+        }
+        return caches;
+    }
+}
@@ -0,0 +1,26 @@
+package com.todolist.todolist.Invalidation;
+
+import com.todolist.todolist.Utils.Transactions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bus pour une seule instance : l'invalidation est seulement appliquée aux caches locaux.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "local")
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final LocalCaches localCaches;
+
+    @Override
+    public void publish(String cacheName, List<String> keys) {
+        if (localCaches.contains(cacheName) && (keys == null || !keys.isEmpty())) {
+            Transactions.afterCommit(() -> localCaches.invalidate(cacheName, keys));
+        }
+    }
+}
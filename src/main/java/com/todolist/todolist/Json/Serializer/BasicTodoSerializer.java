@@ -0,0 +1,86 @@
+package com.todolist.todolist.Json.Serializer;
+
+import com.todolist.todolist.Json.Todo.BasicTodo;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Sérialiseur JSON écrit à la main pour BasicTodo (réponse de GET /todos).
+ *
+ * Même principe que BasicUserSerializer : écritures directes dans le JsonGenerator (qui écrit
+ * lui-même dans le flux de la réponse HTTP), sans réflexion ni String intermédiaire pour les dates.
+ * L'utilisateur imbriqué est écrit directement par BasicUserSerializer, sans recherche de sérialiseur.
+ *
+ * Le JSON produit est identique à celui du BeanSerializer par défaut (vérifié par TodoSerializationBenchmark).
+ * Tout nouveau champ de BasicTodo doit être ajouté ici, à sa place dans l'ordre des champs.
+ */
+public class BasicTodoSerializer extends ValueSerializer<BasicTodo> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString NOTE = new SerializedString("note");
+    private static final SerializableString FINAL_DATE = new SerializedString("finalDate");
+    private static final SerializableString RECURRENCE = new SerializedString("recurrence");
+    private static final SerializableString TAGS = new SerializedString("tags");
+    private static final SerializableString RANK = new SerializedString("rank");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString USER = new SerializedString("user");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    @Override
+    public void serialize(BasicTodo todo, JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeStartObject(todo);
+
+        gen.writeName(ID);
+        BasicUserSerializer.writeLong(gen, todo.getId());
+
+        gen.writeName(DESCRIPTION);
+        BasicUserSerializer.writeString(gen, todo.getDescription());
+
+        gen.writeName(NOTE);
+        BasicUserSerializer.writeString(gen, todo.getNote());
+
+        gen.writeName(FINAL_DATE);
+        LocalDateTimeWriter.write(gen, todo.getFinalDate());
+
+        gen.writeName(RECURRENCE);
+        BasicUserSerializer.writeString(gen, todo.getRecurrence());
+
+        gen.writeName(TAGS);
+        if (todo.getTags() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (String tag : todo.getTags()) {
+                BasicUserSerializer.writeString(gen, tag);
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeName(RANK);
+        BasicUserSerializer.writeString(gen, todo.getRank());
+
+        gen.writeName(CREATED_AT);
+        LocalDateTimeWriter.write(gen, todo.getCreatedAt());
+
+        gen.writeName(USER);
+        if (todo.getUser() == null) {
+            gen.writeNull();
+        } else {
+            BasicUserSerializer.INSTANCE.serialize(todo.getUser(), gen, ctxt);
+        }
+
+        gen.writeName(VERSION);
+        BasicUserSerializer.writeLong(gen, todo.getVersion());
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return BasicTodo.class;
+    }
+}
@@ -0,0 +1,107 @@
+package com.todolist.todolist.Json.Serializer;
+
+import com.todolist.todolist.Json.User.BasicUser;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sérialiseur JSON écrit à la main pour BasicUser.
+ *
+ * Remplace le BeanSerializer réflexif de Jackson (introspection + appel des getters Lombok par réflexion)
+ * par des écritures directes dans le JsonGenerator. Le JSON produit est identique :
+ * mêmes noms de propriétés, même ordre (celui des champs du DTO), nulls inclus.
+ *
+ * Noms de propriétés : SerializedString pré-encodés une seule fois (pas de ré-échappement à chaque écriture).
+ *
+ * createdAt : dans GET /todos, chaque BasicTodo embarque le même utilisateur, donc la même date.
+ * On garde en cache la dernière date formatée pour ne la formater qu'une fois par liste.
+ */
+public class BasicUserSerializer extends ValueSerializer<BasicUser> {
+
+    static final BasicUserSerializer INSTANCE = new BasicUserSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRSTNAME = new SerializedString("firstname");
+    private static final SerializableString LASTNAME = new SerializedString("lastname");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    /**
+     * Dernière date formatée (immuable, partagée entre threads via un champ volatile).
+     */
+    private volatile CachedDate lastCreatedAt;
+
+    @Override
+    public void serialize(BasicUser user, JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeStartObject(user);
+
+        gen.writeName(ID);
+        writeLong(gen, user.getId());
+
+        gen.writeName(FIRSTNAME);
+        writeString(gen, user.getFirstname());
+
+        gen.writeName(LASTNAME);
+        writeString(gen, user.getLastname());
+
+        gen.writeName(USERNAME);
+        writeString(gen, user.getUsername());
+
+        gen.writeName(EMAIL);
+        writeString(gen, user.getEmail());
+
+        gen.writeName(CREATED_AT);
+        writeCreatedAt(gen, user.getCreatedAt());
+
+        gen.writeName(VERSION);
+        writeLong(gen, user.getVersion());
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return BasicUser.class;
+    }
+
+    private void writeCreatedAt(JsonGenerator gen, LocalDateTime createdAt) {
+        if (createdAt == null || createdAt.getYear() < 0 || createdAt.getYear() > 9999) {
+            LocalDateTimeWriter.write(gen, createdAt);
+            return;
+        }
+        CachedDate cached = lastCreatedAt;
+        if (cached == null || !cached.value.equals(createdAt)) {
+            char[] chars = new char[LocalDateTimeWriter.MAX_LENGTH];
+            int length = LocalDateTimeWriter.format(createdAt, chars);
+            cached = new CachedDate(createdAt, chars, length);
+            lastCreatedAt = cached;
+        }
+        gen.writeString(cached.chars, 0, cached.length);
+    }
+
+    static void writeString(JsonGenerator gen, String value) {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeLong(JsonGenerator gen, Long value) {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    private record CachedDate(LocalDateTime value, char[] chars, int length) {
+    }
+}
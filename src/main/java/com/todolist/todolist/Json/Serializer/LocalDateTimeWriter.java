@@ -0,0 +1,97 @@
+package com.todolist.todolist.Json.Serializer;
+
+import tools.jackson.core.JsonGenerator;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Écriture rapide d'un LocalDateTime au format ISO-8601 (identique à DateTimeFormatter.ISO_LOCAL_DATE_TIME).
+ *
+ * Format produit : "2026-01-05T18:30:00" ou "2026-01-05T18:30:00.123" (fraction sans zéros inutiles),
+ * exactement ce que Jackson écrit par défaut pour un LocalDateTime.
+ *
+ * Différences avec le chemin Jackson standard :
+ * - Pas de DateTimeFormatter (parsing du pattern, StringBuilder, String intermédiaire)
+ * - Les chiffres sont écrits directement dans un buffer char[] réutilisé par thread
+ * - Le buffer est passé tel quel au JsonGenerator (writeString(char[], int, int))
+ */
+public final class LocalDateTimeWriter {
+
+    /**
+     * "yyyy-MM-ddTHH:mm:ss" (19) + ".nnnnnnnnn" (10)
+     */
+    static final int MAX_LENGTH = 29;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private LocalDateTimeWriter() {
+    }
+
+    /**
+     * Écrit la date comme valeur String JSON (ou null).
+     */
+    public static void write(JsonGenerator gen, LocalDateTime value) {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            // Cas marginal : le format ISO ajoute un signe et plus de 4 chiffres, on délègue
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = format(value, buffer);
+        gen.writeString(buffer, 0, length);
+    }
+
+    /**
+     * Formate la date dans le buffer fourni (au moins MAX_LENGTH caractères).
+     * L'année doit être comprise entre 0 et 9999.
+     *
+     * @return Le nombre de caractères écrits
+     */
+    static int format(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        buffer[0] = (char) ('0' + year / 1000);
+        buffer[1] = (char) ('0' + (year / 100) % 10);
+        buffer[2] = (char) ('0' + (year / 10) % 10);
+        buffer[3] = (char) ('0' + year % 10);
+        buffer[4] = '-';
+        writeTwoDigits(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        writeTwoDigits(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        writeTwoDigits(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        writeTwoDigits(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        writeTwoDigits(buffer, 17, value.getSecond());
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+
+        buffer[19] = '.';
+        int position = 28;
+        int remaining = nano;
+        for (int i = 0; i < 9; i++) {
+            buffer[position--] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+
+        // Suppression des zéros de fin, comme appendFraction(NANO_OF_SECOND, 0, 9, true)
+        int end = 29;
+        while (buffer[end - 1] == '0') {
+            end--;
+        }
+        return end;
+    }
+
+    private static void writeTwoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,29 @@
+package com.todolist.todolist.Json.Todo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Élément de GET /todos/agenda : un todo ponctuel, ou une occurrence d'un todo récurrent.
+ * 
+ * - finalDate : échéance effective (nouvelle date si l'occurrence a été déplacée)
+ * - occurrenceDate : date prévue par la règle, qui identifie l'occurrence (null pour un todo ponctuel)
+ * - completed : occurrence marquée comme terminée (PUT /todos/{todoId}/occurrences/{date})
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AgendaItem {
+    Long todoId;
+    String note;
+    String description;
+    LocalDateTime finalDate;
+    LocalDateTime occurrenceDate;
+    String recurrence;
+    boolean completed;
+}
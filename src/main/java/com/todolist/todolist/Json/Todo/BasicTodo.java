@@ -1,19 +1,26 @@
 package com.todolist.todolist.Json.Todo;
 
+import com.todolist.todolist.Json.Serializer.BasicTodoSerializer;
 import com.todolist.todolist.Json.User.BasicUser;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO de réponse pour un Todo.
  * 
  * Contient toutes les informations du todo plus les infos de base de l'utilisateur propriétaire.
  * N'expose PAS les données sensibles de User (mot de passe, etc.).
+ * 
+ * Sérialisé par BasicTodoSerializer (écrit à la main, plus rapide que la réflexion) :
+ * tout nouveau champ doit aussi y être ajouté.
  */
+@JsonSerialize(using = BasicTodoSerializer.class)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -23,7 +30,11 @@ public class BasicTodo {
     String description;
     String note;
     LocalDateTime finalDate;
+    String recurrence;
+    List<String> tags;
+    String rank;
     LocalDateTime createdAt;
     BasicUser user;
+    Long version;
 }
 
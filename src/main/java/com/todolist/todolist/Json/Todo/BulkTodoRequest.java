@@ -0,0 +1,31 @@
+package com.todolist.todolist.Json.Todo;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corps de DELETE /todos et PATCH /todos (actions sur une sélection multiple).
+ * 
+ * DELETE : { "ids": [1, 2, 3] }
+ * PATCH  : { "ids": [1, 2, 3], "patch": { "finalDate": "2026-12-31:18:00:00" } }
+ * 
+ * "patch" suit les règles de TodoMergePatch et s'applique à tous les todos de la liste.
+ */
+@Getter
+@Setter
+public class BulkTodoRequest {
+
+    public static final int MAX_IDS = 500;
+
+    @NotEmpty(message = "La liste des ids est obligatoire")
+    @Size(max = MAX_IDS, message = "Au plus " + MAX_IDS + " todos par requête")
+    List<@NotNull Long> ids;
+
+    Map<String, Object> patch;
+}
@@ -0,0 +1,37 @@
+package com.todolist.todolist.Json.Todo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Réponse de DELETE /todos et PATCH /todos : un statut par id demandé, dans l'ordre de la requête.
+ * 
+ * NOT_FOUND couvre aussi les todos d'un autre utilisateur, pour ne pas révéler leur existence.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTodoResult {
+
+    int updated;
+    List<Item> results;
+
+    public enum Status {
+        OK,
+        NOT_FOUND
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        Long id;
+        Status status;
+    }
+}
@@ -0,0 +1,30 @@
+package com.todolist.todolist.Json.Todo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Todo au format compact : l'utilisateur propriétaire est réduit à son id (ownerId).
+ * Les informations de l'utilisateur sont envoyées une seule fois dans TodoListEnvelope.owner.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompactTodo {
+    Long id;
+    String description;
+    String note;
+    LocalDateTime finalDate;
+    String recurrence;
+    List<String> tags;
+    String rank;
+    LocalDateTime createdAt;
+    Long ownerId;
+    Long version;
+}
@@ -3,10 +3,12 @@ package com.todolist.todolist.Json.Todo;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -14,9 +16,20 @@ public class CreateTodoRequest {
      String description;
 
      @NotBlank(message = "La note est obligatoire")
+     @Size(max = 255, message = "La note ne doit pas dépasser 255 caractères")
      String note;
      
      @NotNull(message = "La date finale est obligatoire")
      @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
      LocalDateTime finalDate;
+
+     /**
+      * Règle de récurrence (voir RecurrenceRule), ex : "WEEKLY" ou "FREQ=WEEKLY;BYDAY=MO,TH;COUNT=10".
+      */
+     String recurrence;
+
+     /**
+      * Noms des étiquettes (voir TagNames) ; créées pour l'utilisateur si elles n'existent pas encore.
+      */
+     List<String> tags;
 }
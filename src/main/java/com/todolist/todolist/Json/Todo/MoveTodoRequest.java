@@ -0,0 +1,15 @@
+package com.todolist.todolist.Json.Todo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Corps de PUT /todos/{id}/position : le todo est placé juste après afterId ou juste avant beforeId
+ * (un seul des deux). Pour le mettre en tête : beforeId = le premier todo de la liste.
+ */
+@Getter
+@Setter
+public class MoveTodoRequest {
+    Long afterId;
+    Long beforeId;
+}
@@ -0,0 +1,46 @@
+package com.todolist.todolist.Json.Todo;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Utils.TagNames;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Filtre par étiquettes de GET /todos?tags=travail,urgent,-perso&match=all|any.
+ *
+ * - included : étiquettes demandées ; match=all (défaut) exige toutes, match=any au moins une
+ * - excluded : étiquettes préfixées par "-", aucun todo retenu ne les porte
+ * - seulement des exclusions : tous les todos sauf ceux qui portent l'une d'elles
+ */
+public record TagFilter(Set<String> included, Set<String> excluded, boolean matchAll) {
+
+    public static final int MAX_TAGS = 20;
+
+    /**
+     * @throws BadRequestException si un nom est invalide, match inconnu ou plus de MAX_TAGS étiquettes
+     */
+    public static TagFilter parse(String tags, String match) {
+        boolean matchAll = switch (match == null ? "all" : match) {
+            case "all" -> true;
+            case "any" -> false;
+            default -> throw new BadRequestException("match doit valoir all ou any");
+        };
+
+        Set<String> included = new TreeSet<>();
+        Set<String> excluded = new TreeSet<>();
+        String[] names = tags.split(",");
+        if (names.length > MAX_TAGS) {
+            throw new BadRequestException("Le filtre accepte au plus " + MAX_TAGS + " étiquettes");
+        }
+        for (String name : names) {
+            String trimmed = name.trim();
+            if (trimmed.startsWith("-")) {
+                excluded.add(TagNames.normalize(trimmed.substring(1)));
+            } else {
+                included.add(TagNames.normalize(trimmed));
+            }
+        }
+        return new TagFilter(included, excluded, matchAll);
+    }
+}
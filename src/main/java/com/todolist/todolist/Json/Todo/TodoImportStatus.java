@@ -0,0 +1,55 @@
+package com.todolist.todolist.Json.Todo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réponse de POST /todos/import (202) et de GET /todos/import/{jobId} : avancement d'un import.
+ * 
+ * - status : PENDING (en file), RUNNING, COMPLETED, FAILED (failure donne la raison)
+ * - rowsRead = rowsImported + rowsRejected (valeurs enregistrées à chaque lot inséré)
+ * - errors : les premières lignes rejetées seulement (todo-import.max-errors), rowsRejected les compte toutes ;
+ *   line est le numéro de ligne dans le fichier (en-tête CSV et lignes vides compris), celle où commence
+ *   l'enregistrement quand une valeur CSV entre guillemets s'étend sur plusieurs lignes
+ * - rowsPerSecond : lignes lues par seconde depuis le début de l'import
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoImportStatus {
+
+    Long id;
+    String status;
+    String format;
+    long rowsRead;
+    long rowsImported;
+    long rowsRejected;
+    double rowsPerSecond;
+    List<RowError> errors;
+    String failure;
+
+    @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
+    LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
+    LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
+    LocalDateTime finishedAt;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        long line;
+        String message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.todolist.todolist.Json.Todo;
+
+import com.todolist.todolist.Json.User.BasicUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Réponse compacte et versionnée de GET /todos.
+ * 
+ * Format :
+ * {
+ *   "version": 1,
+ *   "owner": { "id": 1, "firstname": "...", ... },
+ *   "items": [ { "id": 10, "note": "...", ..., "ownerId": 1 } ]
+ * }
+ * 
+ * Dans le format historique (List<BasicTodo>), chaque todo embarque une copie complète de l'utilisateur.
+ * Ici le propriétaire n'est envoyé qu'une fois, quelle que soit la taille de la liste.
+ * 
+ * Sélection : header "Accept: application/vnd.todolist.compact.v1+json" ou paramètre "?format=compact".
+ * Le format historique reste la réponse par défaut.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoListEnvelope {
+
+    public static final String MEDIA_TYPE = "application/vnd.todolist.compact.v1+json";
+    public static final int VERSION = 1;
+
+    int version;
+    BasicUser owner;
+    List<CompactTodo> items;
+}
@@ -0,0 +1,123 @@
+package com.todolist.todolist.Json.Todo;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Utils.RecurrenceRule;
+import com.todolist.todolist.Utils.TagNames;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Corps d'un PATCH /todos/{id} au format JSON Merge Patch (RFC 7396, Content-Type application/merge-patch+json).
+ * 
+ * Règles du merge patch :
+ * - champ absent → inchangé
+ * - champ présent avec une valeur → remplacé
+ * - champ présent avec null → effacé (uniquement pour description et recurrence, les autres colonnes sont obligatoires)
+ * 
+ * changes contient uniquement les attributs à modifier (nom de l'attribut de l'entité Todo → valeur typée),
+ * ce qui permet un UPDATE SQL limité aux colonnes réellement modifiées.
+ * 
+ * Les étiquettes ("tags", liste qui remplace la précédente, null = toutes retirées) ne sont pas une colonne
+ * de todos mais des lignes de todo_tags : elles restent à part, dans tags.
+ */
+public class TodoMergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    /**
+     * Même format que @JsonFormat de CreateTodoRequest / UpdateTodoRequest.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd:HH:mm:ss");
+
+    private final Map<String, Object> changes;
+    private final Set<String> tags;
+
+    private TodoMergePatch(Map<String, Object> changes, Set<String> tags) {
+        this.changes = Collections.unmodifiableMap(changes);
+        this.tags = tags;
+    }
+
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return Les étiquettes normalisées qui remplacent les actuelles, ou null si "tags" est absent
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && tags == null;
+    }
+
+    /**
+     * Valide le document JSON reçu et le convertit en modifications typées.
+     * 
+     * @param json Le corps de la requête désérialisé
+     * @throws BadRequestException 400 si un champ est inconnu, d'un mauvais type ou obligatoire mais null
+     */
+    public static TodoMergePatch fromJson(Map<String, Object> json) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Set<String> tags = null;
+
+        for (Map.Entry<String, Object> entry : json.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+
+            switch (field) {
+                case "note" -> {
+                    String note = requireString(field, value);
+                    if (note.isBlank()) {
+                        throw badRequest("La note est obligatoire");
+                    }
+                    changes.put("note", note);
+                }
+                case "description" -> changes.put("description", value == null ? null : requireString(field, value));
+                case "finalDate" -> {
+                    String date = requireString(field, value);
+                    try {
+                        changes.put("finalDate", LocalDateTime.parse(date, DATE_FORMAT));
+                    } catch (DateTimeParseException e) {
+                        throw badRequest("finalDate doit respecter le format yyyy-MM-dd:HH:mm:ss");
+                    }
+                }
+                case "recurrence" -> changes.put("recurrence",
+                        value == null ? null : RecurrenceRule.parse(requireString(field, value)).toString());
+                case "tags" -> tags = value == null ? Set.of() : TagNames.normalize(requireStrings(field, value));
+                default -> throw badRequest("Champ non modifiable: " + field);
+            }
+        }
+
+        return new TodoMergePatch(changes, tags);
+    }
+
+    private static String requireString(String field, Object value) {
+        if (value == null) {
+            throw badRequest("Le champ " + field + " ne peut pas être null");
+        }
+        if (!(value instanceof String string)) {
+            throw badRequest("Le champ " + field + " doit être une chaîne de caractères");
+        }
+        return string;
+    }
+
+    private static List<String> requireStrings(String field, Object value) {
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(String.class::isInstance)) {
+            throw badRequest("Le champ " + field + " doit être une liste de chaînes de caractères");
+        }
+        return list.stream().map(String.class::cast).toList();
+    }
+
+    private static BadRequestException badRequest(String message) {
+        return new BadRequestException(message);
+    }
+}
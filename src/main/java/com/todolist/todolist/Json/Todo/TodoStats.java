@@ -0,0 +1,28 @@
+package com.todolist.todolist.Json.Todo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Réponse de GET /todos/stats : compteurs des todos non supprimés de l'utilisateur connecté.
+ * 
+ * Découpage au jour près (fuseau du serveur) :
+ * - overdue : échéance un jour déjà passé
+ * - dueToday : échéance aujourd'hui, même si l'heure est passée
+ * - dueThisWeek : échéance entre aujourd'hui et dimanche inclus (contient dueToday)
+ * - createdThisMonth : créés depuis le 1er du mois en cours
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoStats {
+
+    long total;
+    long overdue;
+    long dueToday;
+    long dueThisWeek;
+    long createdThisMonth;
+}
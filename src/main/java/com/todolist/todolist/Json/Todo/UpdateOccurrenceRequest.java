@@ -0,0 +1,24 @@
+package com.todolist.todolist.Json.Todo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Corps de PUT /todos/{id}/occurrences/{date} : état complet de l'occurrence (remplace le précédent).
+ * Tout à false / null : l'occurrence redevient celle calculée par la règle.
+ */
+@Getter
+@Setter
+public class UpdateOccurrenceRequest {
+    boolean completed;
+    boolean cancelled;
+
+    /**
+     * Nouvelle échéance de cette occurrence seulement (null : date prévue par la règle).
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
+    LocalDateTime finalDate;
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -14,5 +15,15 @@ public class UpdateTodoRequest {
      
      @JsonFormat(pattern = "yyyy-MM-dd:HH:mm:ss")
      LocalDateTime finalDate;
+
+     /**
+      * Nouvelle règle de récurrence ; absente = inchangée (pour la retirer : PATCH avec "recurrence": null).
+      */
+     String recurrence;
+
+     /**
+      * Nouvelles étiquettes, qui remplacent les précédentes ; absentes = inchangées, [] = toutes retirées.
+      */
+     List<String> tags;
 }
 
@@ -1,12 +1,20 @@
 package com.todolist.todolist.Json.User;
 
+import com.todolist.todolist.Json.Serializer.BasicUserSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
+/**
+ * DTO public d'un utilisateur (sans mot de passe ni deletedAt).
+ * 
+ * Sérialisé par BasicUserSerializer (écrit à la main) : tout nouveau champ doit aussi y être ajouté.
+ */
+@JsonSerialize(using = BasicUserSerializer.class)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -18,5 +26,6 @@ public class BasicUser {
     String username;
     String email;
     LocalDateTime createdAt;
+    Long version;
 }
 
@@ -0,0 +1,79 @@
+package com.todolist.todolist.Json.User;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Corps d'un PATCH /users/{id} au format JSON Merge Patch (voir TodoMergePatch pour les règles).
+ * 
+ * Tous les champs d'un utilisateur sont obligatoires : null est refusé.
+ * Les valeurs sont validées avec les mêmes contraintes que UpdateUserRequest (@Size, @Email).
+ * Le mot de passe reste en clair ici, il est hashé par le service.
+ */
+public class UserMergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final Map<String, Object> changes;
+
+    private UserMergePatch(Map<String, Object> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @param json Le corps de la requête désérialisé
+     * @param validator Le validateur Bean Validation (contraintes de UpdateUserRequest)
+     * @throws BadRequestException 400 si un champ est inconnu, null, d'un mauvais type ou invalide
+     */
+    public static UserMergePatch fromJson(Map<String, Object> json, Validator validator) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        UpdateUserRequest request = new UpdateUserRequest();
+
+        for (Map.Entry<String, Object> entry : json.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value == null) {
+                throw badRequest("Le champ " + field + " ne peut pas être null");
+            }
+            if (!(value instanceof String string)) {
+                throw badRequest("Le champ " + field + " doit être une chaîne de caractères");
+            }
+
+            switch (field) {
+                case "firstname" -> request.setFirstname(string);
+                case "lastname" -> request.setLastname(string);
+                case "username" -> request.setUsername(string);
+                case "email" -> request.setEmail(string);
+                case "password" -> request.setPassword(string);
+                default -> throw badRequest("Champ non modifiable: " + field);
+            }
+            if (string.isBlank()) {
+                throw badRequest("Le champ " + field + " ne peut pas être vide");
+            }
+            changes.put(field, string);
+        }
+
+        Set<ConstraintViolation<UpdateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UpdateUserRequest> violation = violations.iterator().next();
+            throw badRequest(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        return new UserMergePatch(changes);
+    }
+
+    private static BadRequestException badRequest(String message) {
+        return new BadRequestException(message);
+    }
+}
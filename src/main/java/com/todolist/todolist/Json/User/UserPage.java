@@ -0,0 +1,23 @@
+package com.todolist.todolist.Json.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page de l'annuaire GET /users (résultat du service, mis en cache pour les premières pages).
+ * 
+ * items : des BasicUser, ou des objets partiels si le paramètre fields est utilisé ; c'est le corps de la réponse.
+ * nextCursor : valeur du paramètre after de la page suivante (header Link), null sur la dernière page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+    List<?> items;
+    String nextCursor;
+}
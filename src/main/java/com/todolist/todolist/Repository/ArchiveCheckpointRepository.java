@@ -0,0 +1,9 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.ArchiveCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchiveCheckpointRepository extends JpaRepository<ArchiveCheckpoint, String> {
+}
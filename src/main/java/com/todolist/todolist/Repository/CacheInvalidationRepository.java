@@ -0,0 +1,32 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.CacheInvalidation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.id > ?1 ORDER BY c.id")
+    List<CacheInvalidation> findAfter(Long id, Limit limit);
+
+    /**
+     * Lignes encore en table des caches durables jusqu'à l'id maxId inclus, pour les rejouer (voir DatabaseInvalidationBus).
+     */
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.cacheName IN ?1 AND c.id > ?2 AND c.id <= ?3 ORDER BY c.id")
+    List<CacheInvalidation> findOfCachesBetween(Collection<String> cacheNames, Long afterId, Long maxId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidation c")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation c WHERE c.createdAt < ?1")
+    int deleteCreatedBefore(LocalDateTime createdAt);
+}
@@ -0,0 +1,37 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * INSERT explicite (et non save()) : save() ferait un merge silencieux si la clé existe déjà,
+     * alors qu'on veut justement une violation de clé primaire quand une autre instance a réservé la clé.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (key_hash, status, created_at, expires_at) VALUES (?1, 'IN_PROGRESS', ?2, ?3)", nativeQuery = true)
+    int reserve(String keyHash, LocalDateTime createdAt, LocalDateTime expiresAt);
+
+    /**
+     * Reprise d'une clé dont l'enregistrement a expiré sans être encore purgé : réservation abandonnée
+     * (instance arrêtée pendant le traitement) ou réponse périmée. UPDATE conditionnel : si deux instances
+     * tentent la reprise, une seule modifie la ligne.
+     *
+     * @return 1 si la clé est reprise, 0 si elle est encore valide
+     */
+    @Modifying
+    @Query(value = "UPDATE idempotency_records SET status = 'IN_PROGRESS', http_status = NULL, body_type = NULL, body = NULL, " +
+            "created_at = ?2, expires_at = ?3 WHERE key_hash = ?1 AND expires_at < ?2", nativeQuery = true)
+    int takeOverExpired(String keyHash, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
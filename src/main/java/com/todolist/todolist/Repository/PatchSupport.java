@@ -0,0 +1,58 @@
+package com.todolist.todolist.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.Map;
+
+/**
+ * Construction des UPDATE partiels utilisés par les merge patch (PATCH /todos/{id}, PATCH /users/{id}).
+ * 
+ * Exemple pour {"note": "..."} sur un todo :
+ * UPDATE todos SET note = ?, version = version + 1
+ * WHERE id = ? AND user_id = ? AND deleted_at IS NULL AND version = ?
+ * 
+ * Un seul aller-retour vers MySQL, sans SELECT préalable : la vérification de propriété,
+ * de suppression logique et de version est faite par la clause WHERE elle-même.
+ * 
+ * La requête est écrite en JPQL plutôt qu'avec CriteriaUpdate : le "+ 1" reste un littéral,
+ * alors que Criteria le transforme en paramètre casté avec le columnDefinition de la colonne version.
+ * Les noms d'attributs sont concaténés sans risque : ils viennent de TodoMergePatch / UserMergePatch,
+ * qui n'acceptent qu'une liste fermée de champs.
+ */
+final class PatchSupport {
+
+    private PatchSupport() {
+    }
+
+    /**
+     * Exécute l'UPDATE et vide le contexte de persistance (comme @Modifying(clearAutomatically = true)) :
+     * une entité déjà chargée dans la requête HTTP ne doit pas masquer les nouvelles valeurs.
+     *
+     * @param restrictions Conditions JPQL spécifiques à l'entité sur l'alias "e" (ex : "e.id = :id"),
+     *                     deletedAt et version sont ajoutés ici
+     * @param parameters Paramètres utilisés par restrictions
+     */
+    static int update(EntityManager entityManager, String entityName, Map<String, Object> changes,
+                      Long expectedVersion, String restrictions, Map<String, Object> parameters) {
+        StringBuilder jpql = new StringBuilder("UPDATE ").append(entityName).append(" e SET ");
+        for (String attribute : changes.keySet()) {
+            jpql.append("e.").append(attribute).append(" = :set_").append(attribute).append(", ");
+        }
+        jpql.append("e.version = e.version + 1 WHERE ").append(restrictions).append(" AND e.deletedAt IS NULL");
+        if (expectedVersion != null) {
+            jpql.append(" AND e.version = :expectedVersion");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString());
+        changes.forEach((attribute, value) -> query.setParameter("set_" + attribute, value));
+        parameters.forEach(query::setParameter);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,39 @@
+package com.todolist.todolist.Repository;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outils communs aux projections partielles (sparse fieldsets) de TodoRepositoryImpl et UserRepositoryImpl.
+ *
+ * Chaque champ demandé devient une colonne du SELECT, avec un alias égal au nom du champ JSON.
+ * Les champs d'un objet imbriqué (ex : l'utilisateur d'un todo) sont préfixés : "user.firstname".
+ */
+final class ProjectionSupport {
+
+    private ProjectionSupport() {
+    }
+
+    static void select(List<Selection<?>> selections, Path<?> path, Set<String> fields, String prefix) {
+        for (String field : fields) {
+            selections.add(path.get(field).alias(prefix + field));
+        }
+    }
+
+    /**
+     * Reconstruit un objet JSON (Map ordonnée) à partir d'une ligne de résultat.
+     */
+    static Map<String, Object> toMap(Tuple tuple, Set<String> fields, String prefix) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, tuple.get(prefix + field));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    @Query("SELECT g FROM Tag g WHERE g.userId = ?1 AND g.name IN ?2")
+    List<Tag> findByUserIdAndNames(Long userId, Collection<String> names);
+
+    /**
+     * Chargement de TodoTagIndex : une ligne par couple (todo non supprimé, étiquette).
+     */
+    @Query("SELECT new com.todolist.todolist.Repository.TodoTagName(t.id, g.name) " +
+            "FROM Todo t JOIN t.tags g WHERE t.user.id = ?1 AND t.deletedAt IS NULL")
+    List<TodoTagName> findTodoTagNamesOfUser(Long userId);
+
+    /**
+     * Requêtes natives utilisées par le job d'archivage (ArchiveServiceImpl), avant la suppression des lignes
+     * de todos et d'utilisateurs.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM todo_tags WHERE todo_id IN ?1", nativeQuery = true)
+    int deleteAssignmentsOfTodos(Collection<Long> todoIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM tags WHERE user_id IN ?1", nativeQuery = true)
+    int deleteOfUsers(Collection<Long> userIds);
+}
@@ -0,0 +1,11 @@
+package com.todolist.todolist.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Todos non supprimés d'un utilisateur pour un jour d'échéance (TodoRepository.countByDueDayOfUser).
+ *
+ * @param createdSince Parmi eux, ceux créés depuis la date passée à la requête
+ */
+public record TodoDueDayCount(LocalDate day, long count, long createdSince) {
+}
@@ -0,0 +1,28 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.TodoImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface TodoImportJobRepository extends JpaRepository<TodoImportJob, Long> {
+
+    @Query("SELECT j FROM TodoImportJob j WHERE j.id = ?1 AND j.userId = ?2")
+    Optional<TodoImportJob> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Job en attente ou en cours, mis à jour depuis updatedSince (un job abandonné par une instance arrêtée ne compte plus).
+     */
+    @Query("SELECT COUNT(j) > 0 FROM TodoImportJob j WHERE j.userId = ?1 AND j.status IN ?2 AND j.updatedAt >= ?3")
+    boolean existsActive(Long userId, Collection<TodoImportJob.Status> statuses, LocalDateTime updatedSince);
+
+    @Modifying
+    @Query("DELETE FROM TodoImportJob j WHERE j.createdAt < ?1")
+    int deleteCreatedBefore(LocalDateTime before);
+}
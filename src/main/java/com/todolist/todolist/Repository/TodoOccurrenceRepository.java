@@ -0,0 +1,31 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.TodoOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TodoOccurrenceRepository extends JpaRepository<TodoOccurrence, Long> {
+
+    @Query("SELECT o FROM TodoOccurrence o WHERE o.todo.id = ?1 AND o.occurrenceDate = ?2")
+    Optional<TodoOccurrence> findByTodoIdAndDate(Long todoId, LocalDateTime occurrenceDate);
+
+    /**
+     * Exceptions qui concernent la plage [from, to) : par leur date d'origine (l'occurrence calculée est
+     * à retirer ou à marquer) ou par leur nouvelle échéance (une occurrence déplacée dans la plage).
+     */
+    @Query("SELECT o FROM TodoOccurrence o WHERE o.todo.id IN ?1 AND (" +
+            "(o.occurrenceDate >= ?2 AND o.occurrenceDate < ?3) OR (o.finalDate >= ?2 AND o.finalDate < ?3))")
+    List<TodoOccurrence> findByTodoIdsInRange(Collection<Long> todoIds, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM TodoOccurrence o WHERE o.todo.id IN ?1")
+    int deleteByTodoIds(Collection<Long> todoIds);
+}
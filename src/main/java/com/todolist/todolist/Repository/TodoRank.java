@@ -0,0 +1,7 @@
+package com.todolist.todolist.Repository;
+
+/**
+ * Clé de classement d'un todo (TodoRepository.findRanks...OfUser).
+ */
+public record TodoRank(Long id, String rank) {
+}
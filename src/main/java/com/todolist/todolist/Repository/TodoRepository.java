@@ -1,15 +1,21 @@
 package com.todolist.todolist.Repository;
 
 import com.todolist.todolist.Entity.Todo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo,Long> {
+public interface TodoRepository extends JpaRepository<Todo,Long>, TodoRepositoryCustom {
     
     @Query("SELECT t FROM Todo t WHERE t.deletedAt IS NULL")
     List<Todo> findAllNotDeleted();
@@ -22,4 +28,122 @@ public interface TodoRepository extends JpaRepository<Todo,Long> {
     
     @Query("SELECT t FROM Todo t WHERE t.id = ?1 AND t.user.id = ?2 AND t.deletedAt IS NULL")
     Optional<Todo> findByIdAndUserIdNotDeleted(Long id, Long userId);
+
+    /**
+     * Ordre manuel (GET /todos?sort=rank) : parcours de l'index (user_id, deleted_at, sort_rank), sans tri.
+     * Les todos pas encore classés (sort_rank NULL) viennent en premier, par id : c'est aussi la place
+     * que leur donne TodoRankServiceImpl en leur attribuant une clé (avant la plus petite).
+     */
+    @Query("SELECT t FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL ORDER BY t.rank, t.id")
+    List<Todo> findAllByUserIdNotDeletedOrderByRank(Long userId);
+
+    @Query("SELECT MAX(t.rank) FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL")
+    String findMaxRankOfUser(Long userId);
+
+    @Query("SELECT MIN(t.rank) FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL")
+    String findMinRankOfUser(Long userId);
+
+    /**
+     * Voisins suivants d'une clé (exclue), dans l'ordre manuel.
+     */
+    @Query("SELECT new com.todolist.todolist.Repository.TodoRank(t.id, t.rank) FROM Todo t " +
+            "WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.rank > ?2 ORDER BY t.rank, t.id")
+    List<TodoRank> findRanksAfterOfUser(Long userId, String rank, Limit limit);
+
+    /**
+     * Clé rank comprise, pour la fenêtre de reclassement qui démarre sur cette clé.
+     */
+    @Query("SELECT new com.todolist.todolist.Repository.TodoRank(t.id, t.rank) FROM Todo t " +
+            "WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.rank >= ?2 ORDER BY t.rank, t.id")
+    List<TodoRank> findRanksFromOfUser(Long userId, String rank, Limit limit);
+
+    /**
+     * Voisins précédents d'une clé (exclue), du plus proche au plus éloigné.
+     */
+    @Query("SELECT new com.todolist.todolist.Repository.TodoRank(t.id, t.rank) FROM Todo t " +
+            "WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.rank < ?2 ORDER BY t.rank DESC, t.id DESC")
+    List<TodoRank> findRanksBeforeOfUser(Long userId, String rank, Limit limit);
+
+    /**
+     * Todos sans clé, du plus récent au plus ancien.
+     */
+    @Query("SELECT t.id FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.rank IS NULL ORDER BY t.id DESC")
+    List<Long> findUnrankedIdsOfUser(Long userId, Limit limit);
+
+    /**
+     * Todos retenus par le filtre d'étiquettes (TodoTagIndex) ; userId et deletedAt sont revérifiés ici,
+     * l'index pouvant avoir un temps de retard sur une autre instance.
+     */
+    @Query("SELECT t FROM Todo t WHERE t.id IN ?1 AND t.user.id = ?2 AND t.deletedAt IS NULL ORDER BY t.id")
+    List<Todo> findAllByIdsAndUserIdNotDeleted(Collection<Long> ids, Long userId);
+
+    /**
+     * Ids des todos non supprimés d'un utilisateur, pour construire son index d'étiquettes.
+     */
+    @Query("SELECT t.id FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL")
+    List<Long> findIdsByUserIdNotDeleted(Long userId);
+
+    /**
+     * Propriétaire seul, sans charger le Todo ni son User (TodoOwnershipIndex).
+     */
+    @Query("SELECT t.user.id FROM Todo t WHERE t.id = ?1 AND t.deletedAt IS NULL")
+    Optional<Long> findOwnerIdNotDeleted(Long id);
+
+    /**
+     * Recalcul complet des compteurs de GET /todos/stats : une ligne par jour d'échéance.
+     */
+    @Query("SELECT new com.todolist.todolist.Repository.TodoDueDayCount(" +
+            "CAST(t.finalDate AS LocalDate), COUNT(t), SUM(CASE WHEN t.createdAt >= ?2 THEN 1L ELSE 0L END)) " +
+            "FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL GROUP BY CAST(t.finalDate AS LocalDate)")
+    List<TodoDueDayCount> countByDueDayOfUser(Long userId, LocalDateTime createdSince);
+
+    /**
+     * Requêtes des opérations groupées (DELETE /todos, PATCH /todos).
+     * lockOwnedIdsNotDeleted verrouille les lignes (SELECT ... FOR UPDATE) : dans la même transaction,
+     * l'UPDATE qui suit modifie exactement ces ids, ce qui permet de renvoyer un statut fiable par id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Todo t WHERE t.id IN ?1 AND t.user.id = ?2 AND t.deletedAt IS NULL")
+    List<Long> lockOwnedIdsNotDeleted(Collection<Long> ids, Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.deletedAt = ?3, t.version = t.version + 1 " +
+            "WHERE t.id IN ?1 AND t.user.id = ?2 AND t.deletedAt IS NULL")
+    int softDeleteByIdsAndUserId(Collection<Long> ids, Long userId, LocalDateTime deletedAt);
+
+    /**
+     * GET /todos/agenda : todos ponctuels dont l'échéance est dans [from, to), par échéance croissante
+     * (index idx_todos_user_final_date), et séries récurrentes commencées avant to.
+     */
+    @Query("SELECT t FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.recurrence IS NULL " +
+            "AND t.finalDate >= ?2 AND t.finalDate < ?3 ORDER BY t.finalDate, t.id")
+    List<Todo> findSingleDueBetweenOfUser(Long userId, LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Query("SELECT t FROM Todo t WHERE t.user.id = ?1 AND t.deletedAt IS NULL AND t.recurrence IS NOT NULL AND t.finalDate < ?2")
+    List<Todo> findRecurringStartedBeforeOfUser(Long userId, LocalDateTime before);
+
+    /**
+     * Lot suivant de la suppression en cascade d'un utilisateur (UserDeletionServiceImpl).
+     * L'index de la clé étrangère user_id contient aussi la clé primaire (InnoDB) : le parcours
+     * "user_id = ?1 AND id > ?2 ORDER BY id" suit l'index sans tri.
+     */
+    @Query(value = "SELECT id FROM todos WHERE user_id = ?1 AND deleted_at IS NULL AND id > ?2 ORDER BY id LIMIT ?3", nativeQuery = true)
+    List<Long> findLiveIdsOfUser(Long userId, Long afterId, int limit);
+
+    /**
+     * Requêtes natives utilisées par le job d'archivage (ArchiveServiceImpl).
+     * Parcours par clé (keyset) : "id > ?2 ORDER BY id LIMIT ?3" reste rapide quel que soit l'avancement,
+     * contrairement à un OFFSET qui relit toutes les lignes déjà parcourues.
+     */
+    @Query(value = "SELECT id FROM todos WHERE deleted_at < ?1 AND id > ?2 ORDER BY id LIMIT ?3", nativeQuery = true)
+    List<Long> findArchivableIds(LocalDateTime deletedBefore, Long afterId, int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO todos_archive (id, note, description, final_date, recurrence, created_at, deleted_at, user_id, archived_at) " +
+            "SELECT id, note, description, final_date, recurrence, created_at, deleted_at, user_id, ?2 FROM todos WHERE id IN ?1", nativeQuery = true)
+    int copyToArchive(List<Long> ids, LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM todos WHERE id IN ?1", nativeQuery = true)
+    int deleteArchived(List<Long> ids);
 }
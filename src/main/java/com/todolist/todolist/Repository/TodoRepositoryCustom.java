@@ -0,0 +1,63 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requêtes de TodoRepository qui ne s'expriment pas avec @Query (construites dynamiquement).
+ * Implémentées dans TodoRepositoryImpl, Spring Data les ajoute automatiquement à TodoRepository.
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * Todos non supprimés d'un utilisateur, en ne lisant que les colonnes demandées.
+     * Le champ "user" provoque une jointure sur users ; sans lui, la table users n'est pas lue.
+     * Le champ "tags" ajoute une seule requête sur todo_tags / tags pour tous les todos lus.
+     *
+     * @param ids Restreint la lecture à ces ids (filtre par étiquettes), ou null pour tous les todos
+     * @param byRank Tri par ordre manuel (sort_rank, puis id)
+     */
+    List<Map<String, Object>> findFieldsByUserIdNotDeleted(Long userId, Set<String> fields, Collection<Long> ids, boolean byRank);
+
+    /**
+     * Applique un merge patch en un seul UPDATE ne contenant que les colonnes modifiées (+ version = version + 1).
+     * La clause WHERE vérifie aussi le propriétaire, deletedAt IS NULL et, si expectedVersion n'est pas null, la version.
+     *
+     * @param changes Attribut de Todo → nouvelle valeur (non vide)
+     * @return Le nombre de lignes modifiées : 0 si le todo n'existe pas, n'appartient pas à userId ou a changé de version
+     */
+    int patchByIdAndUserIdNotDeleted(Long id, Long userId, Map<String, Object> changes, Long expectedVersion);
+
+    /**
+     * Même UPDATE partiel que patchByIdAndUserIdNotDeleted, appliqué à une liste d'ids (sans contrôle de version).
+     */
+    int patchByIdsAndUserIdNotDeleted(Collection<Long> ids, Long userId, Map<String, Object> changes);
+
+    /**
+     * INSERT JDBC par lots (import de fichiers) : pas d'entité gérée par Hibernate, pas d'id relu.
+     * Les todos doivent être valides (note, finalDate, recurrence normalisée, rank) ; createdAt et user_id sont fournis ici.
+     *
+     * @return Le nombre de lignes insérées
+     */
+    int insertBatch(Long userId, List<Todo> todos, LocalDateTime createdAt);
+
+    /**
+     * Verrouille la ligne du todo (déjà chargé) et incrémente tout de suite sa version, sans autre UPDATE :
+     * pour une modification d'une table liée (todo_occurrences) qui change l'état du todo.
+     */
+    void incrementVersion(Todo todo);
+
+    /**
+     * Réécrit sort_rank par lots JDBC (reclassement, TodoRankServiceImpl) et incrémente la version :
+     * la clé fait partie de la représentation du todo (BasicTodo.rank), son ETag doit changer.
+     * Le contexte de persistance est vidé : les entités chargées avant l'appel sont détachées.
+     *
+     * @param ranks Nouvelle clé par id de todo
+     */
+    void updateRanks(Map<Long, String> ranks);
+}
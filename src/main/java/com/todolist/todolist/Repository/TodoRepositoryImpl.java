@@ -0,0 +1,185 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.User;
+import com.todolist.todolist.Utils.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserIdNotDeleted(Long userId, Set<String> fields, Collection<Long> ids, boolean byRank) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> todo = query.from(Todo.class);
+
+        Set<String> todoFields = new LinkedHashSet<>(fields);
+        boolean withUser = todoFields.remove("user");
+        boolean withTags = todoFields.remove("tags");
+        if (withTags) {
+            // id nécessaire pour rattacher les étiquettes, retiré de la réponse s'il n'est pas demandé
+            todoFields.add("id");
+        }
+        Set<String> userFields = new LinkedHashSet<>(FieldSelection.USER_FIELDS);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        ProjectionSupport.select(selections, todo, todoFields, "");
+        if (withUser) {
+            Join<Todo, User> user = todo.join("user");
+            ProjectionSupport.select(selections, user, userFields, "user.");
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(todo.get("user").get("id"), userId));
+        where.add(cb.isNull(todo.get("deletedAt")));
+        if (ids != null) {
+            where.add(todo.get("id").in(ids));
+        }
+        if (byRank) {
+            query.orderBy(cb.asc(todo.get("rank")), cb.asc(todo.get("id")));
+        } else if (ids != null) {
+            query.orderBy(cb.asc(todo.get("id")));
+        }
+        query.select(cb.tuple(selections)).where(where.toArray(new Predicate[0]));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        Map<Long, List<String>> tags = withTags ? findTagNames(userId, ids) : Map.of();
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Tuple tuple : tuples) {
+            Map<String, Object> columns = ProjectionSupport.toMap(tuple, todoFields, "");
+            // Dans l'ordre de fields (celui du DTO), comme la réponse complète
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                switch (field) {
+                    case "user" -> values.put("user", ProjectionSupport.toMap(tuple, userFields, "user."));
+                    case "tags" -> values.put("tags", tags.getOrDefault((Long) columns.get("id"), List.of()));
+                    default -> values.put(field, columns.get(field));
+                }
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    /**
+     * Noms des étiquettes par todo, triés comme dans TodoConverter.
+     */
+    private Map<Long, List<String>> findTagNames(Long userId, Collection<Long> ids) {
+        String jpql = "SELECT t.id, tag.name FROM Todo t JOIN t.tags tag " +
+                "WHERE t.user.id = :userId AND t.deletedAt IS NULL" + (ids != null ? " AND t.id IN :ids" : "");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class).setParameter("userId", userId);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        // Tri Java plutôt qu'ORDER BY : même ordre que la réponse complète, quelle que soit la collation
+        tags.values().forEach(Collections::sort);
+        return tags;
+    }
+
+    @Override
+    @Transactional
+    public int patchByIdAndUserIdNotDeleted(Long id, Long userId, Map<String, Object> changes, Long expectedVersion) {
+        return PatchSupport.update(entityManager, "Todo", changes, expectedVersion,
+                "e.id = :id AND e.user.id = :userId", Map.of("id", id, "userId", userId));
+    }
+
+    @Override
+    @Transactional
+    public int patchByIdsAndUserIdNotDeleted(Collection<Long> ids, Long userId, Map<String, Object> changes) {
+        return PatchSupport.update(entityManager, "Todo", changes, null,
+                "e.id IN :ids AND e.user.id = :userId", Map.of("ids", ids, "userId", userId));
+    }
+
+    /**
+     * Un seul PreparedStatement exécuté par lots (addBatch) : avec rewriteBatchedStatements=true,
+     * le pilote MySQL l'envoie comme un unique INSERT multi-lignes.
+     */
+    @Override
+    @Transactional
+    public int insertBatch(Long userId, List<Todo> todos, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO todos (note, description, final_date, recurrence, sort_rank, created_at, version, user_id) VALUES (?, ?, ?, ?, ?, ?, 0, ?)",
+                todos,
+                todos.size(),
+                (statement, todo) -> {
+                    statement.setString(1, todo.getNote());
+                    statement.setString(2, todo.getDescription());
+                    statement.setTimestamp(3, Timestamp.valueOf(todo.getFinalDate()));
+                    statement.setString(4, todo.getRecurrence());
+                    statement.setString(5, todo.getRank());
+                    statement.setTimestamp(6, created);
+                    statement.setLong(7, userId);
+                });
+        // SUCCESS_NO_INFO (-2) quand le pilote réécrit le lot : chaque ligne compte pour une
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public void incrementVersion(Todo todo) {
+        entityManager.lock(todo, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+    }
+
+    /**
+     * Comme PatchSupport : flush avant l'UPDATE, puis contexte de persistance vidé, pour qu'une entité
+     * déjà chargée ne masque pas la nouvelle clé et la nouvelle version.
+     */
+    @Override
+    @Transactional
+    public void updateRanks(Map<Long, String> ranks) {
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(
+                "UPDATE todos SET sort_rank = ?, version = version + 1 WHERE id = ?",
+                ranks.entrySet(),
+                ranks.size(),
+                (statement, entry) -> {
+                    statement.setString(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                });
+        entityManager.clear();
+    }
+}
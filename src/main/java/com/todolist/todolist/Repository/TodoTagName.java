@@ -0,0 +1,7 @@
+package com.todolist.todolist.Repository;
+
+/**
+ * Ligne de TagRepository.findTodoTagNamesOfUser : un todo et le nom d'une de ses étiquettes.
+ */
+public record TodoTagName(Long todoId, String name) {
+}
@@ -0,0 +1,33 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.UserDeletionJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJob, Long> {
+
+    @Query("SELECT j.userId FROM UserDeletionJob j WHERE j.status = ?1 ORDER BY j.createdAt")
+    List<Long> findUserIdsByStatus(UserDeletionJob.Status status, Limit limit);
+
+    /**
+     * Verrouille le job (SELECT ... FOR UPDATE) pendant le traitement d'un lot :
+     * deux instances ne traitent jamais le même utilisateur en même temps.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM UserDeletionJob j WHERE j.userId = ?1")
+    Optional<UserDeletionJob> lockByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserDeletionJob j WHERE j.status = ?1 AND j.completedAt < ?2")
+    int deleteCompletedBefore(UserDeletionJob.Status status, LocalDateTime before);
+}
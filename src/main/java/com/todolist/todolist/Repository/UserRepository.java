@@ -1,21 +1,42 @@
 package com.todolist.todolist.Repository;
 
 import com.todolist.todolist.Entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL")
     List<User> findAllNotDeleted();
     
+    /**
+     * Pagination par clé (keyset) de l'annuaire : "id > dernier id vu ORDER BY id", sans OFFSET,
+     * donc le coût d'une page ne dépend pas de sa position.
+     */
+    @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL AND u.id > ?1 ORDER BY u.id")
+    List<User> findPageNotDeleted(Long afterId, Limit limit);
+
     @Query("SELECT u FROM User u WHERE u.id = ?1 AND u.deletedAt IS NULL")
     Optional<User> findByIdNotDeleted(Long id);
+
+    /**
+     * SELECT ... FOR UPDATE de l'utilisateur : sérialise les déplacements et reclassements de ses todos
+     * (TodoRankServiceImpl), qui lisent puis réécrivent des clés voisines, et les soumissions d'import
+     * (TodoImportService, un seul import actif par utilisateur).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = ?1 AND u.deletedAt IS NULL")
+    Optional<User> lockByIdNotDeleted(Long id);
     
     @Query("SELECT u FROM User u WHERE u.username = ?1 AND u.deletedAt IS NULL")
     Optional<User> findByUsernameNotDeleted(String username);
@@ -25,5 +46,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE (u.username = ?1 OR u.email = ?1) AND u.deletedAt IS NULL")
     Optional<User> findByUsernameOrEmailNotDeleted(String usernameOrEmail);
-}
 
+    /**
+     * Requêtes natives utilisées par le job d'archivage (ArchiveServiceImpl).
+     * Un utilisateur n'est archivable que lorsqu'il ne reste plus aucune ligne dans "todos" qui le référence
+     * (clé étrangère todos.user_id) : ses todos sont archivés d'abord.
+     */
+    @Query(value = "SELECT u.id FROM users u WHERE u.deleted_at < ?1 AND u.id > ?2 " +
+            "AND NOT EXISTS (SELECT 1 FROM todos t WHERE t.user_id = u.id) ORDER BY u.id LIMIT ?3", nativeQuery = true)
+    List<Long> findArchivableIds(LocalDateTime deletedBefore, Long afterId, int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO users_archive (id, firstname, lastname, username, email, created_at, deleted_at, archived_at) " +
+            "SELECT id, firstname, lastname, username, email, created_at, deleted_at, ?2 FROM users WHERE id IN ?1", nativeQuery = true)
+    int copyToArchive(List<Long> ids, LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN ?1", nativeQuery = true)
+    int deleteArchived(List<Long> ids);
+}
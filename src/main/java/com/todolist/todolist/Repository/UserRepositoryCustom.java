@@ -0,0 +1,39 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requêtes de UserRepository construites dynamiquement, implémentées dans UserRepositoryImpl.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Utilisateurs non supprimés (tous, ou un seul si id n'est pas null), en ne lisant que les colonnes demandées.
+     */
+    List<Map<String, Object>> findFieldsNotDeleted(Long id, Set<String> fields);
+
+    /**
+     * Comme UserRepository.findPageNotDeleted, filtré par préfixe du username, du prénom ou du nom.
+     *
+     * @param prefixPattern Pattern LIKE ("abc%") déjà échappé avec '!'
+     */
+    List<User> searchPageNotDeleted(Long afterId, String prefixPattern, int limit);
+
+    /**
+     * Page de l'annuaire en projection partielle (voir UserRepository.findPageNotDeleted / searchPageNotDeleted).
+     *
+     * @param prefixPattern Pattern LIKE échappé avec '!', ou null pour ne pas filtrer
+     */
+    List<Map<String, Object>> findFieldsPageNotDeleted(Long afterId, String prefixPattern, int limit, Set<String> fields);
+
+    /**
+     * Équivalent de TodoRepositoryCustom.patchByIdAndUserIdNotDeleted pour les utilisateurs.
+     *
+     * @return 0 si l'utilisateur n'existe pas (ou est supprimé) ou si sa version a changé
+     */
+    int patchByIdNotDeleted(Long id, Map<String, Object> changes, Long expectedVersion);
+}
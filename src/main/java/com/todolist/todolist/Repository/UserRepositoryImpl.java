@@ -0,0 +1,124 @@
+package com.todolist.todolist.Repository;
+
+import com.todolist.todolist.Entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    /**
+     * Colonnes de la recherche par préfixe de l'annuaire, chacune indexée.
+     */
+    private static final List<String> SEARCH_COLUMNS = List.of("username", "firstname", "lastname");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsNotDeleted(Long id, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        ProjectionSupport.select(selections, user, fields, "");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNull(user.get("deletedAt")));
+        if (id != null) {
+            predicates.add(cb.equal(user.get("id"), id));
+        }
+
+        query.select(cb.tuple(selections)).where(predicates.toArray(new Predicate[0]));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            result.add(ProjectionSupport.toMap(tuple, fields, ""));
+        }
+        return result;
+    }
+
+    /**
+     * Une requête par colonne (index unique de username, idx_users_firstname, idx_users_lastname) :
+     * chacune ne lit que les lignes du préfixe, au lieu d'un OR qui fait parcourir la clé primaire.
+     * Les trois listes, déjà triées par id, sont fusionnées ici sans doublon.
+     */
+    @Override
+    public List<User> searchPageNotDeleted(Long afterId, String prefixPattern, int limit) {
+        TreeMap<Long, User> merged = new TreeMap<>();
+        for (String column : SEARCH_COLUMNS) {
+            entityManager.createQuery("SELECT u FROM User u WHERE u.deletedAt IS NULL AND u.id > :afterId " +
+                            "AND u." + column + " LIKE :pattern ESCAPE '!' ORDER BY u.id", User.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("pattern", prefixPattern)
+                    .setMaxResults(limit)
+                    .getResultList()
+                    .forEach(user -> merged.put(user.getId(), user));
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * Même découpage par colonne que searchPageNotDeleted quand prefixPattern n'est pas null
+     * (fields contient toujours "id", ajouté par UserServiceImpl).
+     */
+    @Override
+    public List<Map<String, Object>> findFieldsPageNotDeleted(Long afterId, String prefixPattern, int limit, Set<String> fields) {
+        if (prefixPattern == null) {
+            return findFieldsPage(afterId, null, null, limit, fields);
+        }
+        TreeMap<Long, Map<String, Object>> merged = new TreeMap<>();
+        for (String column : SEARCH_COLUMNS) {
+            findFieldsPage(afterId, column, prefixPattern, limit, fields)
+                    .forEach(row -> merged.put((Long) row.get("id"), row));
+        }
+        return merged.values().stream().limit(limit).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private List<Map<String, Object>> findFieldsPage(Long afterId, String column, String prefixPattern, int limit, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        ProjectionSupport.select(selections, user, fields, "");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNull(user.get("deletedAt")));
+        predicates.add(cb.greaterThan(user.get("id"), afterId));
+        if (column != null) {
+            predicates.add(cb.like(user.get(column), prefixPattern, '!'));
+        }
+
+        query.select(cb.tuple(selections))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(user.get("id")));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            result.add(ProjectionSupport.toMap(tuple, fields, ""));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public int patchByIdNotDeleted(Long id, Map<String, Object> changes, Long expectedVersion) {
+        return PatchSupport.update(entityManager, "User", changes, expectedVersion,
+                "e.id = :id", Map.of("id", id));
+    }
+}
@@ -1,5 +1,8 @@
 package com.todolist.todolist.Security;
 
+import com.todolist.todolist.Audit.AccessLogFilter;
+import com.todolist.todolist.Audit.AuditLog;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,6 +39,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuditLog auditLog;
     
     /**
      * Méthode principale du filtre, appelée pour chaque requête HTTP.
@@ -44,7 +49,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * 1. Récupère le header "Authorization" (format attendu : "Bearer <token>")
      * 2. Si le header est absent ou mal formaté, passe au filtre suivant (route peut être publique)
      * 3. Extrait le token JWT (enlève le préfixe "Bearer ")
-     * 4. Extrait le username du token
+     * 4. Extrait le username du token et vérifie qu'il n'a pas été révoqué (logout, mot de passe changé)
      * 5. Charge les informations de l'utilisateur depuis la base de données
      * 6. Valide le token (signature + expiration + correspondance username)
      * 7. Si valide, crée un objet Authentication et le stocke dans le SecurityContext
@@ -89,8 +94,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             /**
              * Étape 4 : Extraction du username depuis le token
              * Le username est stocké dans le "subject" du JWT.
+             * Le token est parsé une seule fois, les claims servent aussi à la vérification de révocation.
              */
-            final String username = jwtUtil.extractUsername(jwt);
+            final Claims claims = jwtUtil.parseToken(jwt);
+            final String username = claims.getSubject();
             
             /**
              * Étape 5 : Vérification si l'utilisateur n'est pas déjà authentifié
@@ -99,8 +106,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
              * 
              * SecurityContextHolder = conteneur global qui stocke l'utilisateur authentifié
              * pour la requête courante. Il est thread-safe (un contexte par thread/requête).
+             * 
+             * !isRevoked(claims) : un token révoqué (logout, changement de mot de passe, compte supprimé)
+             * n'est pas authentifié, sans même interroger la base. La requête reste anonyme
+             * et SecurityConfig la refusera si la route est protégée.
              */
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !tokenRevocationService.isRevoked(claims)) {
                 /**
                  * Étape 6 : Chargement des détails de l'utilisateur depuis la base de données
                  * UserDetailsService fait la requête SQL pour récupérer l'utilisateur.
@@ -110,12 +122,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 
                 /**
                  * Étape 7 : Validation du token JWT
-                 * Vérifie que :
+                 * La signature a été vérifiée par parseToken (étape 4), on vérifie sur les mêmes claims que :
                  * - Le username dans le token correspond à celui chargé
                  * - Le token n'a pas expiré
-                 * - La signature est valide
                  */
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+                if (jwtUtil.validateClaims(claims, userDetails.getUsername())) {
                     /**
                      * Étape 8 : Création de l'objet Authentication
                      * UsernamePasswordAuthenticationToken = objet qui représente un utilisateur authentifié
@@ -142,15 +153,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                      * Les controllers peuvent accéder à l'utilisateur avec @AuthenticationPrincipal.
                      */
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, claims.get("userId", Long.class));
                 }
             }
         } catch (Exception e) {
             /**
              * En cas d'erreur (token invalide, expiré, malformé, utilisateur supprimé, etc.),
-             * on log l'erreur mais on laisse continuer.
+             * on journalise l'erreur mais on laisse continuer.
              * SecurityConfig bloquera l'accès si l'utilisateur n'est pas authentifié.
+             * 
+             * Journal d'audit asynchrone et sans stack trace : une rafale de tokens invalides
+             * ne bloque pas les threads de requête sur l'écriture du log.
              */
-            logger.error("Cannot set user authentication: {}", e);
+            auditLog.audit("token_rejected", 0L, e.getClass().getSimpleName() + ": " + e.getMessage());
         }
         
         /**
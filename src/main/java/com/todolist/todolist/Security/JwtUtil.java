@@ -7,7 +7,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.security.SecureRandom;
 import java.util.Date;
+import java.util.HexFormat;
 
 /**
  * Utilitaire pour la gestion des tokens JWT (JSON Web Token).
@@ -50,12 +52,15 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long jwtExpiration;
     
+    private final SecureRandom random = new SecureRandom();
+    
     /**
      * Génère un nouveau token JWT pour un utilisateur.
      * 
      * Le token contient :
      * - subject : le username (identifiant principal)
      * - claim "userId" : l'ID de l'utilisateur en base de données
+     * - id (jti) : identifiant unique du token (64 bits aléatoires en hexadécimal), utilisé par le logout
      * - issuedAt : date de création du token
      * - expiration : date d'expiration (maintenant + jwtExpiration)
      * 
@@ -67,6 +72,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .subject(username)
                 .claim("userId", userId)
+                .id(HexFormat.of().toHexDigits(random.nextLong()))
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
                 .signWith(secretKey)
@@ -95,6 +101,30 @@ public class JwtUtil {
         return extractClaims(token).get("userId", Long.class);
     }
     
+    /**
+     * Extrait l'identifiant (jti) du token sous forme de long, pour TokenRevocationService.
+     * 
+     * @param claims Les claims du token (voir parseToken)
+     * @return Le jti, ou 0 pour un token émis avant l'ajout du jti
+     */
+    public long extractTokenId(Claims claims) {
+        String id = claims.getId();
+        if (id == null || id.length() != 16) {
+            return 0L;
+        }
+        return HexFormat.fromHexDigitsToLong(id);
+    }
+    
+    /**
+     * Parse le token une seule fois et renvoie tous ses claims (voir extractClaims).
+     * Utilisé par JwtAuthenticationFilter, qui a besoin de plusieurs claims à chaque requête.
+     * 
+     * @throws io.jsonwebtoken.JwtException si le token est invalide
+     */
+    public Claims parseToken(String token) {
+        return extractClaims(token);
+    }
+    
     /**
      * Valide un token JWT en vérifiant :
      * 1. Que le username dans le token correspond au username fourni
@@ -112,6 +142,18 @@ public class JwtUtil {
         return (extractedUsername.equals(username) && !isTokenExpired(token));
     }
     
+    /**
+     * Comme validateToken, sur des claims déjà parsés (et dont la signature a donc déjà été vérifiée)
+     * par parseToken : évite de parser le token une deuxième fois dans JwtAuthenticationFilter.
+     * 
+     * @param claims Les claims du token (voir parseToken)
+     * @param username Le username attendu
+     * @return true si le subject correspond au username et que le token n'a pas expiré
+     */
+    public boolean validateClaims(Claims claims, String username) {
+        return username.equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
+    }
+    
     /**
      * Parse le token JWT et extrait tous les claims (données contenues dans le token).
      * 
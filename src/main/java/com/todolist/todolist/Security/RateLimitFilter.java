@@ -0,0 +1,212 @@
+package com.todolist.todolist.Security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtre de limitation de débit (rate limiting) placé en tête de la chaîne Spring Security.
+ *
+ * Il s'exécute AVANT JwtAuthenticationFilter, donc avant toute requête SQL : un client qui abuse
+ * (polling agressif de /todos, brute force du login) est rejeté sans toucher à MySQL.
+ *
+ * Deux politiques :
+ * - Routes anonymes (POST /users/login, POST /users/register) : un bucket par adresse IP
+ * - Routes authentifiées : un bucket par utilisateur (userId lu dans le token, signature vérifiée,
+ *   sans accès base). Sans token valide, on retombe sur l'adresse IP.
+ *
+ * Algorithme : token bucket implémenté en GCRA (Generic Cell Rate Algorithm).
+ * L'état d'un bucket tient dans un seul long (l'heure théorique d'arrivée "TAT"), mis à jour par CAS :
+ * aucun verrou, aucune allocation par requête une fois le bucket créé.
+ *
+ * Si la limite est dépassée : 429 Too Many Requests + header Retry-After (en secondes).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Buckets par clé ("ip:1.2.3.4", "user:42").
+     * ConcurrentHashMap est segmenté en interne : pas de verrou global sur le chemin chaud.
+     */
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Limit anonymousLimit;
+    private final Limit authenticatedLimit;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Utiliser le header X-Forwarded-For pour identifier le client.
+     * À activer uniquement derrière un reverse proxy de confiance (sinon le header est falsifiable).
+     */
+    @Value("${rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    public RateLimitFilter(
+            JwtUtil jwtUtil,
+            @Value("${rate-limit.anonymous.requests-per-minute:20}") int anonymousPerMinute,
+            @Value("${rate-limit.anonymous.burst:10}") int anonymousBurst,
+            @Value("${rate-limit.authenticated.requests-per-minute:300}") int authenticatedPerMinute,
+            @Value("${rate-limit.authenticated.burst:60}") int authenticatedBurst
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.anonymousLimit = new Limit(anonymousPerMinute, anonymousBurst);
+        this.authenticatedLimit = new Limit(authenticatedPerMinute, authenticatedBurst);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Limit limit;
+        String key;
+
+        if (isAnonymousEndpoint(request)) {
+            limit = anonymousLimit;
+            key = "ip:" + clientIp(request);
+        } else {
+            limit = authenticatedLimit;
+            key = authenticatedKey(request);
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        long waitNanos = bucket.tryAcquire(System.nanoTime(), limit);
+
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Supprime les buckets inactifs (entièrement rechargés) pour borner la mémoire.
+     * Un bucket plein est équivalent à un bucket absent : le supprimer ne change rien pour le client.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    private boolean isAnonymousEndpoint(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getServletPath();
+        return "/users/login".equals(path) || "/users/register".equals(path);
+    }
+
+    /**
+     * Clé des routes authentifiées : l'utilisateur du token si la signature est valide, sinon l'IP.
+     * Le parsing du JWT est purement CPU (vérification HMAC), il n'y a aucun accès à la base.
+     */
+    private String authenticatedKey(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Long userId = jwtUtil.extractUserId(authHeader.substring(7));
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            } catch (Exception e) {
+                // Token invalide : JwtAuthenticationFilter s'en chargera, on limite par IP
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":429,\"message\":\"Trop de requêtes\",\"errors\":{\"error\":"
+                + "\"Limite de requêtes atteinte, réessayez dans " + retryAfterSeconds + " seconde(s)\"},"
+                + "\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+
+    /**
+     * Paramètres d'une politique de limitation, précalculés en nanosecondes.
+     *
+     * emissionInterval : temps de recharge d'un jeton (60s / requêtes par minute)
+     * burstTolerance : avance maximale autorisée sur le rythme nominal (burst - 1 jetons)
+     */
+    private static final class Limit {
+        final long emissionInterval;
+        final long burstTolerance;
+
+        Limit(int requestsPerMinute, int burst) {
+            this.emissionInterval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+            this.burstTolerance = emissionInterval * Math.max(0, burst - 1);
+        }
+    }
+
+    /**
+     * Bucket GCRA : un seul long (TAT = theoretical arrival time), mis à jour par compare-and-set.
+     */
+    private static final class Bucket {
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * @return 0 si la requête est acceptée, sinon le temps d'attente en nanosecondes
+         */
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = tat.get();
+                long base = (current == Long.MIN_VALUE || current - now < 0) ? now : current;
+                long allowAt = base - limit.burstTolerance;
+
+                if (allowAt - now > 0) {
+                    return allowAt - now;
+                }
+                if (tat.compareAndSet(current, base + limit.emissionInterval)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            long current = tat.get();
+            return current == Long.MIN_VALUE || current - now < 0;
+        }
+    }
+}
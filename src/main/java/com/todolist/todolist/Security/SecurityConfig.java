@@ -1,5 +1,6 @@
 package com.todolist.todolist.Security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +34,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final UserDetailsService userDetailsService;
     
     /**
@@ -87,8 +89,13 @@ public class SecurityConfig {
                  * 
                  * Si un utilisateur non authentifié tente d'accéder à une route protégée,
                  * il reçoit une erreur 403 Forbidden.
+                 * 
+                 * DispatcherType.ASYNC : fin d'une réponse asynchrone (flux SSE GET /todos/stream).
+                 * La requête a déjà été autorisée à son arrivée ; le JWT n'est pas relu pour ce second
+                 * passage, sans cette règle il serait refusé.
                  */
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "/users/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/users/login").permitAll()
                         .anyRequest().authenticated()
@@ -135,7 +142,15 @@ public class SecurityConfig {
                  * 
                  * addFilterBefore() = notre filtre s'exécute en premier
                  */
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                
+                /**
+                 * Ajout du filtre de rate limiting AVANT JwtAuthenticationFilter
+                 * 
+                 * Un client trop bavard est rejeté (429) avant le chargement de l'utilisateur
+                 * en base par JwtAuthenticationFilter : il ne peut pas saturer MySQL.
+                 */
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -1,15 +1,14 @@
 package com.todolist.todolist.Security;
 
-import com.todolist.todolist.Entity.Todo;
-import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.ForbiddenException;
+import com.todolist.todolist.Exception.NotFoundException;
 import com.todolist.todolist.Utils.AuthenticationUtils;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Aspect AOP pour vérifier automatiquement la propriété des todos.
@@ -21,9 +20,9 @@ import org.springframework.web.server.ResponseStatusException;
  * 1. Une méthode annotée @CheckTodoOwnership est appelée
  * 2. L'aspect intercepte l'appel AVANT l'exécution
  * 3. Récupère l'ID du todo depuis les paramètres de la méthode
- * 4. Charge le todo depuis la base de données
+ * 4. Cherche le propriétaire du todo dans TodoOwnershipIndex (en mémoire, la base seulement si absent)
  * 5. Récupère l'utilisateur connecté
- * 6. Compare l'userId du todo avec l'userId connecté
+ * 6. Compare l'id du propriétaire avec l'userId connecté
  * 7. Si différent, lance une exception 403 Forbidden
  * 8. Si identique, laisse la méthode s'exécuter normalement
  * 
@@ -35,7 +34,12 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class TodoOwnershipAspect {
     
-    private final TodoRepository todoRepository;
+    /**
+     * Les ids commencent à 1 : 0 signifie "aucun paramètre Long".
+     */
+    private static final long MISSING_ID = 0L;
+    
+    private final TodoOwnershipIndex ownershipIndex;
     private final AuthenticationUtils authenticationUtils;
     
     /**
@@ -46,33 +50,26 @@ public class TodoOwnershipAspect {
      * - JoinPoint : donne accès aux paramètres de la méthode interceptée
      * 
      * @param joinPoint Point d'interception contenant les infos de la méthode
-     * @throws ResponseStatusException 403 si le todo n'appartient pas à l'utilisateur
-     * @throws ResponseStatusException 404 si le todo n'existe pas
+     * @throws ForbiddenException 403 si le todo n'appartient pas à l'utilisateur
+     * @throws NotFoundException 404 si le todo n'existe pas
      */
     @Before("@annotation(com.todolist.todolist.Security.CheckTodoOwnership)")
     public void checkTodoOwnership(JoinPoint joinPoint) {
-        Long todoId = extractTodoId(joinPoint);
+        long todoId = extractTodoId(joinPoint);
         
-        if (todoId == null) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "L'ID du todo est manquant"
-            );
+        if (todoId == MISSING_ID) {
+            throw new BadRequestException("L'ID du todo est manquant");
         }
         
-        Long currentUserId = authenticationUtils.getCurrentUserId();
+        long currentUserId = authenticationUtils.getCurrentUserId();
         
-        Todo todo = todoRepository.findByIdNotDeleted(todoId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Todo non trouvé"
-                ));
+        long ownerId = ownershipIndex.ownerOf(todoId);
+        if (ownerId == TodoOwnershipIndex.UNKNOWN) {
+            throw new NotFoundException("Todo non trouvé");
+        }
         
-        if (!todo.getUser().getId().equals(currentUserId)) {
-            throw new ResponseStatusException(
-                    HttpStatus.FORBIDDEN,
-                    "Vous n'avez pas la permission d'accéder à ce todo"
-            );
+        if (ownerId != currentUserId) {
+            throw new ForbiddenException("Vous n'avez pas la permission d'accéder à ce todo");
         }
     }
     
@@ -88,18 +85,21 @@ public class TodoOwnershipAspect {
      * pour être plus précis, mais cette approche simple suffit ici.
      * 
      * @param joinPoint Point d'interception
-     * @return L'ID du todo ou null si non trouvé
+     * Les arguments arrivent déjà sous forme d'Object[] : l'id est seulement déballé en long,
+     * sans créer de nouveau Long (ni Optional) par appel.
+     * 
+     * @return L'ID du todo ou MISSING_ID si non trouvé
      */
-    private Long extractTodoId(JoinPoint joinPoint) {
+    private static long extractTodoId(JoinPoint joinPoint) {
         Object[] args = joinPoint.getArgs();
         
         for (Object arg : args) {
-            if (arg instanceof Long) {
-                return (Long) arg;
+            if (arg instanceof Long id) {
+                return id;
             }
         }
         
-        return null;
+        return MISSING_ID;
     }
 }
 
@@ -0,0 +1,113 @@
+package com.todolist.todolist.Security;
+
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.LocalCache;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Utils.LongLongHashMap;
+import com.todolist.todolist.Utils.Transactions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Index en mémoire todoId → id du propriétaire, consulté par TodoOwnershipAspect.
+ *
+ * Le propriétaire d'un todo ne change jamais : une entrée reste vraie jusqu'à la suppression du todo.
+ * La vérification de propriété devient une lecture dans une LongLongHashMap (sans verrou, sans Long)
+ * au lieu d'une requête qui charge le Todo puis son User.
+ *
+ * Tenue à jour :
+ * - lecture : en cas d'absence, le propriétaire est lu en base (une colonne) puis mémorisé
+ * - création : TodoServiceImpl enregistre le propriétaire du nouveau todo
+ * - suppression : TodoServiceImpl publie l'id sur l'InvalidationBus (cache "todo-ownership"),
+ *   l'entrée est retirée sur toutes les instances
+ *
+ * Mémoire bornée (ownership-index.max-entries, 16 octets par entrée) : une fois plein, la moitié des
+ * entrées est retirée en une passe, choisie par un bit du hash de la clé (alterné d'une fois sur l'autre).
+ * Pas de LRU, qui demanderait une liste chaînée ou une date par entrée : une entrée retirée
+ * à tort coûte seulement une lecture en base au prochain accès.
+ *
+ * Même garde que LruCache contre une valeur périmée : une lecture en base commencée avant une
+ * suppression n'est pas mémorisée après elle (numéro de génération).
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoOwnershipIndex implements LocalCache {
+
+    /**
+     * Les ids générés par la base commencent à 1 : 0 ne peut pas être un propriétaire.
+     */
+    public static final long UNKNOWN = 0L;
+
+    private final TodoRepository todoRepository;
+
+    @Value("${ownership-index.max-entries:200000}")
+    private int maxEntries;
+
+    private final LongLongHashMap owners = new LongLongHashMap(1024);
+
+    /**
+     * Incrémenté à chaque invalidation, protégé par le moniteur de l'objet (écritures seulement).
+     */
+    private long generation;
+    private long evictionRound;
+
+    /**
+     * @return L'id du propriétaire du todo, ou UNKNOWN si le todo n'existe pas (ou est supprimé)
+     */
+    public long ownerOf(long todoId) {
+        long ownerId = owners.get(todoId, UNKNOWN);
+        if (ownerId != UNKNOWN) {
+            return ownerId;
+        }
+
+        long generationBefore = generation();
+        ownerId = todoRepository.findOwnerIdNotDeleted(todoId).orElse(UNKNOWN);
+        if (ownerId != UNKNOWN) {
+            remember(todoId, ownerId, generationBefore);
+        }
+        return ownerId;
+    }
+
+    /**
+     * Nouveau todo : mémorisé après le commit, un todo dont la création est annulée n'entre pas dans l'index.
+     */
+    public void recordCreated(long todoId, long ownerId) {
+        long generationBefore = generation();
+        Transactions.afterCommit(() -> remember(todoId, ownerId, generationBefore));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheNames.TODO_OWNERSHIP;
+    }
+
+    @Override
+    public synchronized void invalidate(List<String> keys) {
+        if (keys == null) {
+            owners.removeIf((todoId, ownerId) -> true);
+        } else {
+            for (String key : keys) {
+                owners.remove(Long.parseLong(key));
+            }
+        }
+        generation++;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void remember(long todoId, long ownerId, long generationBefore) {
+        if (generation != generationBefore) {
+            return;
+        }
+        if (owners.size() >= maxEntries) {
+            long round = evictionRound++ & 1;
+            owners.removeIf((key, value) -> (key * 0x9E3779B97F4A7C15L) >>> 63 == round);
+        }
+        owners.put(todoId, ownerId);
+    }
+}
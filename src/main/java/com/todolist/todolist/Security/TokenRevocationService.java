@@ -0,0 +1,150 @@
+package com.todolist.todolist.Security;
+
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Invalidation.LocalCache;
+import com.todolist.todolist.Utils.LongLongHashMap;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Liste de révocation des tokens JWT (logout, changement de mot de passe, suppression de compte).
+ *
+ * Un JWT est valide jusqu'à son expiration (24h) : le serveur ne garde rien, il ne peut donc pas
+ * "oublier" un token. On garde à la place la liste des tokens révoqués, consultée par
+ * JwtAuthenticationFilter à chaque requête.
+ *
+ * Deux règles :
+ * - révocation d'un token (logout) : jti → date d'expiration du token
+ * - révocation de tous les tokens d'un utilisateur (mot de passe changé, compte supprimé) :
+ *   userId → "révoqué avant" ; tout token émis avant cette date est refusé
+ *
+ * Les deux tables sont des LongLongHashMap : la vérification est O(1), sans verrou ni allocation.
+ * Une entrée n'est utile que tant que les tokens concernés ne sont pas expirés : purge() les retire
+ * ensuite, la liste ne grossit donc pas indéfiniment.
+ *
+ * Plusieurs instances : chaque révocation passe par l'InvalidationBus (cache "token-revocations"),
+ * un logout traité par une instance est appliqué par toutes les autres. La clé transporte la règle
+ * elle-même : "token:<jti>:<expiration>" ou "user:<userId>:<révoqué avant>".
+ *
+ * Le cache est durable (voir LocalCache) : une révocation est écrite dans la transaction qui la
+ * provoque, et une instance qui démarre (ou qui a perdu le fil de la table) relit les révocations
+ * encore en table. invalidation.retention-minutes doit donc couvrir la durée de vie d'un token.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService implements LocalCache {
+
+    private static final long NOT_REVOKED = Long.MIN_VALUE;
+    private static final String TOKEN_PREFIX = "token:";
+    private static final String USER_PREFIX = "user:";
+
+    private final JwtUtil jwtUtil;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * jti → expiration du token (secondes epoch).
+     */
+    private final LongLongHashMap revokedTokens = new LongLongHashMap(1024);
+
+    /**
+     * userId → les tokens émis avant cette date (secondes epoch) sont révoqués.
+     */
+    private final LongLongHashMap revokedBefore = new LongLongHashMap(256);
+
+    @Value("${jwt.expiration:86400000}")
+    private long jwtExpiration;
+
+    /**
+     * Logout : révoque le token présenté, jusqu'à son expiration.
+     */
+    public void revokeToken(Claims claims) {
+        long tokenId = jwtUtil.extractTokenId(claims);
+        if (tokenId != 0L) {
+            invalidationBus.publish(CacheNames.TOKEN_REVOCATIONS,
+                    TOKEN_PREFIX + tokenId + ":" + claims.getExpiration().getTime() / 1000);
+        }
+    }
+
+    /**
+     * Révoque tous les tokens déjà émis pour un utilisateur.
+     *
+     * L'iat d'un JWT est à la seconde : un token émis dans la même seconde que la révocation,
+     * juste avant elle, reste valide. Dans l'autre sens, un login fait juste après
+     * (nouveau mot de passe) n'est jamais refusé.
+     */
+    public void revokeAllTokensOf(Long userId) {
+        invalidationBus.publish(CacheNames.TOKEN_REVOCATIONS, USER_PREFIX + userId + ":" + System.currentTimeMillis() / 1000);
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheNames.TOKEN_REVOCATIONS;
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+
+    /**
+     * Application d'une révocation publiée par revokeToken / revokeAllTokensOf, sur cette instance ou une autre.
+     * Rejouer la même révocation ne change rien (put de la même valeur, putIfGreater).
+     *
+     * keys == null ("vider le cache") est ignoré : oublier des révocations rendrait des tokens valides.
+     */
+    @Override
+    public void invalidate(List<String> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            int separator = key.lastIndexOf(':');
+            long id = Long.parseLong(key.substring(key.indexOf(':') + 1, separator));
+            long seconds = Long.parseLong(key.substring(separator + 1));
+            if (key.startsWith(TOKEN_PREFIX)) {
+                revokedTokens.put(id, seconds);
+            } else if (key.startsWith(USER_PREFIX)) {
+                revokedBefore.putIfGreater(id, seconds);
+            }
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        return isRevoked(
+                jwtUtil.extractTokenId(claims),
+                userId == null ? 0L : userId,
+                claims.getIssuedAt().getTime() / 1000
+        );
+    }
+
+    /**
+     * Vérification faite à chaque requête authentifiée : deux lectures de table, sans allocation.
+     */
+    public boolean isRevoked(long tokenId, long userId, long issuedAtSeconds) {
+        if (tokenId != 0L && revokedTokens.get(tokenId, NOT_REVOKED) != NOT_REVOKED) {
+            return true;
+        }
+        return issuedAtSeconds < revokedBefore.get(userId, NOT_REVOKED);
+    }
+
+    /**
+     * Retire les entrées qui ne peuvent plus servir :
+     * - un jti dont le token a expiré (le filtre le refuserait de toute façon)
+     * - un "révoqué avant" plus vieux que la durée de vie d'un token (tous les tokens concernés ont expiré)
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis() / 1000;
+        long tokenLifetime = jwtExpiration / 1000;
+
+        revokedTokens.removeIf((tokenId, expiresAt) -> expiresAt <= now);
+        revokedBefore.removeIf((userId, before) -> before + tokenLifetime <= now);
+    }
+}
@@ -0,0 +1,6 @@
+package com.todolist.todolist.Service;
+
+public interface ArchiveService {
+    int archiveDeletedTodos();
+    int archiveDeletedUsers();
+}
@@ -0,0 +1,241 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Entity.ArchiveCheckpoint;
+import com.todolist.todolist.Repository.ArchiveCheckpointRepository;
+import com.todolist.todolist.Repository.TagRepository;
+import com.todolist.todolist.Repository.TodoOccurrenceRepository;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Repository.UserRepository;
+import com.todolist.todolist.Service.ArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job d'archivage des lignes supprimées (soft delete).
+ *
+ * deleteTodo() et deleteUser() ne font que renseigner deletedAt : sans archivage, les tables "todos"
+ * et "users" (et leurs index) grossissent indéfiniment avec des lignes mortes.
+ *
+ * Fonctionnement :
+ * 1. Parcourt la table par clé primaire croissante (keyset) à partir du dernier id traité (ArchiveCheckpoint)
+ * 2. Sélectionne au plus archive.batch-size lignes supprimées depuis plus de archive.retention-days jours
+ * 3. Dans UNE transaction courte : copie vers la table *_archive, supprime de la table chaude, avance le checkpoint
+ * 4. Fait une pause (archive.pause-ms) entre deux batchs pour ne pas saturer MySQL (throttling)
+ * 5. S'arrête après archive.max-batches-per-run batchs ; le run suivant reprend au checkpoint
+ *
+ * Les todos sont archivés avant les utilisateurs (clé étrangère todos.user_id).
+ * Le job ne doit tourner que sur une seule instance : archive.enabled=false sur les autres.
+ */
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private static final String TODOS = "todos";
+    private static final String USERS = "users";
+
+    private final TodoRepository todoRepository;
+    private final TodoOccurrenceRepository occurrenceRepository;
+    private final TagRepository tagRepository;
+    private final UserRepository userRepository;
+    private final ArchiveCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Dernier id traité par table, exposé en gauge pour suivre la progression d'un parcours.
+     */
+    private final Map<String, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${archive.pause-ms:200}")
+    private long pauseMs;
+
+    public ArchiveServiceImpl(
+            TodoRepository todoRepository,
+            TodoOccurrenceRepository occurrenceRepository,
+            TagRepository tagRepository,
+            UserRepository userRepository,
+            ArchiveCheckpointRepository checkpointRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.todoRepository = todoRepository;
+        this.occurrenceRepository = occurrenceRepository;
+        this.tagRepository = tagRepository;
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Point d'entrée planifié (par défaut toutes les nuits à 3h30).
+     */
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    public void runScheduledArchival() {
+        if (!enabled) {
+            return;
+        }
+        int todos = archiveDeletedTodos();
+        int users = archiveDeletedUsers();
+        logger.info("Archivage terminé: {} todos, {} utilisateurs", todos, users);
+    }
+
+    @Override
+    public int archiveDeletedTodos() {
+        return archive(TODOS, new ArchiveOperations() {
+            @Override
+            public List<Long> findIds(LocalDateTime deletedBefore, long afterId, int limit) {
+                return todoRepository.findArchivableIds(deletedBefore, afterId, limit);
+            }
+
+            @Override
+            public int copy(List<Long> ids, LocalDateTime archivedAt) {
+                return todoRepository.copyToArchive(ids, archivedAt);
+            }
+
+            @Override
+            public int delete(List<Long> ids) {
+                // Exceptions des séries récurrentes et étiquettes (clés étrangères vers todos) : non archivées
+                occurrenceRepository.deleteByTodoIds(ids);
+                tagRepository.deleteAssignmentsOfTodos(ids);
+                return todoRepository.deleteArchived(ids);
+            }
+        });
+    }
+
+    @Override
+    public int archiveDeletedUsers() {
+        return archive(USERS, new ArchiveOperations() {
+            @Override
+            public List<Long> findIds(LocalDateTime deletedBefore, long afterId, int limit) {
+                return userRepository.findArchivableIds(deletedBefore, afterId, limit);
+            }
+
+            @Override
+            public int copy(List<Long> ids, LocalDateTime archivedAt) {
+                return userRepository.copyToArchive(ids, archivedAt);
+            }
+
+            @Override
+            public int delete(List<Long> ids) {
+                tagRepository.deleteOfUsers(ids);
+                return userRepository.deleteArchived(ids);
+            }
+        });
+    }
+
+    /**
+     * Boucle commune aux deux tables : batchs successifs jusqu'à la fin de la table ou la limite du run.
+     *
+     * @return Le nombre total de lignes archivées pendant ce run
+     */
+    private int archive(String table, ArchiveOperations operations) {
+        LocalDateTime deletedBefore = LocalDateTime.now().minusDays(retentionDays);
+        Counter archivedRows = Counter.builder("todolist.archive.rows")
+                .description("Lignes déplacées vers les tables d'archive")
+                .tag("table", table)
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder("todolist.archive.batch")
+                .description("Durée d'un batch d'archivage (copie + suppression)")
+                .tag("table", table)
+                .register(meterRegistry);
+        AtomicLong lastIdGauge = progress.computeIfAbsent(table, name ->
+                meterRegistry.gauge("todolist.archive.checkpoint", Tags.of("table", name), new AtomicLong()));
+
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer archived = batchTimer.record(() -> transactionTemplate.execute(status -> {
+                ArchiveCheckpoint checkpoint = checkpointRepository.findById(table)
+                        .orElseGet(() -> new ArchiveCheckpoint(table));
+
+                List<Long> ids = operations.findIds(deletedBefore, checkpoint.getLastId(), batchSize);
+
+                if (ids.isEmpty()) {
+                    // Fin de table atteinte : on repart du début au prochain run pour récupérer
+                    // les lignes supprimées depuis (leur id peut être inférieur au checkpoint).
+                    checkpoint.setLastId(0L);
+                    checkpoint.setUpdatedAt(LocalDateTime.now());
+                    checkpointRepository.save(checkpoint);
+                    return -1;
+                }
+
+                operations.copy(ids, LocalDateTime.now());
+                int deleted = operations.delete(ids);
+
+                checkpoint.setLastId(ids.get(ids.size() - 1));
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                return deleted;
+            }));
+
+            if (archived == null || archived < 0) {
+                lastIdGauge.set(0L);
+                break;
+            }
+
+            total += archived;
+            archivedRows.increment(archived);
+            lastIdGauge.set(checkpointRepository.findById(table).map(ArchiveCheckpoint::getLastId).orElse(0L));
+
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Pause entre deux batchs pour laisser respirer la base (réplication, requêtes utilisateurs).
+     *
+     * @return false si le thread a été interrompu (arrêt de l'application)
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Opérations SQL spécifiques à chaque table archivée.
+     */
+    private interface ArchiveOperations {
+        List<Long> findIds(LocalDateTime deletedBefore, long afterId, int limit);
+        int copy(List<Long> ids, LocalDateTime archivedAt);
+        int delete(List<Long> ids);
+    }
+}
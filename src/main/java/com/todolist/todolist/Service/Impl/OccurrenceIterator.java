@@ -0,0 +1,74 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.TodoOccurrence;
+import com.todolist.todolist.Json.Todo.AgendaItem;
+import com.todolist.todolist.Utils.RecurrenceRule;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Occurrences d'une série récurrente dans [from, to), calculées à la demande par RecurrenceRule
+ * et corrigées par les exceptions enregistrées (todo_occurrences) :
+ * - annulée ou déplacée : l'occurrence calculée est sautée (une occurrence déplacée est ajoutée
+ *   séparément, à sa nouvelle date, par TodoServiceImpl)
+ * - terminée : renvoyée avec completed = true
+ */
+final class OccurrenceIterator implements Iterator<AgendaItem> {
+
+    private final Todo todo;
+    private final Iterator<LocalDateTime> dates;
+    private final LocalDateTime to;
+    private final Map<LocalDateTime, TodoOccurrence> exceptions;
+    private AgendaItem next;
+
+    OccurrenceIterator(Todo todo, LocalDateTime from, LocalDateTime to, Map<LocalDateTime, TodoOccurrence> exceptions) {
+        this.todo = todo;
+        this.dates = RecurrenceRule.parse(todo.getRecurrence()).iterator(todo.getFinalDate(), from);
+        this.to = to;
+        this.exceptions = exceptions;
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public AgendaItem next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        AgendaItem current = next;
+        advance();
+        return current;
+    }
+
+    private void advance() {
+        next = null;
+        while (dates.hasNext()) {
+            LocalDateTime date = dates.next();
+            if (!date.isBefore(to)) {
+                return;
+            }
+            TodoOccurrence exception = exceptions.get(date);
+            if (exception == null) {
+                next = item(todo, date, date, false);
+                return;
+            }
+            if (!exception.isCancelled() && exception.getFinalDate() == null) {
+                next = item(todo, date, date, exception.getCompletedAt() != null);
+                return;
+            }
+        }
+    }
+
+    static AgendaItem item(Todo todo, LocalDateTime finalDate, LocalDateTime occurrenceDate, boolean completed) {
+        return new AgendaItem(todo.getId(), todo.getNote(), todo.getDescription(), finalDate, occurrenceDate,
+                todo.getRecurrence(), completed);
+    }
+}
@@ -0,0 +1,261 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.ConflictException;
+import com.todolist.todolist.Exception.NotFoundException;
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Json.Todo.MoveTodoRequest;
+import com.todolist.todolist.Repository.TodoRank;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Repository.UserRepository;
+import com.todolist.todolist.Service.TodoRankService;
+import com.todolist.todolist.Stream.TodoChangedEvent;
+import com.todolist.todolist.Utils.FractionalIndex;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ordre manuel des todos (glisser-déposer) par clés fractionnaires (FractionalIndex, colonne sort_rank).
+ *
+ * - création : clé après la plus grande de l'utilisateur (MAX sur l'index, pas de parcours)
+ * - déplacement : clé entre les deux nouveaux voisins ; seule la ligne du todo déplacé est écrite
+ * - reclassement : quand une clé dépasse todo-rank.max-length caractères (déplacements répétés au même
+ *   endroit), l'utilisateur est noté et le job planifié redonne des clés courtes à une fenêtre de todos
+ *   autour de cette clé, agrandie jusqu'à ce que les nouvelles clés soient assez courtes. Pour une longue
+ *   liste, seules quelques dizaines de lignes sont en général réécrites, et jamais pendant la requête.
+ *
+ * Déplacements et reclassements d'un même utilisateur sont sérialisés par un verrou sur sa ligne users.
+ * Les créations ne le prennent pas : deux créations simultanées peuvent recevoir la même clé, départagées
+ * par l'id (ORDER BY sort_rank, id) et séparées au prochain reclassement qui les touche.
+ *
+ * Les todos antérieurs à la colonne (sort_rank NULL), listés en premier, reçoivent des clés avant la plus petite,
+ * par id : ils restent à la même place. C'est fait par le job planifié, un lot par transaction, après un
+ * GET /todos?sort=rank (scheduleInitialization) ou un déplacement par rapport à un todo sans clé (refusé
+ * en attendant). Un déplacement n'écrit jamais que la ligne du todo déplacé.
+ *
+ * Une clé réécrite change la représentation du todo : sa version est incrémentée et le cache TODOS
+ * invalidé. Le flux SSE reçoit un seul événement "reset" par utilisateur et par passage du job
+ * (le client recharge la liste) plutôt qu'un événement par todo réécrit.
+ *
+ * La liste des utilisateurs à reclasser est locale à l'instance : perdue au redémarrage, elle se reconstitue
+ * au prochain déplacement qui produit une clé trop longue.
+ */
+@Service
+@RequiredArgsConstructor
+public class TodoRankServiceImpl implements TodoRankService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoRankServiceImpl.class);
+
+    /**
+     * Valeur de pending pour "seulement classer les todos sans clé" (pas de clé longue connue).
+     */
+    private static final String UNRANKED = "";
+
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * userId → clé trop longue autour de laquelle reclasser (la dernière signalée).
+     */
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+
+    @Value("${todo-rank.max-length:24}")
+    private int maxLength;
+
+    @Value("${todo-rank.window:16}")
+    private int window;
+
+    @Value("${todo-rank.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public String rankAtEnd(Long userId) {
+        return FractionalIndex.between(todoRepository.findMaxRankOfUser(userId), null);
+    }
+
+    @Override
+    @Transactional
+    public List<String> ranksAtEnd(Long userId, int count) {
+        List<String> ranks = new ArrayList<>(count);
+        String last = todoRepository.findMaxRankOfUser(userId);
+        for (int i = 0; i < count; i++) {
+            last = FractionalIndex.between(last, null);
+            ranks.add(last);
+        }
+        return ranks;
+    }
+
+    /**
+     * @return La clé qui place todoId juste après afterId ou juste avant beforeId
+     * @throws BadRequestException si la requête ne désigne pas exactement un voisin, ou le todo lui-même
+     * @throws NotFoundException si le voisin n'existe pas ou n'appartient pas à l'utilisateur
+     * @throws ConflictException si le voisin n'a pas encore de clé (classement initial planifié)
+     */
+    @Override
+    @Transactional
+    public String rankForMove(Long userId, Long todoId, MoveTodoRequest request) {
+        Long neighbourId = request.getAfterId() != null ? request.getAfterId() : request.getBeforeId();
+        if ((request.getAfterId() == null) == (request.getBeforeId() == null)) {
+            throw new BadRequestException("Indiquez afterId ou beforeId (un seul des deux)");
+        }
+        if (neighbourId.equals(todoId)) {
+            throw new BadRequestException("Un todo ne peut pas être placé par rapport à lui-même");
+        }
+
+        userRepository.lockByIdNotDeleted(userId)
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+        String anchor = todoRepository.findByIdAndUserIdNotDeleted(neighbourId, userId)
+                .orElseThrow(() -> new NotFoundException("Todo voisin non trouvé"))
+                .getRank();
+        if (anchor == null) {
+            scheduleInitialization(userId);
+            throw new ConflictException("Classement des todos en cours d'initialisation, réessayez dans quelques secondes");
+        }
+
+        String rank;
+        if (request.getAfterId() != null) {
+            rank = FractionalIndex.between(anchor, nearest(todoRepository.findRanksAfterOfUser(userId, anchor, Limit.of(2)), todoId));
+        } else {
+            rank = FractionalIndex.between(nearest(todoRepository.findRanksBeforeOfUser(userId, anchor, Limit.of(2)), todoId), anchor);
+        }
+        if (rank.length() > maxLength) {
+            pending.put(userId, rank);
+        }
+        return rank;
+    }
+
+    @Override
+    public void scheduleInitialization(Long userId) {
+        pending.putIfAbsent(userId, UNRANKED);
+    }
+
+    /**
+     * Une transaction par lot de todos sans clé, puis une pour la fenêtre : le verrou sur la ligne
+     * de l'utilisateur n'est gardé que le temps d'un lot, les déplacements peuvent passer entre deux.
+     *
+     * @return Le nombre de todos reclassés
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${todo-rank.rebalance-interval-ms:10000}")
+    public int rebalancePending() {
+        int total = 0;
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            String pivot = pending.remove(userId);
+            int rewritten = 0;
+            try {
+                Integer assigned;
+                while ((assigned = transactionTemplate.execute(status -> assignMissingRanks(userId))) != null && assigned > 0) {
+                    rewritten += assigned;
+                }
+                if (!pivot.isEmpty()) {
+                    Integer rebalanced = transactionTemplate.execute(status -> rebalance(userId, pivot));
+                    rewritten += rebalanced == null ? 0 : rebalanced;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Reclassement des todos de l'utilisateur {} impossible", userId, e);
+            } finally {
+                if (rewritten > 0) {
+                    // Hors transaction : diffusé tout de suite, les lots sont déjà commités
+                    eventPublisher.publishEvent(TodoChangedEvent.reset(userId));
+                }
+            }
+            total += rewritten;
+        }
+        if (total > 0) {
+            logger.info("Reclassement : {} todos", total);
+        }
+        return total;
+    }
+
+    private int rebalance(Long userId, String pivot) {
+        if (userRepository.lockByIdNotDeleted(userId).isEmpty()) {
+            return 0;
+        }
+
+        for (int size = window; ; size *= 4) {
+            List<TodoRank> before = todoRepository.findRanksBeforeOfUser(userId, pivot, Limit.of(size + 1));
+            List<TodoRank> from = todoRepository.findRanksFromOfUser(userId, pivot, Limit.of(size + 1));
+            String lower = before.size() > size ? before.get(size).rank() : null;
+            String upper = from.size() > size ? from.get(size).rank() : null;
+
+            List<TodoRank> todos = new ArrayList<>(before.subList(0, Math.min(size, before.size())));
+            Collections.reverse(todos);
+            todos.addAll(from.subList(0, Math.min(size, from.size())));
+
+            List<String> ranks = FractionalIndex.spread(lower, upper, todos.size());
+            boolean shortEnough = ranks.stream().allMatch(rank -> rank.length() <= maxLength / 2);
+            if (shortEnough || (lower == null && upper == null)) {
+                Map<Long, String> changes = new LinkedHashMap<>();
+                for (int i = 0; i < todos.size(); i++) {
+                    changes.put(todos.get(i).id(), ranks.get(i));
+                }
+                updateRanks(changes);
+                return changes.size();
+            }
+        }
+    }
+
+    /**
+     * Classe un lot (todo-rank.batch-size) de todos sans clé avant les autres, par id.
+     * Parcours du plus grand id au plus petit : chaque clé se place avant la précédente, et le lot suivant
+     * (ids plus petits) avant celui-ci.
+     *
+     * @return Le nombre de todos classés, 0 quand il n'en reste plus
+     */
+    private int assignMissingRanks(Long userId) {
+        if (userRepository.lockByIdNotDeleted(userId).isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = todoRepository.findUnrankedIdsOfUser(userId, Limit.of(batchSize));
+        String first = ids.isEmpty() ? null : todoRepository.findMinRankOfUser(userId);
+        Map<Long, String> changes = new LinkedHashMap<>();
+        for (Long id : ids) {
+            first = FractionalIndex.between(null, first);
+            changes.put(id, first);
+        }
+        updateRanks(changes);
+        return ids.size();
+    }
+
+    /**
+     * L'invalidation ne part qu'après le commit (InvalidationBus).
+     */
+    private void updateRanks(Map<Long, String> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        todoRepository.updateRanks(changes);
+        invalidationBus.publish(CacheNames.TODOS, changes.keySet().stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Clé du voisin le plus proche qui n'est pas le todo déplacé, ou null en bout de liste.
+     */
+    private static String nearest(List<TodoRank> neighbours, Long todoId) {
+        return neighbours.stream()
+                .filter(neighbour -> !neighbour.id().equals(todoId))
+                .map(TodoRank::rank)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -1,19 +1,64 @@
 package com.todolist.todolist.Service.Impl;
 
 import com.todolist.todolist.Converter.TodoConverter;
+import com.todolist.todolist.Entity.Tag;
 import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.TodoOccurrence;
 import com.todolist.todolist.Entity.User;
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.DomainException;
+import com.todolist.todolist.Exception.ForbiddenException;
+import com.todolist.todolist.Exception.NotFoundException;
+import com.todolist.todolist.Exception.PreconditionFailedException;
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Json.Todo.AgendaItem;
+import com.todolist.todolist.Json.Todo.BulkTodoResult;
 import com.todolist.todolist.Json.Todo.CreateTodoRequest;
+import com.todolist.todolist.Json.Todo.MoveTodoRequest;
+import com.todolist.todolist.Json.Todo.TagFilter;
 import com.todolist.todolist.Json.Todo.BasicTodo;
+import com.todolist.todolist.Json.Todo.TodoListEnvelope;
+import com.todolist.todolist.Json.Todo.TodoMergePatch;
+import com.todolist.todolist.Json.Todo.UpdateOccurrenceRequest;
 import com.todolist.todolist.Json.Todo.UpdateTodoRequest;
+import com.todolist.todolist.Repository.TagRepository;
+import com.todolist.todolist.Repository.TodoOccurrenceRepository;
 import com.todolist.todolist.Repository.TodoRepository;
 import com.todolist.todolist.Repository.UserRepository;
+import com.todolist.todolist.Security.TodoOwnershipIndex;
+import com.todolist.todolist.Service.TodoRankService;
 import com.todolist.todolist.Service.TodoService;
+import com.todolist.todolist.Service.TodoStatsService;
+import com.todolist.todolist.Stream.TodoChangedEvent;
+import com.todolist.todolist.Utils.ETags;
+import com.todolist.todolist.Utils.FieldSelection;
+import com.todolist.todolist.Utils.MergingIterator;
+import com.todolist.todolist.Utils.RecurrenceRule;
+import com.todolist.todolist.Utils.TagNames;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,33 +67,111 @@ public class TodoServiceImpl implements TodoService {
     private final TodoRepository todoRepository;
     private final UserRepository userRepository;
     private final TodoConverter todoConverter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
+    private final TodoOwnershipIndex ownershipIndex;
+    private final TodoStatsService todoStatsService;
+    private final TodoOccurrenceRepository occurrenceRepository;
+    private final TagRepository tagRepository;
+    private final TodoTagIndex tagIndex;
+    private final TodoRankService todoRankService;
+
+    /**
+     * Taille des IN (...) pour relire les todos retenus par un filtre d'étiquettes.
+     */
+    private static final int TAG_FILTER_CHUNK = 1000;
+
+    @Value("${agenda.max-days:366}")
+    private int agendaMaxDays;
+
+    @Value("${agenda.max-items:2000}")
+    private int agendaMaxItems;
 
     @Override
+    @Transactional
     public BasicTodo createTodo(CreateTodoRequest createTodoRequest, Long userId){
         User user = userRepository.findByIdNotDeleted(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
         
         Todo todo = new Todo();
         todo.setNote(createTodoRequest.getNote());
         todo.setDescription(createTodoRequest.getDescription());
         todo.setFinalDate(createTodoRequest.getFinalDate());
+        todo.setRecurrence(normalizeRecurrence(createTodoRequest.getRecurrence()));
         todo.setUser(user);
+        Set<String> tagNames = createTodoRequest.getTags() == null ? Set.of() : TagNames.normalize(createTodoRequest.getTags());
+        todo.setTags(resolveTags(userId, tagNames));
+        todo.setRank(todoRankService.rankAtEnd(userId));
 
         Todo savedTodo = todoRepository.save(todo);
+        ownershipIndex.recordCreated(savedTodo.getId(), userId);
+        tagIndex.todoTagged(userId, savedTodo.getId(), tagNames);
+        todoStatsService.todoCreated(userId, savedTodo.getFinalDate(), savedTodo.getCreatedAt());
         
-        return todoConverter.convertTodoToBasicTodo(savedTodo);
+        BasicTodo created = todoConverter.convertTodoToBasicTodo(savedTodo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(created));
+        return created;
     }
 
     @Override
-    public List<BasicTodo> getAllTodosOfUser(Long userId){
-        List<Todo> todos = todoRepository.findAllByUserIdNotDeleted(userId);
+    @Transactional(readOnly = true)
+    public List<BasicTodo> getAllTodosOfUser(Long userId, boolean byRank){
+        List<Todo> todos = byRank
+                ? todoRepository.findAllByUserIdNotDeletedOrderByRank(userId)
+                : todoRepository.findAllByUserIdNotDeleted(userId);
+        if (byRank && !todos.isEmpty() && todos.get(0).getRank() == null) {
+            todoRankService.scheduleInitialization(userId);
+        }
+        return todoConverter.convertTodosToBasicTodos(todos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTodoFieldsOfUser(Long userId, String fields, boolean byRank){
+        return todoRepository.findFieldsByUserIdNotDeleted(userId, FieldSelection.parse(fields, FieldSelection.TODO_FIELDS), null, byRank);
+    }
+
+    /**
+     * Les ids sont choisis en mémoire par TodoTagIndex ; seuls ces todos sont lus, par paquets d'ids.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BasicTodo> getTodosOfUserByTags(Long userId, TagFilter filter){
+        List<Todo> todos = new ArrayList<>();
+        for (List<Long> ids : selectByTags(userId, filter)) {
+            todos.addAll(todoRepository.findAllByIdsAndUserIdNotDeleted(ids, userId));
+        }
         return todoConverter.convertTodosToBasicTodos(todos);
     }
 
     @Override
-    public BasicTodo updateTodo(Long id, UpdateTodoRequest updateTodo){
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTodoFieldsOfUserByTags(Long userId, String fields, TagFilter filter){
+        Set<String> selection = FieldSelection.parse(fields, FieldSelection.TODO_FIELDS);
+        List<Map<String, Object>> todos = new ArrayList<>();
+        for (List<Long> ids : selectByTags(userId, filter)) {
+            todos.addAll(todoRepository.findFieldsByUserIdNotDeleted(userId, selection, ids, false));
+        }
+        return todos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoListEnvelope getCompactTodosOfUser(Long userId){
+        User owner = userRepository.findByIdNotDeleted(userId)
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+        List<Todo> todos = todoRepository.findAllByUserIdNotDeleted(userId);
+        return todoConverter.convertTodosToEnvelope(owner, todos);
+    }
+
+    @Override
+    @Transactional
+    public BasicTodo updateTodo(Long id, UpdateTodoRequest updateTodo, Long expectedVersion){
         Todo todo = todoRepository.findByIdNotDeleted(id)
-                .orElseThrow(() -> new RuntimeException("Todo non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Todo non trouvé"));
+        
+        ETags.checkVersion(expectedVersion, todo.getVersion());
+        LocalDateTime previousFinalDate = todo.getFinalDate();
         
         if (updateTodo.getNote() != null) {
             todo.setNote(updateTodo.getNote());
@@ -59,19 +182,361 @@ public class TodoServiceImpl implements TodoService {
         if (updateTodo.getFinalDate() != null) {
             todo.setFinalDate(updateTodo.getFinalDate());
         }
+        if (updateTodo.getRecurrence() != null) {
+            todo.setRecurrence(normalizeRecurrence(updateTodo.getRecurrence()));
+        }
+        if (!todo.getFinalDate().equals(previousFinalDate) || updateTodo.getRecurrence() != null) {
+            occurrenceRepository.deleteByTodoIds(List.of(id));
+        }
+        Long userId = todo.getUser().getId();
+        Set<String> tagNames = updateTodo.getTags() == null ? null : TagNames.normalize(updateTodo.getTags());
+        if (tagNames != null) {
+            todo.setTags(resolveTags(userId, tagNames));
+        }
         
-        Todo updatedTodo = todoRepository.save(todo);
+        // flush immédiat : la version incrémentée (ETag de la réponse) n'est connue qu'après l'UPDATE
+        Todo updatedTodo = todoRepository.saveAndFlush(todo);
+        todoStatsService.finalDateChanged(userId, previousFinalDate, updatedTodo.getFinalDate());
+        if (tagNames != null) {
+            tagIndex.todoTagged(userId, id, tagNames);
+        }
         
-        return todoConverter.convertTodoToBasicTodo(updatedTodo);
+        BasicTodo updated = todoConverter.convertTodoToBasicTodo(updatedTodo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(updated));
+        invalidateTodos(List.of(id));
+        return updated;
     }
 
+    /**
+     * Merge patch : un seul UPDATE des colonnes présentes dans le patch, sans lecture préalable.
+     * La ligne n'est relue qu'après coup (pour la réponse), ou pour expliquer un échec (0 ligne modifiée).
+     * Les étiquettes passent par l'entité (lignes de todo_tags) : quand le patch en contient, les colonnes
+     * sont aussi modifiées sur l'entité, pour un seul flush et une seule incrémentation de version
+     * (le verrouillage optimiste de @Version remplace alors la condition sur la version de l'UPDATE).
+     */
     @Override
+    @Transactional
+    public BasicTodo patchTodo(Long id, Long userId, TodoMergePatch patch, Long expectedVersion){
+        if (patch.getTags() == null && !patch.getChanges().isEmpty()
+                && todoRepository.patchByIdAndUserIdNotDeleted(id, userId, patch.getChanges(), expectedVersion) == 0) {
+            throw patchFailure(id, userId);
+        }
+        
+        Todo todo = todoRepository.findByIdNotDeleted(id)
+                .orElseThrow(() -> new NotFoundException("Todo non trouvé"));
+        
+        if (!todo.getUser().getId().equals(userId)) {
+            throw new ForbiddenException("Vous n'avez pas la permission d'accéder à ce todo");
+        }
+        if (patch.isEmpty()) {
+            ETags.checkVersion(expectedVersion, todo.getVersion());
+            return todoConverter.convertTodoToBasicTodo(todo);
+        }
+        if (patch.getTags() != null) {
+            ETags.checkVersion(expectedVersion, todo.getVersion());
+            // Attributs de la liste fermée de TodoMergePatch, valeurs déjà converties au type de l'entité
+            PropertyAccessorFactory.forBeanPropertyAccess(todo).setPropertyValues(patch.getChanges());
+            todo.setTags(resolveTags(userId, patch.getTags()));
+            todo = todoRepository.saveAndFlush(todo);
+            tagIndex.todoTagged(userId, id, patch.getTags());
+        }
+        
+        if (patch.getChanges().containsKey("finalDate")) {
+            // Ancienne échéance inconnue (UPDATE sans lecture préalable) : recalcul des statistiques
+            todoStatsService.recount(userId);
+        }
+        resetOccurrencesIfSeriesChanged(List.of(id), patch);
+        
+        BasicTodo updated = todoConverter.convertTodoToBasicTodo(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(updated));
+        invalidateTodos(List.of(id));
+        return updated;
+    }
+    
+    /**
+     * Déplacement dans l'ordre manuel : seule la clé sort_rank du todo change (voir TodoRankServiceImpl).
+     * La clé est calculée avant de lire le todo : le verrou pris par rankForMove sur l'utilisateur empêche
+     * qu'un reclassement (qui incrémente la version des todos réécrits) passe entre la lecture du todo
+     * et son enregistrement.
+     */
+    @Override
+    @Transactional
+    public BasicTodo moveTodo(Long id, Long userId, MoveTodoRequest request, Long expectedVersion){
+        String rank = todoRankService.rankForMove(userId, id, request);
+        Todo todo = todoRepository.findByIdAndUserIdNotDeleted(id, userId)
+                .orElseThrow(() -> new NotFoundException("Todo non trouvé"));
+        ETags.checkVersion(expectedVersion, todo.getVersion());
+
+        todo.setRank(rank);
+        Todo movedTodo = todoRepository.saveAndFlush(todo);
+
+        BasicTodo moved = todoConverter.convertTodoToBasicTodo(movedTodo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(moved));
+        invalidateTodos(List.of(id));
+        return moved;
+    }
+    
+    /**
+     * Aucune ligne modifiée : on relit le todo pour renvoyer la même erreur que TodoOwnershipAspect
+     * (404 ou 403), sinon c'est la version qui ne correspondait pas (412).
+     */
+    private DomainException patchFailure(Long id, Long userId) {
+        Todo todo = todoRepository.findByIdNotDeleted(id).orElse(null);
+        
+        if (todo == null) {
+            return new NotFoundException("Todo non trouvé");
+        }
+        if (!todo.getUser().getId().equals(userId)) {
+            return new ForbiddenException("Vous n'avez pas la permission d'accéder à ce todo");
+        }
+        return new PreconditionFailedException(
+                "La ressource a été modifiée entre-temps (version actuelle : " + todo.getVersion() + ")");
+    }
+
+    @Override
+    @Transactional
     public void deleteTodo(Long id){
         Todo todo = todoRepository.findByIdNotDeleted(id)
-                .orElseThrow(() -> new RuntimeException("Todo non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Todo non trouvé"));
         
         todo.setDeletedAt(java.time.LocalDateTime.now());
         todoRepository.save(todo);
+        todoStatsService.todoDeleted(todo.getUser().getId(), todo.getFinalDate(), todo.getCreatedAt());
+        tagIndex.todosRemoved(todo.getUser().getId(), List.of(id));
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(todo.getUser().getId(), id));
+        invalidateTodos(List.of(id));
+        invalidateOwnership(List.of(id));
     }
 
+    /**
+     * Suppression logique groupée : un SELECT ... FOR UPDATE des ids possédés puis un seul UPDATE,
+     * au lieu d'un appel HTTP (filtre JWT, aspect, lecture, écriture) par todo.
+     */
+    @Override
+    @Transactional
+    public BulkTodoResult deleteTodos(List<Long> ids, Long userId){
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Set<Long> owned = new HashSet<>(todoRepository.lockOwnedIdsNotDeleted(requested, userId));
+        
+        int updated = owned.isEmpty() ? 0 : todoRepository.softDeleteByIdsAndUserId(owned, userId, LocalDateTime.now());
+        owned.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.deleted(userId, id)));
+        invalidateTodos(owned);
+        invalidateOwnership(owned);
+        if (updated > 0) {
+            todoStatsService.recount(userId);
+            tagIndex.todosRemoved(userId, owned);
+        }
+        
+        return toBulkResult(requested, owned, updated);
+    }
+
+    @Override
+    @Transactional
+    public BulkTodoResult patchTodos(List<Long> ids, Long userId, TodoMergePatch patch){
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Set<Long> owned = new HashSet<>(todoRepository.lockOwnedIdsNotDeleted(requested, userId));
+        
+        int updated = owned.isEmpty() || patch.getChanges().isEmpty()
+                ? 0
+                : todoRepository.patchByIdsAndUserIdNotDeleted(owned, userId, patch.getChanges());
+        if (!owned.isEmpty() && patch.getTags() != null) {
+            Set<Tag> tags = resolveTags(userId, patch.getTags());
+            for (Todo todo : todoRepository.findAllById(owned)) {
+                todo.setTags(new HashSet<>(tags));
+                tagIndex.todoTagged(userId, todo.getId(), patch.getTags());
+            }
+            todoRepository.flush();
+            updated = owned.size();
+        }
+        if (updated > 0) {
+            // Une seule lecture pour les événements du flux SSE (GET /todos/stream)
+            todoRepository.findAllById(owned).forEach(todo ->
+                    eventPublisher.publishEvent(TodoChangedEvent.updated(todoConverter.convertTodoToBasicTodo(todo))));
+            invalidateTodos(owned);
+            if (patch.getChanges().containsKey("finalDate")) {
+                todoStatsService.recount(userId);
+            }
+            resetOccurrencesIfSeriesChanged(owned, patch);
+        }
+        
+        return toBulkResult(requested, owned, updated);
+    }
+
+    /**
+     * Agenda de [from, to] (jours inclus) : todos ponctuels et occurrences des séries récurrentes,
+     * par échéance croissante, au plus agenda.max-items éléments.
+     *
+     * Les occurrences ne sont pas lues en base : chaque série fournit un itérateur qui les calcule une
+     * à une (OccurrenceIterator), fusionné avec la liste des todos ponctuels et celle des occurrences
+     * déplacées (MergingIterator). Une série infinie ne produit que les occurrences réellement renvoyées.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgendaItem> getAgendaOfUser(Long userId, LocalDate from, LocalDate to){
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= agendaMaxDays) {
+            throw new BadRequestException("La période doit aller de from à to (inclus), sur " + agendaMaxDays + " jours au plus");
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        List<Todo> series = todoRepository.findRecurringStartedBeforeOfUser(userId, end);
+        Map<Long, Map<LocalDateTime, TodoOccurrence>> exceptions = new HashMap<>();
+        List<AgendaItem> moved = new ArrayList<>();
+        if (!series.isEmpty()) {
+            Map<Long, Todo> seriesById = new HashMap<>();
+            series.forEach(todo -> seriesById.put(todo.getId(), todo));
+            for (TodoOccurrence occurrence : occurrenceRepository.findByTodoIdsInRange(seriesById.keySet(), start, end)) {
+                Todo todo = seriesById.get(occurrence.getTodo().getId());
+                exceptions.computeIfAbsent(todo.getId(), id -> new HashMap<>()).put(occurrence.getOccurrenceDate(), occurrence);
+                LocalDateTime movedTo = occurrence.getFinalDate();
+                if (!occurrence.isCancelled() && movedTo != null && !movedTo.isBefore(start) && movedTo.isBefore(end)) {
+                    moved.add(OccurrenceIterator.item(todo, movedTo, occurrence.getOccurrenceDate(), occurrence.getCompletedAt() != null));
+                }
+            }
+        }
+
+        Comparator<AgendaItem> byDate = Comparator.comparing(AgendaItem::getFinalDate).thenComparing(AgendaItem::getTodoId);
+        moved.sort(byDate);
+
+        List<Iterator<AgendaItem>> sources = new ArrayList<>(series.size() + 2);
+        sources.add(todoRepository.findSingleDueBetweenOfUser(userId, start, end, Limit.of(agendaMaxItems)).stream()
+                .map(todo -> OccurrenceIterator.item(todo, todo.getFinalDate(), null, false))
+                .iterator());
+        sources.add(moved.iterator());
+        for (Todo todo : series) {
+            sources.add(new OccurrenceIterator(todo, start, end, exceptions.getOrDefault(todo.getId(), Map.of())));
+        }
+
+        Iterator<AgendaItem> agenda = new MergingIterator<>(sources, byDate);
+        List<AgendaItem> items = new ArrayList<>();
+        while (agenda.hasNext() && items.size() < agendaMaxItems) {
+            items.add(agenda.next());
+        }
+        return items;
+    }
+
+    /**
+     * Enregistre l'état d'une occurrence (terminée, annulée, déplacée) ; un état par défaut supprime l'exception.
+     *
+     * Les occurrences font partie de l'état du todo : sa version est incrémentée (ETag, caches) et
+     * l'événement SSE "updated" est publié, comme pour une modification du todo lui-même.
+     *
+     * @param date Jour de l'occurrence prévu par la règle (l'heure est celle de finalDate)
+     */
+    @Override
+    @Transactional
+    public AgendaItem updateOccurrence(Long id, LocalDate date, UpdateOccurrenceRequest request){
+        Todo todo = todoRepository.findByIdNotDeleted(id)
+                .orElseThrow(() -> new NotFoundException("Todo non trouvé"));
+        if (todo.getRecurrence() == null) {
+            throw new BadRequestException("Ce todo n'est pas récurrent");
+        }
+        LocalDateTime occurrenceDate = date.atTime(todo.getFinalDate().toLocalTime());
+        if (!RecurrenceRule.parse(todo.getRecurrence()).isOccurrence(todo.getFinalDate(), occurrenceDate)) {
+            throw new NotFoundException("Aucune occurrence de ce todo le " + date);
+        }
+
+        TodoOccurrence occurrence = occurrenceRepository.findByTodoIdAndDate(id, occurrenceDate).orElse(null);
+        if (!request.isCompleted() && !request.isCancelled() && request.getFinalDate() == null) {
+            if (occurrence != null) {
+                occurrenceRepository.delete(occurrence);
+                occurrenceChanged(todo);
+            }
+            return OccurrenceIterator.item(todo, occurrenceDate, occurrenceDate, false);
+        }
+
+        if (occurrence == null) {
+            occurrence = new TodoOccurrence();
+            occurrence.setTodo(todo);
+            occurrence.setOccurrenceDate(occurrenceDate);
+        }
+        if (!request.isCompleted()) {
+            occurrence.setCompletedAt(null);
+        } else if (occurrence.getCompletedAt() == null) {
+            occurrence.setCompletedAt(LocalDateTime.now());
+        }
+        occurrence.setCancelled(request.isCancelled());
+        occurrence.setFinalDate(request.getFinalDate());
+        occurrenceRepository.save(occurrence);
+        occurrenceChanged(todo);
+
+        LocalDateTime finalDate = request.getFinalDate() != null ? request.getFinalDate() : occurrenceDate;
+        return OccurrenceIterator.item(todo, finalDate, occurrenceDate, request.isCompleted());
+    }
+
+    private void occurrenceChanged(Todo todo) {
+        todoRepository.incrementVersion(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(todoConverter.convertTodoToBasicTodo(todo)));
+        invalidateTodos(List.of(todo.getId()));
+    }
+
+    /**
+     * Étiquettes de l'utilisateur portant ces noms, créées si besoin.
+     */
+    private Set<Tag> resolveTags(Long userId, Set<String> names) {
+        Set<Tag> tags = new HashSet<>();
+        if (names.isEmpty()) {
+            return tags;
+        }
+        tags.addAll(tagRepository.findByUserIdAndNames(userId, names));
+        Set<String> missing = new HashSet<>(names);
+        tags.forEach(tag -> missing.remove(tag.getName()));
+        for (String name : missing) {
+            tags.add(tagRepository.save(new Tag(userId, name)));
+        }
+        return tags;
+    }
+
+    /**
+     * Ids retenus par le filtre, découpés en paquets de TAG_FILTER_CHUNK (ordre croissant conservé).
+     */
+    private List<List<Long>> selectByTags(Long userId, TagFilter filter) {
+        long[] ids = tagIndex.select(userId, filter);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += TAG_FILTER_CHUNK) {
+            chunks.add(Arrays.stream(ids, from, Math.min(ids.length, from + TAG_FILTER_CHUNK)).boxed().toList());
+        }
+        return chunks;
+    }
+
+    private static String normalizeRecurrence(String recurrence) {
+        return recurrence == null || recurrence.isBlank() ? null : RecurrenceRule.parse(recurrence).toString();
+    }
+
+    /**
+     * Nouvelle règle ou nouvelle première échéance : les dates d'origine des exceptions ne correspondent
+     * plus à la série, elles sont supprimées.
+     */
+    private void resetOccurrencesIfSeriesChanged(Collection<Long> ids, TodoMergePatch patch) {
+        if (patch.getChanges().containsKey("finalDate") || patch.getChanges().containsKey("recurrence")) {
+            occurrenceRepository.deleteByTodoIds(ids);
+        }
+    }
+
+    /**
+     * Invalidation des caches locaux par id de todo, sur toutes les instances (un seul message pour
+     * une opération groupée). Publiée après le commit quand la méthode est transactionnelle.
+     */
+    private void invalidateTodos(Collection<Long> ids) {
+        invalidationBus.publish(CacheNames.TODOS, ids.stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Un todo supprimé sort de TodoOwnershipIndex ; les autres modifications ne changent pas le propriétaire.
+     */
+    private void invalidateOwnership(Collection<Long> ids) {
+        invalidationBus.publish(CacheNames.TODO_OWNERSHIP, ids.stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Les lignes sont verrouillées entre le SELECT et l'UPDATE : les ids possédés sont exactement ceux modifiés.
+     */
+    private BulkTodoResult toBulkResult(Set<Long> requested, Set<Long> owned, int updated) {
+        List<BulkTodoResult.Item> results = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            BulkTodoResult.Status status = owned.contains(id) ? BulkTodoResult.Status.OK : BulkTodoResult.Status.NOT_FOUND;
+            results.add(new BulkTodoResult.Item(id, status));
+        }
+        return new BulkTodoResult(updated, results);
+    }
 }
@@ -0,0 +1,348 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Invalidation.LocalCache;
+import com.todolist.todolist.Json.Todo.TodoStats;
+import com.todolist.todolist.Repository.TodoDueDayCount;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Service.TodoStatsService;
+import com.todolist.todolist.Utils.LruCache;
+import com.todolist.todolist.Utils.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Compteurs de GET /todos/stats, tenus à jour en mémoire au lieu de requêtes d'agrégat à chaque appel.
+ *
+ * Par utilisateur (Counters) : le total, le nombre de todos en retard, le nombre de todos par jour
+ * d'échéance à venir (TreeMap jour → nombre) et le nombre de créations du mois en cours.
+ * Une lecture ne fait que consulter au plus 7 jours de la TreeMap : le temps de réponse ne dépend
+ * pas du nombre de todos.
+ *
+ * Mise à jour :
+ * - TodoServiceImpl signale chaque création, changement d'échéance et suppression (delta appliqué
+ *   après le commit) ; les opérations sans lecture préalable (merge patch, opérations groupées)
+ *   demandent un recalcul de l'utilisateur (recount)
+ * - les compteurs d'un utilisateur sont calculés en base au premier appel (une requête groupée par jour),
+ *   puis gardés dans un LruCache borné (todo-stats.max-users)
+ *
+ * Passage du temps, sans tâche planifiée : à chaque accès, les jours d'échéance passés depuis le dernier
+ * accès sont retirés de la TreeMap et ajoutés aux todos en retard ; au changement de mois, le compteur
+ * des créations repart de zéro.
+ *
+ * Réconciliation (reconcile, toutes les todo-stats.reconcile-interval-ms) : les compteurs en mémoire
+ * sont comparés au résultat de la requête et corrigés en cas d'écart (métrique todolist.todo-stats.corrections).
+ *
+ * Plusieurs instances : chaque modification est publiée sur l'InvalidationBus (cache "todo-stats"),
+ * les autres instances oublient les compteurs de l'utilisateur et les recalculeront au prochain appel.
+ * La clé porte l'identifiant de l'instance d'origine, qui a déjà appliqué le delta et ignore son propre message.
+ */
+@Service
+public class TodoStatsServiceImpl implements TodoStatsService, LocalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoStatsServiceImpl.class);
+
+    private final TodoRepository todoRepository;
+    private final InvalidationBus invalidationBus;
+    private final LruCache<Long, Counters> countersByUser;
+    private final Counter corrections;
+
+    /**
+     * Distingue les messages publiés par cette instance de ceux des autres.
+     */
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    @Value("${todo-stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    /**
+     * Position du prochain utilisateur à vérifier : chaque passage reprend là où le précédent s'est arrêté.
+     */
+    private int reconcileCursor;
+
+    public TodoStatsServiceImpl(
+            TodoRepository todoRepository,
+            InvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${todo-stats.max-users:10000}") int maxUsers
+    ) {
+        this.todoRepository = todoRepository;
+        this.invalidationBus = invalidationBus;
+        this.countersByUser = new LruCache<>(maxUsers);
+        this.corrections = Counter.builder("todolist.todo-stats.corrections")
+                .description("Compteurs corrigés par la réconciliation avec la table todos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TodoStats getStatsOfUser(Long userId) {
+        LocalDate today = LocalDate.now();
+        Counters counters = countersByUser.get(userId);
+        if (counters != null) {
+            synchronized (counters) {
+                if (counters.loaded) {
+                    return counters.snapshot(today);
+                }
+            }
+        }
+        return load(userId, today).snapshot(today);
+    }
+
+    @Override
+    public void todoCreated(Long userId, LocalDateTime finalDate, LocalDateTime createdAt) {
+        apply(userId, counters -> counters.add(finalDate.toLocalDate(), createdAt.toLocalDate(), 1));
+    }
+
+    @Override
+    public void finalDateChanged(Long userId, LocalDateTime before, LocalDateTime after) {
+        if (before.toLocalDate().equals(after.toLocalDate())) {
+            return;
+        }
+        apply(userId, counters -> {
+            counters.add(before.toLocalDate(), null, -1);
+            counters.add(after.toLocalDate(), null, 1);
+        });
+    }
+
+    @Override
+    public void todoDeleted(Long userId, LocalDateTime finalDate, LocalDateTime createdAt) {
+        apply(userId, counters -> counters.add(finalDate.toLocalDate(), createdAt.toLocalDate(), -1));
+    }
+
+    @Override
+    public void recount(Long userId) {
+        Transactions.afterCommit(() -> countersByUser.remove(userId));
+        invalidationBus.publish(CacheNames.TODO_STATS, key(userId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheNames.TODO_STATS;
+    }
+
+    /**
+     * Clés "userId@instance" : les messages de cette instance sont ignorés, le delta est déjà appliqué.
+     */
+    @Override
+    public void invalidate(List<String> keys) {
+        if (keys == null) {
+            countersByUser.clear();
+            return;
+        }
+        for (String key : keys) {
+            int separator = key.indexOf('@');
+            if (!key.substring(separator + 1).equals(instanceId)) {
+                countersByUser.remove(Long.parseLong(key.substring(0, separator)));
+            }
+        }
+    }
+
+    /**
+     * Compare au plus todo-stats.reconcile-batch-size utilisateurs en mémoire avec la base.
+     *
+     * Un utilisateur modifié pendant la requête est laissé pour le passage suivant : le delta
+     * peut être compté ou non par la requête selon l'ordre des commits, la comparaison ne serait pas fiable.
+     */
+    @Scheduled(fixedDelayString = "${todo-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Long> userIds = countersByUser.keys();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int checked = Math.min(reconcileBatchSize, userIds.size());
+        int corrected = 0;
+        for (int i = 0; i < checked; i++) {
+            Long userId = userIds.get((reconcileCursor + i) % userIds.size());
+            Counters counters = countersByUser.get(userId);
+            if (counters == null) {
+                continue;
+            }
+            long modifications;
+            synchronized (counters) {
+                if (!counters.loaded) {
+                    continue;
+                }
+                modifications = counters.modifications;
+            }
+
+            Counters fresh = query(userId, today);
+            synchronized (counters) {
+                if (counters.modifications == modifications && !counters.sameAs(fresh, today)) {
+                    counters.copyFrom(fresh);
+                    corrected++;
+                }
+            }
+        }
+        reconcileCursor = (reconcileCursor + checked) % userIds.size();
+        if (corrected > 0) {
+            corrections.increment(corrected);
+            logger.warn("Statistiques des todos : {} utilisateur(s) corrigé(s) sur {} vérifié(s)", corrected, checked);
+        }
+    }
+
+    /**
+     * Calcul en base. Les compteurs (vides) sont placés dans le cache avant la requête : un delta reçu
+     * pendant celle-ci les marque "stale", et le résultat n'est alors pas gardé (il a pu manquer ce delta).
+     */
+    private Counters load(Long userId, LocalDate today) {
+        Counters counters = new Counters();
+        countersByUser.put(userId, counters, countersByUser.generation());
+
+        Counters fresh = query(userId, today);
+        synchronized (counters) {
+            if (!counters.stale) {
+                counters.copyFrom(fresh);
+            }
+        }
+        return fresh;
+    }
+
+    private Counters query(Long userId, LocalDate today) {
+        LocalDate firstOfMonth = today.withDayOfMonth(1);
+        Counters counters = new Counters();
+        counters.rolledUntil = today;
+        counters.month = firstOfMonth;
+        for (TodoDueDayCount row : todoRepository.countByDueDayOfUser(userId, firstOfMonth.atStartOfDay())) {
+            counters.total += row.count();
+            counters.createdThisMonth += row.createdSince();
+            if (row.day().isBefore(today)) {
+                counters.overdue += row.count();
+            } else {
+                counters.dueByDay.put(row.day(), row.count());
+            }
+        }
+        counters.loaded = true;
+        return counters;
+    }
+
+    /**
+     * Delta appliqué après le commit, aux compteurs de cette instance s'ils sont en mémoire
+     * (sinon ils seront calculés en base au prochain appel), puis publié aux autres instances.
+     */
+    private void apply(Long userId, Consumer<Counters> delta) {
+        Transactions.afterCommit(() -> {
+            Counters counters = countersByUser.get(userId);
+            if (counters != null) {
+                synchronized (counters) {
+                    if (counters.loaded) {
+                        counters.roll(LocalDate.now());
+                        delta.accept(counters);
+                        counters.modifications++;
+                    } else {
+                        counters.stale = true;
+                    }
+                }
+            }
+        });
+        invalidationBus.publish(CacheNames.TODO_STATS, key(userId));
+    }
+
+    private String key(Long userId) {
+        return userId + "@" + instanceId;
+    }
+
+    /**
+     * Compteurs d'un utilisateur, protégés par leur propre moniteur.
+     */
+    private static final class Counters {
+
+        boolean loaded;
+        boolean stale;
+        long modifications;
+
+        long total;
+        long overdue;
+        long createdThisMonth;
+
+        /**
+         * Jour d'échéance → nombre de todos, pour les jours à partir de rolledUntil seulement.
+         */
+        final TreeMap<LocalDate, Long> dueByDay = new TreeMap<>();
+        LocalDate rolledUntil;
+        LocalDate month;
+
+        /**
+         * Les jours passés depuis le dernier accès basculent dans overdue ; nouveau mois, compteur à zéro.
+         */
+        void roll(LocalDate today) {
+            if (!today.isAfter(rolledUntil)) {
+                return;
+            }
+            Map.Entry<LocalDate, Long> first;
+            while ((first = dueByDay.firstEntry()) != null && first.getKey().isBefore(today)) {
+                overdue += first.getValue();
+                dueByDay.pollFirstEntry();
+            }
+            rolledUntil = today;
+            LocalDate firstOfMonth = today.withDayOfMonth(1);
+            if (!firstOfMonth.equals(month)) {
+                month = firstOfMonth;
+                createdThisMonth = 0;
+            }
+        }
+
+        /**
+         * @param createdOn Jour de création (création / suppression), ou null pour un simple déplacement
+         *                  d'échéance : le total et les créations du mois ne changent pas
+         */
+        void add(LocalDate dueDay, LocalDate createdOn, int sign) {
+            if (createdOn != null) {
+                total += sign;
+                if (!createdOn.isBefore(month)) {
+                    createdThisMonth += sign;
+                }
+            }
+            if (dueDay.isBefore(rolledUntil)) {
+                overdue += sign;
+            } else {
+                dueByDay.merge(dueDay, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+
+        TodoStats snapshot(LocalDate today) {
+            roll(today);
+            LocalDate sunday = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            long dueThisWeek = 0;
+            for (long count : dueByDay.subMap(today, true, sunday, true).values()) {
+                dueThisWeek += count;
+            }
+            return new TodoStats(total, overdue, dueByDay.getOrDefault(today, 0L), dueThisWeek, createdThisMonth);
+        }
+
+        boolean sameAs(Counters other, LocalDate today) {
+            roll(today);
+            return total == other.total
+                    && overdue == other.overdue
+                    && createdThisMonth == other.createdThisMonth
+                    && dueByDay.equals(other.dueByDay);
+        }
+
+        void copyFrom(Counters other) {
+            total = other.total;
+            overdue = other.overdue;
+            createdThisMonth = other.createdThisMonth;
+            dueByDay.clear();
+            dueByDay.putAll(other.dueByDay);
+            rolledUntil = other.rolledUntil;
+            month = other.month;
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Invalidation.LocalCache;
+import com.todolist.todolist.Json.Todo.TagFilter;
+import com.todolist.todolist.Repository.TagRepository;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Repository.TodoTagName;
+import com.todolist.todolist.Utils.CompactBitmap;
+import com.todolist.todolist.Utils.LruCache;
+import com.todolist.todolist.Utils.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Index en mémoire des étiquettes, par utilisateur : étiquette → CompactBitmap des ids de ses todos,
+ * plus le bitmap de tous ses todos non supprimés (pour "sans cette étiquette").
+ *
+ * GET /todos?tags=a,b,-c devient (a ∩ b) \ c sur des bitmaps, au lieu d'une jointure sur todo_tags
+ * par étiquette demandée. Seuls les todos retenus sont ensuite lus en base, par id.
+ *
+ * Tenue à jour :
+ * - TodoServiceImpl signale chaque création, changement d'étiquettes et suppression, appliqué après le commit
+ * - un utilisateur absent est chargé au premier filtre (deux requêtes : ids des todos, couples todo / étiquette)
+ *   puis gardé dans un LruCache borné (todo-tags.max-users) ; comme dans TodoStatsServiceImpl, une entrée
+ *   vide est placée dans le cache avant les requêtes, une modification de cet utilisateur pendant le
+ *   chargement la marque "stale" et le résultat n'est pas gardé. Les modifications des autres
+ *   utilisateurs n'empêchent rien.
+ * - import de fichiers : l'utilisateur est oublié (forget) et sera rechargé
+ *
+ * Plusieurs instances : même protocole que TodoStatsServiceImpl, clé "userId@instance" sur l'InvalidationBus
+ * (cache "todo-tags"), les autres instances oublient l'utilisateur.
+ */
+@Component
+public class TodoTagIndex implements LocalCache {
+
+    private final TodoRepository todoRepository;
+    private final TagRepository tagRepository;
+    private final InvalidationBus invalidationBus;
+    private final LruCache<Long, UserTags> tagsByUser;
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public TodoTagIndex(
+            TodoRepository todoRepository,
+            TagRepository tagRepository,
+            InvalidationBus invalidationBus,
+            @Value("${todo-tags.max-users:10000}") int maxUsers
+    ) {
+        this.todoRepository = todoRepository;
+        this.tagRepository = tagRepository;
+        this.invalidationBus = invalidationBus;
+        this.tagsByUser = new LruCache<>(maxUsers);
+    }
+
+    /**
+     * @return Les ids des todos de l'utilisateur qui satisfont le filtre, par ordre croissant
+     */
+    public long[] select(Long userId, TagFilter filter) {
+        UserTags tags = tagsByUser.get(userId);
+        if (tags == null || !tags.isLoaded()) {
+            tags = load(userId);
+        }
+        synchronized (tags) {
+            CompactBitmap result = null;
+            for (String name : filter.included()) {
+                CompactBitmap tagged = tags.byName.getOrDefault(name, EMPTY);
+                if (result == null) {
+                    result = tagged.copy();
+                } else {
+                    result = filter.matchAll() ? CompactBitmap.and(result, tagged) : CompactBitmap.or(result, tagged);
+                }
+            }
+            if (result == null) {
+                result = tags.all;
+            }
+            for (String name : filter.excluded()) {
+                result = CompactBitmap.andNot(result, tags.byName.getOrDefault(name, EMPTY));
+            }
+            return result.toArray();
+        }
+    }
+
+    /**
+     * Todo créé ou dont les étiquettes ont été remplacées par names.
+     */
+    public void todoTagged(Long userId, long todoId, Set<String> names) {
+        apply(userId, tags -> {
+            tags.all.add(todoId);
+            tags.byName.values().forEach(bitmap -> bitmap.remove(todoId));
+            for (String name : names) {
+                tags.byName.computeIfAbsent(name, n -> new CompactBitmap()).add(todoId);
+            }
+            tags.byName.values().removeIf(CompactBitmap::isEmpty);
+        });
+    }
+
+    public void todosRemoved(Long userId, Collection<Long> todoIds) {
+        apply(userId, tags -> {
+            for (long todoId : todoIds) {
+                tags.all.remove(todoId);
+                tags.byName.values().forEach(bitmap -> bitmap.remove(todoId));
+            }
+            tags.byName.values().removeIf(CompactBitmap::isEmpty);
+        });
+    }
+
+    /**
+     * Todos ajoutés ou retirés sans passer par TodoServiceImpl : l'utilisateur sera rechargé.
+     */
+    public void forget(Long userId) {
+        Transactions.afterCommit(() -> tagsByUser.remove(userId));
+        invalidationBus.publish(CacheNames.TODO_TAGS, key(userId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheNames.TODO_TAGS;
+    }
+
+    @Override
+    public void invalidate(List<String> keys) {
+        if (keys == null) {
+            tagsByUser.clear();
+            return;
+        }
+        for (String key : keys) {
+            int separator = key.indexOf('@');
+            if (!key.substring(separator + 1).equals(instanceId)) {
+                tagsByUser.remove(Long.parseLong(key.substring(0, separator)));
+            }
+        }
+    }
+
+    /**
+     * Chargement en base. L'entrée (vide) est placée dans le cache avant les requêtes : une modification
+     * reçue pendant celles-ci la marque "stale", et le résultat n'est alors pas gardé (il a pu la manquer) ;
+     * il sert quand même à la lecture en cours.
+     */
+    private UserTags load(Long userId) {
+        UserTags tags = new UserTags();
+        tagsByUser.put(userId, tags, tagsByUser.generation());
+
+        UserTags fresh = new UserTags();
+        for (Long todoId : todoRepository.findIdsByUserIdNotDeleted(userId)) {
+            fresh.all.add(todoId);
+        }
+        for (TodoTagName row : tagRepository.findTodoTagNamesOfUser(userId)) {
+            fresh.byName.computeIfAbsent(row.name(), name -> new CompactBitmap()).add(row.todoId());
+        }
+        fresh.loaded = true;
+        synchronized (tags) {
+            if (!tags.stale) {
+                tags.copyFrom(fresh);
+                return tags;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Modification appliquée après le commit si l'utilisateur est en mémoire (sinon il sera chargé
+     * au prochain filtre). Une entrée en cours de chargement est seulement marquée "stale".
+     */
+    private void apply(Long userId, Consumer<UserTags> change) {
+        Transactions.afterCommit(() -> {
+            UserTags tags = tagsByUser.get(userId);
+            if (tags == null) {
+                return;
+            }
+            synchronized (tags) {
+                if (tags.loaded) {
+                    change.accept(tags);
+                } else {
+                    tags.stale = true;
+                }
+            }
+        });
+        invalidationBus.publish(CacheNames.TODO_TAGS, key(userId));
+    }
+
+    private String key(Long userId) {
+        return userId + "@" + instanceId;
+    }
+
+    private static final CompactBitmap EMPTY = new CompactBitmap();
+
+    /**
+     * Bitmaps d'un utilisateur, protégés par le moniteur de l'objet.
+     * loaded = false : entrée placée par load() dont les requêtes ne sont pas terminées.
+     */
+    private static final class UserTags {
+
+        boolean loaded;
+        boolean stale;
+        CompactBitmap all = new CompactBitmap();
+        Map<String, CompactBitmap> byName = new HashMap<>();
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Reprend les bitmaps de fresh, qui ne doit plus être utilisé ensuite.
+         */
+        void copyFrom(UserTags fresh) {
+            all = fresh.all;
+            byName = fresh.byName;
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Entity.UserDeletionJob;
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Repository.TodoRepository;
+import com.todolist.todolist.Repository.UserDeletionJobRepository;
+import com.todolist.todolist.Service.TodoStatsService;
+import com.todolist.todolist.Service.UserDeletionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Suppression des todos d'un utilisateur supprimé.
+ *
+ * deleteUser() ne fait que renseigner users.deleted_at et créer un UserDeletionJob dans la même
+ * transaction ; les todos sont supprimés ensuite par ce job planifié, en lots :
+ * 1. SELECT des ids de todos encore vivants après lastTodoId (keyset, user-deletion.batch-size lignes)
+ * 2. UN UPDATE ensembliste "deleted_at = ?" sur ces ids, dans une transaction courte qui avance aussi
+ *    lastTodoId et todosDeleted
+ * 3. Pause (user-deletion.pause-ms) avant le lot suivant : un utilisateur avec des centaines de milliers
+ *    de todos ne verrouille jamais plus d'un lot à la fois
+ * 4. Plus aucun todo vivant : job COMPLETED
+ *
+ * Les todos reçoivent la date de suppression de l'utilisateur : ArchiveServiceImpl les archive ensemble.
+ * Le job est verrouillé pendant chaque lot, plusieurs instances peuvent exécuter ce traitement.
+ */
+@Service
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDeletionServiceImpl.class);
+
+    private final UserDeletionJobRepository jobRepository;
+    private final TodoRepository todoRepository;
+    private final TodoStatsService todoStatsService;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deletedTodos;
+
+    @Value("${user-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user-deletion.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${user-deletion.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${user-deletion.retention-days:30}")
+    private int retentionDays;
+
+    public UserDeletionServiceImpl(
+            UserDeletionJobRepository jobRepository,
+            TodoRepository todoRepository,
+            TodoStatsService todoStatsService,
+            InvalidationBus invalidationBus,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.jobRepository = jobRepository;
+        this.todoRepository = todoRepository;
+        this.todoStatsService = todoStatsService;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = transactionTemplate;
+        this.deletedTodos = Counter.builder("todolist.user-deletion.todos")
+                .description("Todos supprimés avec leur utilisateur")
+                .register(meterRegistry);
+    }
+
+    /**
+     * À appeler dans la transaction qui supprime l'utilisateur.
+     */
+    @Override
+    public void scheduleTodoDeletion(Long userId, LocalDateTime deletedAt) {
+        jobRepository.save(new UserDeletionJob(userId, deletedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${user-deletion.poll-interval-ms:5000}")
+    public void runScheduledDeletion() {
+        deletePendingTodos();
+    }
+
+    /**
+     * Traite les jobs en attente, au plus user-deletion.max-batches-per-run lots par run
+     * (un job non terminé reprend au run suivant).
+     *
+     * @return Le nombre de todos supprimés pendant ce run
+     */
+    @Override
+    public int deletePendingTodos() {
+        int total = 0;
+        int batches = 0;
+        for (Long userId : jobRepository.findUserIdsByStatus(UserDeletionJob.Status.PENDING, Limit.of(100))) {
+            while (batches < maxBatchesPerRun) {
+                batches++;
+                int deleted = deleteNextBatch(userId);
+                if (deleted < 0) {
+                    break;
+                }
+                total += deleted;
+                if (!pause()) {
+                    return total;
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jobRepository.deleteCompletedBefore(
+                UserDeletionJob.Status.COMPLETED, LocalDateTime.now().minusDays(retentionDays)));
+        return total;
+    }
+
+    /**
+     * @return Le nombre de todos supprimés, ou -1 quand le job est terminé
+     */
+    private int deleteNextBatch(Long userId) {
+        Integer result = transactionTemplate.execute(status -> {
+            UserDeletionJob job = jobRepository.lockByUserId(userId).orElse(null);
+            if (job == null || job.getStatus() == UserDeletionJob.Status.COMPLETED) {
+                return -1;
+            }
+
+            List<Long> ids = todoRepository.findLiveIdsOfUser(userId, job.getLastTodoId(), batchSize);
+            if (ids.isEmpty()) {
+                job.setStatus(UserDeletionJob.Status.COMPLETED);
+                job.setCompletedAt(LocalDateTime.now());
+                job.setUpdatedAt(job.getCompletedAt());
+                jobRepository.save(job);
+                todoStatsService.recount(userId);
+                logger.info("Todos de l'utilisateur {} supprimés: {}", userId, job.getTodosDeleted());
+                return -1;
+            }
+
+            int deleted = todoRepository.softDeleteByIdsAndUserId(ids, userId, job.getDeletedAt());
+            List<String> keys = ids.stream().map(String::valueOf).toList();
+            invalidationBus.publish(CacheNames.TODOS, keys);
+            invalidationBus.publish(CacheNames.TODO_OWNERSHIP, keys);
+
+            // softDeleteByIdsAndUserId vide le contexte de persistance : le job est réenregistré (merge)
+            job.setLastTodoId(ids.get(ids.size() - 1));
+            job.setTodosDeleted(job.getTodosDeleted() + deleted);
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            return deleted;
+        });
+
+        if (result != null && result > 0) {
+            deletedTodos.increment(result);
+        }
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * @return false si le thread a été interrompu (arrêt de l'application)
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
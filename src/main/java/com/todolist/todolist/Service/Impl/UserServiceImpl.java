@@ -1,57 +1,120 @@
 package com.todolist.todolist.Service.Impl;
 
+import com.todolist.todolist.Audit.AuditLog;
 import com.todolist.todolist.Converter.UserConverter;
 import com.todolist.todolist.Entity.User;
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.ConflictException;
+import com.todolist.todolist.Exception.NotFoundException;
+import com.todolist.todolist.Invalidation.CacheNames;
+import com.todolist.todolist.Invalidation.InvalidationBus;
+import com.todolist.todolist.Invalidation.LocalCache;
 import com.todolist.todolist.Json.Login.LoginRequest;
 import com.todolist.todolist.Json.User.UpdateUserRequest;
 import com.todolist.todolist.Json.User.BasicUser;
 import com.todolist.todolist.Json.User.CreateUserRequest;
+import com.todolist.todolist.Json.User.UserMergePatch;
+import com.todolist.todolist.Json.User.UserPage;
 import com.todolist.todolist.Json.Login.LoginResponse;
 import com.todolist.todolist.Repository.UserRepository;
 import com.todolist.todolist.Security.JwtUtil;
+import com.todolist.todolist.Security.TokenRevocationService;
+import com.todolist.todolist.Service.UserDeletionService;
 import com.todolist.todolist.Service.UserService;
+import com.todolist.todolist.Utils.ETags;
+import com.todolist.todolist.Utils.FieldSelection;
+import com.todolist.todolist.Utils.LruCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
-public class UserServiceImpl implements UserService {
+public class UserServiceImpl implements UserService, LocalCache {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final UserConverter userConverter;
+    private final TokenRevocationService tokenRevocationService;
+    private final InvalidationBus invalidationBus;
+    private final AuditLog auditLog;
+    private final UserDeletionService userDeletionService;
+
+    /**
+     * Transactions des méthodes qui hachent un mot de passe : le hachage BCrypt (volontairement lent)
+     * est fait avant d'ouvrir la transaction, pour ne pas garder une connexion du pool pendant ce temps.
+     * Les autres méthodes utilisent @Transactional.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Premières pages de l'annuaire (sans fields), indexées par "préfixe|limit" : ce sont les requêtes
+     * répétées de l'autocomplétion. Vidé à chaque création / modification / suppression d'utilisateur,
+     * sur toutes les instances (invalidation publiée sur l'InvalidationBus).
+     */
+    private final LruCache<String, UserPage> directoryCache = new LruCache<>(1024);
+
+    @Override
+    public String cacheName() {
+        return CacheNames.USER_DIRECTORY;
+    }
+
+    /**
+     * Une page dépend de tous les utilisateurs qui suivent le préfixe : on vide tout, quelles que soient les clés.
+     */
+    @Override
+    public void invalidate(List<String> keys) {
+        directoryCache.clear();
+    }
 
     @Override
     public BasicUser createUser(CreateUserRequest request) {
-        if (userRepository.findByUsernameNotDeleted(request.getUsername()).isPresent()) {
-            throw new RuntimeException("Le nom d'utilisateur existe déjà");
-        }
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
 
-        if (userRepository.findByEmailNotDeleted(request.getEmail()).isPresent()) {
-            throw new RuntimeException("L'email existe déjà");
-        }
+        return transactionTemplate.execute(status -> {
+            if (userRepository.findByUsernameNotDeleted(request.getUsername()).isPresent()) {
+                throw new ConflictException("Le nom d'utilisateur existe déjà");
+            }
 
-        User user = new User();
-        user.setFirstname(request.getFirstname());
-        user.setLastname(request.getLastname());
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+            if (userRepository.findByEmailNotDeleted(request.getEmail()).isPresent()) {
+                throw new ConflictException("L'email existe déjà");
+            }
 
-        user = userRepository.save(user);
+            User user = new User();
+            user.setFirstname(request.getFirstname());
+            user.setLastname(request.getLastname());
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(encodedPassword);
 
-        return userConverter.convertUserToBasicUser(user);
+            user = userRepository.save(user);
+            invalidationBus.publishAll(CacheNames.USER_DIRECTORY);
+
+            return userConverter.convertUserToBasicUser(user);
+        });
     }
 
+    /**
+     * Pas de transaction englobante : la vérification BCrypt d'AuthenticationManager se fait entre
+     * deux lectures courtes, sans connexion empruntée.
+     */
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
         authenticationManager.authenticate(
@@ -62,74 +125,231 @@ public class UserServiceImpl implements UserService {
         );
 
         User user = userRepository.findByUsernameOrEmailNotDeleted(loginRequest.getUsernameOrEmail())
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
 
         String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        auditLog.audit("login", user.getId(), null);
 
         return new LoginResponse(token, user.getId(), user.getUsername(), user.getEmail());
     }
 
+    /**
+     * Le token reste signé et non expiré : on l'ajoute à la liste de révocation jusqu'à son expiration.
+     */
     @Override
-    public List<BasicUser> getAllUsers() {
-        return userRepository.findAllNotDeleted()
-                .stream()
+    public void logout(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        tokenRevocationService.revokeToken(claims);
+        Long userId = claims.get("userId", Long.class);
+        auditLog.audit("logout", userId == null ? 0L : userId, null);
+    }
+
+    /**
+     * Annuaire paginé par clé : on lit limit + 1 lignes, la ligne en trop indique qu'une page suivante existe.
+     * Le curseur est l'id du dernier utilisateur renvoyé.
+     * Sans @Transactional : une page servie par directoryCache n'emprunte aucune connexion.
+     */
+    @Override
+    public UserPage getUserPage(String after, int limit, String query, String fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit doit être compris entre 1 et " + MAX_PAGE_SIZE);
+        }
+        Long afterId = parseCursor(after);
+        String prefix = query == null || query.isBlank() ? null : query.trim();
+        String prefixPattern = prefix == null ? null : escapeLike(prefix) + "%";
+
+        if (fields != null) {
+            Set<String> selected = FieldSelection.parse(fields, FieldSelection.USER_FIELDS);
+            Set<String> queried = new LinkedHashSet<>();
+            queried.add("id");
+            queried.addAll(selected);
+
+            List<Map<String, Object>> rows = userRepository.findFieldsPageNotDeleted(afterId, prefixPattern, limit + 1, queried);
+            boolean hasNext = rows.size() > limit;
+            List<Map<String, Object>> items = hasNext ? rows.subList(0, limit) : rows;
+            String nextCursor = hasNext ? String.valueOf(items.get(items.size() - 1).get("id")) : null;
+            if (!selected.contains("id")) {
+                items.forEach(item -> item.remove("id"));
+            }
+            return new UserPage(items, nextCursor);
+        }
+
+        String cacheKey = afterId == 0 ? (prefix == null ? "" : prefix) + "|" + limit : null;
+        if (cacheKey != null) {
+            UserPage cached = directoryCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = directoryCache.generation();
+
+        List<User> users = prefixPattern == null
+                ? userRepository.findPageNotDeleted(afterId, Limit.of(limit + 1))
+                : userRepository.searchPageNotDeleted(afterId, prefixPattern, limit + 1);
+        boolean hasNext = users.size() > limit;
+        List<BasicUser> items = (hasNext ? users.subList(0, limit) : users).stream()
                 .map(userConverter::convertUserToBasicUser)
-                .collect(Collectors.toList());
+                .toList();
+        UserPage page = new UserPage(items, hasNext ? String.valueOf(items.get(items.size() - 1).getId()) : null);
+
+        if (cacheKey != null) {
+            directoryCache.put(cacheKey, page, generation);
+        }
+        return page;
+    }
+
+    private static Long parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(after.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur invalide: " + after);
+        }
+    }
+
+    /**
+     * Échappe les jokers de LIKE avec '!' (caractère d'échappement des requêtes de l'annuaire) :
+     * une recherche "a_b" ne doit pas correspondre à "axb".
+     */
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BasicUser getUserById(Long id) {
         User user = userRepository.findByIdNotDeleted(id)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
 
         return userConverter.convertUserToBasicUser(user);
     }
 
     @Override
-    public BasicUser updateUser(Long id, UpdateUserRequest request) {
-        User user = userRepository.findByIdNotDeleted(id)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserFieldsById(Long id, String fields) {
+        return userRepository.findFieldsNotDeleted(id, FieldSelection.parse(fields, FieldSelection.USER_FIELDS))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+    }
 
-        if (request.getFirstname() != null) {
-            user.setFirstname(request.getFirstname());
-        }
+    @Override
+    public BasicUser updateUser(Long id, UpdateUserRequest request, Long expectedVersion) {
+        String encodedPassword = request.getPassword() != null ? passwordEncoder.encode(request.getPassword()) : null;
 
-        if (request.getLastname() != null) {
-            user.setLastname(request.getLastname());
-        }
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByIdNotDeleted(id)
+                    .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
 
-        if (request.getUsername() != null) {
-            if (userRepository.findByUsernameNotDeleted(request.getUsername()).isPresent() &&
-                    !user.getUsername().equals(request.getUsername())) {
-                throw new RuntimeException("Le nom d'utilisateur existe déjà");
+            ETags.checkVersion(expectedVersion, user.getVersion());
+
+            if (request.getFirstname() != null) {
+                user.setFirstname(request.getFirstname());
             }
-            user.setUsername(request.getUsername());
-        }
 
-        if (request.getEmail() != null) {
-            if (userRepository.findByEmailNotDeleted(request.getEmail()).isPresent() &&
-                    !user.getEmail().equals(request.getEmail())) {
-                throw new RuntimeException("L'email existe déjà");
+            if (request.getLastname() != null) {
+                user.setLastname(request.getLastname());
             }
-            user.setEmail(request.getEmail());
-        }
 
-        if (request.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-        }
+            if (request.getUsername() != null) {
+                if (userRepository.findByUsernameNotDeleted(request.getUsername()).isPresent() &&
+                        !user.getUsername().equals(request.getUsername())) {
+                    throw new ConflictException("Le nom d'utilisateur existe déjà");
+                }
+                user.setUsername(request.getUsername());
+            }
 
-        user = userRepository.save(user);
+            if (request.getEmail() != null) {
+                if (userRepository.findByEmailNotDeleted(request.getEmail()).isPresent() &&
+                        !user.getEmail().equals(request.getEmail())) {
+                    throw new ConflictException("L'email existe déjà");
+                }
+                user.setEmail(request.getEmail());
+            }
 
-        return userConverter.convertUserToBasicUser(user);
+            if (request.getPassword() != null) {
+                user.setPassword(encodedPassword);
+            }
+
+            // flush immédiat : la version incrémentée (ETag de la réponse) n'est connue qu'après l'UPDATE
+            user = userRepository.saveAndFlush(user);
+            invalidationBus.publishAll(CacheNames.USER_DIRECTORY);
+
+            if (request.getPassword() != null) {
+                tokenRevocationService.revokeAllTokensOf(id);
+                auditLog.audit("password_changed", id, null);
+            }
+
+            return userConverter.convertUserToBasicUser(user);
+        });
+    }
+
+    /**
+     * Merge patch : UPDATE des seules colonnes présentes (voir TodoServiceImpl.patchTodo).
+     * Les contrôles d'unicité restent des SELECT préalables, comme dans updateUser ;
+     * la contrainte unique de la base tranche en cas de course.
+     */
+    @Override
+    public BasicUser patchUser(Long id, UserMergePatch patch, Long expectedVersion) {
+        Map<String, Object> changes = new LinkedHashMap<>(patch.getChanges());
+        changes.computeIfPresent("password", (field, password) -> passwordEncoder.encode((String) password));
+
+        return transactionTemplate.execute(status -> {
+            if (changes.get("username") instanceof String username) {
+                userRepository.findByUsernameNotDeleted(username)
+                        .filter(other -> !other.getId().equals(id))
+                        .ifPresent(other -> {
+                            throw new ConflictException("Le nom d'utilisateur existe déjà");
+                        });
+            }
+
+            if (changes.get("email") instanceof String email) {
+                userRepository.findByEmailNotDeleted(email)
+                        .filter(other -> !other.getId().equals(id))
+                        .ifPresent(other -> {
+                            throw new ConflictException("L'email existe déjà");
+                        });
+            }
+
+            if (!changes.isEmpty()) {
+                if (userRepository.patchByIdNotDeleted(id, changes, expectedVersion) == 0) {
+                    User user = userRepository.findByIdNotDeleted(id)
+                            .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+                    ETags.checkVersion(expectedVersion, user.getVersion());
+                }
+                invalidationBus.publishAll(CacheNames.USER_DIRECTORY);
+                if (changes.containsKey("password")) {
+                    tokenRevocationService.revokeAllTokensOf(id);
+                    auditLog.audit("password_changed", id, null);
+                }
+            }
+
+            User user = userRepository.findByIdNotDeleted(id)
+                    .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+
+            if (changes.isEmpty()) {
+                ETags.checkVersion(expectedVersion, user.getVersion());
+            }
+
+            return userConverter.convertUserToBasicUser(user);
+        });
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findByIdNotDeleted(id)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
 
         user.setDeletedAt(LocalDateTime.now());
         userRepository.save(user);
+        // Ses todos sont supprimés en arrière-plan, par lots (UserDeletionServiceImpl)
+        userDeletionService.scheduleTodoDeletion(id, user.getDeletedAt());
+        invalidationBus.publishAll(CacheNames.USER_DIRECTORY);
+        tokenRevocationService.revokeAllTokensOf(id);
+        auditLog.audit("user_deleted", id, null);
     }
 }
 
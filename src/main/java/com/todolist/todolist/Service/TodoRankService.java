@@ -0,0 +1,13 @@
+package com.todolist.todolist.Service;
+
+import com.todolist.todolist.Json.Todo.MoveTodoRequest;
+
+import java.util.List;
+
+public interface TodoRankService {
+    String rankAtEnd(Long userId);
+    List<String> ranksAtEnd(Long userId, int count);
+    String rankForMove(Long userId, Long todoId, MoveTodoRequest request);
+    void scheduleInitialization(Long userId);
+    int rebalancePending();
+}
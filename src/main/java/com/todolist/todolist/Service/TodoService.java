@@ -1,14 +1,33 @@
 package com.todolist.todolist.Service;
 
+import com.todolist.todolist.Json.Todo.AgendaItem;
+import com.todolist.todolist.Json.Todo.BulkTodoResult;
 import com.todolist.todolist.Json.Todo.CreateTodoRequest;
 import com.todolist.todolist.Json.Todo.BasicTodo;
+import com.todolist.todolist.Json.Todo.MoveTodoRequest;
+import com.todolist.todolist.Json.Todo.TagFilter;
+import com.todolist.todolist.Json.Todo.TodoListEnvelope;
+import com.todolist.todolist.Json.Todo.TodoMergePatch;
+import com.todolist.todolist.Json.Todo.UpdateOccurrenceRequest;
 import com.todolist.todolist.Json.Todo.UpdateTodoRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface TodoService {
     BasicTodo createTodo(CreateTodoRequest createTodoRequest, Long userId);
-    List<BasicTodo> getAllTodosOfUser(Long userId);
-    BasicTodo updateTodo(Long id, UpdateTodoRequest updateTodo);
+    List<BasicTodo> getAllTodosOfUser(Long userId, boolean byRank);
+    List<Map<String, Object>> getTodoFieldsOfUser(Long userId, String fields, boolean byRank);
+    List<BasicTodo> getTodosOfUserByTags(Long userId, TagFilter filter);
+    List<Map<String, Object>> getTodoFieldsOfUserByTags(Long userId, String fields, TagFilter filter);
+    TodoListEnvelope getCompactTodosOfUser(Long userId);
+    BasicTodo updateTodo(Long id, UpdateTodoRequest updateTodo, Long expectedVersion);
+    BasicTodo patchTodo(Long id, Long userId, TodoMergePatch patch, Long expectedVersion);
+    BasicTodo moveTodo(Long id, Long userId, MoveTodoRequest request, Long expectedVersion);
     void deleteTodo(Long id);
+    BulkTodoResult deleteTodos(List<Long> ids, Long userId);
+    BulkTodoResult patchTodos(List<Long> ids, Long userId, TodoMergePatch patch);
+    List<AgendaItem> getAgendaOfUser(Long userId, LocalDate from, LocalDate to);
+    AgendaItem updateOccurrence(Long id, LocalDate date, UpdateOccurrenceRequest request);
 }
@@ -0,0 +1,13 @@
+package com.todolist.todolist.Service;
+
+import com.todolist.todolist.Json.Todo.TodoStats;
+
+import java.time.LocalDateTime;
+
+public interface TodoStatsService {
+    TodoStats getStatsOfUser(Long userId);
+    void todoCreated(Long userId, LocalDateTime finalDate, LocalDateTime createdAt);
+    void finalDateChanged(Long userId, LocalDateTime before, LocalDateTime after);
+    void todoDeleted(Long userId, LocalDateTime finalDate, LocalDateTime createdAt);
+    void recount(Long userId);
+}
@@ -0,0 +1,8 @@
+package com.todolist.todolist.Service;
+
+import java.time.LocalDateTime;
+
+public interface UserDeletionService {
+    void scheduleTodoDeletion(Long userId, LocalDateTime deletedAt);
+    int deletePendingTodos();
+}
@@ -4,16 +4,22 @@ import com.todolist.todolist.Json.Login.LoginRequest;
 import com.todolist.todolist.Json.User.UpdateUserRequest;
 import com.todolist.todolist.Json.User.BasicUser;
 import com.todolist.todolist.Json.User.CreateUserRequest;
+import com.todolist.todolist.Json.User.UserMergePatch;
+import com.todolist.todolist.Json.User.UserPage;
 import com.todolist.todolist.Json.Login.LoginResponse;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     BasicUser createUser(CreateUserRequest createUserRequest);
     LoginResponse login(LoginRequest loginRequest);
-    List<BasicUser> getAllUsers();
+    void logout(String token);
+    UserPage getUserPage(String after, int limit, String query, String fields);
     BasicUser getUserById(Long id);
-    BasicUser updateUser(Long id, UpdateUserRequest updateUserRequest);
+    Map<String, Object> getUserFieldsById(Long id, String fields);
+    BasicUser updateUser(Long id, UpdateUserRequest updateUserRequest, Long expectedVersion);
+    BasicUser patchUser(Long id, UserMergePatch patch, Long expectedVersion);
     void deleteUser(Long id);
 }
 
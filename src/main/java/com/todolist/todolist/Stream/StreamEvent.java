@@ -0,0 +1,31 @@
+package com.todolist.todolist.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Événement SSE prêt à être envoyé, conservé dans l'historique de reprise (Last-Event-ID).
+ *
+ * On garde les valeurs plutôt qu'un SseEventBuilder : un builder ne peut être construit qu'une fois,
+ * alors qu'un même événement part vers chaque connexion de l'utilisateur.
+ *
+ * @param id 0 pour un commentaire (heartbeat), qui n'a pas d'id
+ */
+record StreamEvent(long id, String name, Object data) {
+
+    static final String RESET = "reset";
+
+    static StreamEvent comment(String text) {
+        return new StreamEvent(0L, null, text);
+    }
+
+    SseEmitter.SseEventBuilder toSse() {
+        if (name == null) {
+            return SseEmitter.event().comment((String) data);
+        }
+        return SseEmitter.event()
+                .id(Long.toString(id))
+                .name(name)
+                .data(data, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,38 @@
+package com.todolist.todolist.Stream;
+
+import com.todolist.todolist.Json.Todo.BasicTodo;
+
+/**
+ * Événement publié par TodoServiceImpl à chaque création / modification / suppression de todo.
+ * Transmis aux clients connectés sur GET /todos/stream après le commit de la transaction.
+ *
+ * RESET : beaucoup de todos de l'utilisateur ont changé d'un coup (reclassement, TodoRankServiceImpl),
+ * le client recharge GET /todos au lieu de recevoir un événement par todo.
+ *
+ * @param todo Le todo après modification, null pour DELETED et RESET
+ */
+public record TodoChangedEvent(Long userId, Type type, Long todoId, BasicTodo todo) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESET
+    }
+
+    public static TodoChangedEvent created(BasicTodo todo) {
+        return new TodoChangedEvent(todo.getUser().getId(), Type.CREATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent updated(BasicTodo todo) {
+        return new TodoChangedEvent(todo.getUser().getId(), Type.UPDATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent deleted(Long userId, Long todoId) {
+        return new TodoChangedEvent(userId, Type.DELETED, todoId, null);
+    }
+
+    public static TodoChangedEvent reset(Long userId) {
+        return new TodoChangedEvent(userId, Type.RESET, null, null);
+    }
+}
@@ -0,0 +1,222 @@
+package com.todolist.todolist.Stream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion des changements de todos aux connexions SSE (GET /todos/stream) de chaque utilisateur.
+ *
+ * Un "canal" par utilisateur contient :
+ * - ses connexions ouvertes (plusieurs appareils / onglets)
+ * - l'historique de ses derniers événements, pour la reprise après déconnexion (header Last-Event-ID)
+ *
+ * Les ids d'événements sont croissants et partent de l'heure de démarrage (en microsecondes) :
+ * un id reçu avant un redémarrage est toujours plus petit que les nouveaux, le client reçoit alors
+ * un événement "reset" lui demandant de recharger GET /todos.
+ *
+ * Toutes les opérations sur un canal passent par ConcurrentHashMap.compute : elles sont sérialisées
+ * par utilisateur (ordre des événements garanti), sans verrou global. La diffusion ne fait que déposer
+ * l'événement dans la file de chaque connexion, l'envoi réseau est fait par le pool todo-stream-*.
+ *
+ * Limite : les événements sont diffusés par l'instance qui a traité la modification.
+ */
+@Component
+public class TodoEventBroker {
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    /**
+     * Taille de la file d'envoi d'une connexion : au-delà, le client est considéré comme trop lent.
+     */
+    @Value("${todo-stream.buffer-size:64}")
+    private int bufferSize;
+
+    /**
+     * Nombre d'événements conservés par utilisateur pour la reprise (Last-Event-ID).
+     */
+    @Value("${todo-stream.replay-size:256}")
+    private int replaySize;
+
+    /**
+     * Durée de conservation de l'historique d'un utilisateur sans connexion ouverte.
+     */
+    @Value("${todo-stream.replay-ttl-ms:600000}")
+    private long replayTtlMs;
+
+    /**
+     * Durée maximale d'une connexion ; le navigateur (EventSource) se reconnecte ensuite tout seul.
+     */
+    @Value("${todo-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${todo-stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${todo-stream.sender-threads:2}")
+    private int senderThreads;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("todo-stream-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(TodoStreamSubscriber::close));
+        sender.shutdown();
+    }
+
+    /**
+     * Ouvre une connexion SSE pour un utilisateur.
+     *
+     * @param lastEventId Header Last-Event-ID envoyé par le navigateur à la reconnexion (peut être null)
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        TodoStreamSubscriber subscriber = new TodoStreamSubscriber(new SseEmitter(timeoutMs), bufferSize, sender);
+        Long lastSeen = parseEventId(lastEventId);
+
+        channels.compute(userId, (id, existing) -> {
+            Channel channel = existing != null ? existing : new Channel(sequence.get());
+
+            channel.subscribers.removeIf(TodoStreamSubscriber::isClosed);
+            if (channel.subscribers.size() >= maxConnectionsPerUser) {
+                channel.subscribers.remove(0).close();
+            }
+
+            // Commentaire initial : les headers HTTP partent tout de suite, le client sait qu'il est connecté
+            subscriber.offer(StreamEvent.comment("connected"));
+            if (lastSeen != null) {
+                replay(channel, subscriber, lastSeen);
+            }
+            channel.subscribers.add(subscriber);
+            channel.lastActivity = System.currentTimeMillis();
+            return channel;
+        });
+
+        Runnable unsubscribe = () -> channels.computeIfPresent(userId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel;
+        });
+        subscriber.emitter().onCompletion(unsubscribe);
+        subscriber.emitter().onTimeout(unsubscribe);
+        subscriber.emitter().onError(error -> unsubscribe.run());
+
+        return subscriber.emitter();
+    }
+
+    /**
+     * Appelé après le commit de la transaction qui a modifié le todo (ou immédiatement s'il n'y a pas
+     * de transaction) : un client ne reçoit jamais un changement qui a été annulé par un rollback.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        Object data = switch (event.type()) {
+            case DELETED -> Map.of("id", event.todoId());
+            case RESET -> Map.of();
+            default -> event.todo();
+        };
+        String name = event.type().name().toLowerCase();
+
+        channels.compute(event.userId(), (id, existing) -> {
+            Channel channel = existing != null ? existing : new Channel(sequence.get());
+            StreamEvent streamEvent = new StreamEvent(sequence.incrementAndGet(), name, data);
+
+            channel.history.addLast(streamEvent);
+            if (channel.history.size() > replaySize) {
+                channel.coveredAfter = channel.history.removeFirst().id();
+            }
+            channel.subscribers.removeIf(subscriber -> !subscriber.offer(streamEvent));
+            channel.lastActivity = System.currentTimeMillis();
+            return channel;
+        });
+    }
+
+    /**
+     * Heartbeat : un commentaire SSE régulier empêche les proxies de couper une connexion silencieuse
+     * et détecte les clients partis (l'envoi échoue). Supprime aussi l'historique des utilisateurs
+     * sans connexion depuis todo-stream.replay-ttl-ms.
+     */
+    @Scheduled(fixedDelayString = "${todo-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        StreamEvent ping = StreamEvent.comment("ping");
+
+        for (Long userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, channel) -> {
+                channel.subscribers.removeIf(subscriber -> !subscriber.offer(ping));
+                if (channel.subscribers.isEmpty() && now - channel.lastActivity > replayTtlMs) {
+                    return null;
+                }
+                if (!channel.subscribers.isEmpty()) {
+                    channel.lastActivity = now;
+                }
+                return channel;
+            });
+        }
+    }
+
+    /**
+     * Renvoie les événements manqués depuis lastSeen, ou "reset" si l'historique ne remonte pas assez loin
+     * ou si les événements manqués ne tiennent pas dans la file de la connexion (recharger est alors plus simple).
+     */
+    private void replay(Channel channel, TodoStreamSubscriber subscriber, long lastSeen) {
+        long missed = channel.history.stream().filter(event -> event.id() > lastSeen).count();
+
+        if (lastSeen < channel.coveredAfter || missed >= bufferSize) {
+            subscriber.offer(new StreamEvent(sequence.get(), StreamEvent.RESET, Map.of()));
+            return;
+        }
+        for (StreamEvent event : channel.history) {
+            if (event.id() > lastSeen) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * État d'un utilisateur, modifié uniquement à l'intérieur de channels.compute(...).
+     */
+    private static final class Channel {
+        final List<TodoStreamSubscriber> subscribers = new ArrayList<>();
+        final ArrayDeque<StreamEvent> history = new ArrayDeque<>();
+
+        /**
+         * Tous les événements d'id supérieur à coveredAfter sont dans history.
+         */
+        long coveredAfter;
+        long lastActivity = System.currentTimeMillis();
+
+        Channel(long coveredAfter) {
+            this.coveredAfter = coveredAfter;
+        }
+    }
+}
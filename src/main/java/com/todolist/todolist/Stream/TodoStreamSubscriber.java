@@ -0,0 +1,94 @@
+package com.todolist.todolist.Stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Une connexion SSE ouverte.
+ *
+ * Aucun thread n'est bloqué par une connexion inactive : SseEmitter repose sur les requêtes
+ * asynchrones de Servlet, le thread HTTP est rendu dès que le controller a retourné l'emitter.
+ *
+ * Les événements passent par une file bornée, vidée par le pool d'envoi partagé (au plus une tâche
+ * d'envoi par connexion à la fois). Si la file est pleine, le client ne lit pas assez vite :
+ * la connexion est fermée plutôt que de laisser la mémoire grossir. Le client se reconnecte
+ * avec Last-Event-ID et récupère ce qu'il a manqué.
+ *
+ * L'écriture réseau reste bloquante : un client qui ne lit plus du tout occupe un thread d'envoi
+ * jusqu'au timeout d'écriture de Tomcat. todo-stream.sender-threads doit en tenir compte.
+ */
+final class TodoStreamSubscriber {
+
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<StreamEvent> queue;
+    private final Executor sender;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    TodoStreamSubscriber(SseEmitter emitter, int bufferSize, Executor sender) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Non bloquant : appelé pendant la diffusion d'un événement à tous les abonnés d'un utilisateur.
+     *
+     * @return false si la connexion est (ou vient d'être) fermée
+     */
+    boolean offer(StreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            close();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            StreamEvent event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event.toSse());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté ou emitter déjà terminé
+            close();
+        } finally {
+            draining.set(false);
+        }
+        // Un événement a pu arriver entre le dernier poll() et draining.set(false)
+        if (!closed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.todolist.todolist.Utils;
 
 import com.todolist.todolist.Entity.User;
+import com.todolist.todolist.Exception.NotFoundException;
 import com.todolist.todolist.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -34,7 +35,7 @@ public class AuthenticationUtils {
      * - Vérifier les permissions (modification/suppression)
      * 
      * @return L'ID de l'utilisateur connecté
-     * @throws RuntimeException si l'utilisateur n'est pas trouvé (user supprimé ou token invalide)
+     * @throws NotFoundException si l'utilisateur n'est pas trouvé (user supprimé ou token invalide)
      * 
      * Note : Cette méthode suppose qu'un utilisateur est authentifié.
      * Les routes protégées par Spring Security garantissent cela.
@@ -43,7 +44,7 @@ public class AuthenticationUtils {
         String username = getCurrentUsername();
         
         User user = userRepository.findByUsernameNotDeleted(username)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
         
         return user.getId();
     }
@@ -55,13 +56,13 @@ public class AuthenticationUtils {
      * (nom, prénom, email, etc.)
      * 
      * @return L'entité User complète
-     * @throws RuntimeException si l'utilisateur n'est pas trouvé
+     * @throws NotFoundException si l'utilisateur n'est pas trouvé
      */
     public User getCurrentUser() {
         String username = getCurrentUsername();
         
         return userRepository.findByUsernameNotDeleted(username)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
     }
     
     /**
@@ -0,0 +1,355 @@
+package com.todolist.todolist.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble d'identifiants (long positifs) compressé, sur le principe des Roaring bitmaps.
+ *
+ * Les ids sont regroupés par tranche de 65 536 valeurs (clé = id >>> 16) ; chaque tranche est un conteneur :
+ * - peu rempli (au plus 4096 valeurs) : tableau trié des 16 bits de poids faible (2 octets par id)
+ * - plus rempli : bitset de 65 536 bits (8 Ko, quel que soit le nombre d'ids)
+ *
+ * Les ids d'un même utilisateur, créés au fil du temps, se concentrent dans quelques tranches : un bitmap
+ * de quelques milliers d'ids tient en quelques Ko, et and / or / andNot travaillent tranche par tranche
+ * (fusion de tableaux triés ou opérations sur des mots de 64 bits) au lieu de comparer des ids un par un.
+ *
+ * Non synchronisé : l'appelant protège chaque instance (voir TodoTagIndex).
+ */
+public final class CompactBitmap {
+
+    /**
+     * Au-delà, un tableau de char prend plus de place que le bitset de 8 Ko.
+     */
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int WORDS = 1024;
+
+    private long[] keys;
+    private Object[] containers;
+    private int size;
+
+    public CompactBitmap() {
+        this(4);
+    }
+
+    private CompactBitmap(int capacity) {
+        this.keys = new long[capacity];
+        this.containers = new Object[capacity];
+    }
+
+    public void add(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = add(containers[index], low);
+            return;
+        }
+        insert(-index - 1, key, new char[]{low});
+    }
+
+    public void remove(long id) {
+        int index = indexOf(id >>> 16);
+        if (index < 0) {
+            return;
+        }
+        Object container = remove(containers[index], (char) id);
+        if (cardinality(container) == 0) {
+            delete(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    public boolean contains(long id) {
+        int index = indexOf(id >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        if (container instanceof char[] values) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinality(containers[i]);
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CompactBitmap copy() {
+        CompactBitmap copy = new CompactBitmap(Math.max(4, size));
+        for (int i = 0; i < size; i++) {
+            Object container = containers[i];
+            copy.keys[i] = keys[i];
+            copy.containers[i] = container instanceof char[] values ? values.clone() : ((long[]) container).clone();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * @return Les ids dans l'ordre croissant
+     */
+    public long[] toArray() {
+        long[] result = new long[(int) cardinality()];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            long high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[] values) {
+                for (char low : values) {
+                    result[position++] = high | low;
+                }
+            } else {
+                long[] words = (long[]) container;
+                for (int word = 0; word < WORDS; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        result[position++] = high | ((long) word << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public static CompactBitmap and(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap(Math.max(4, Math.min(a.size, b.size)));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            int order = Long.compare(a.keys[i], b.keys[j]);
+            if (order < 0) {
+                i++;
+            } else if (order > 0) {
+                j++;
+            } else {
+                result.append(a.keys[i], combine(a.containers[i], b.containers[j], Operation.AND));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompactBitmap or(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap(Math.max(4, a.size + b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            int order = i == a.size ? 1 : j == b.size ? -1 : Long.compare(a.keys[i], b.keys[j]);
+            if (order < 0) {
+                result.append(a.keys[i], copyOf(a.containers[i]));
+                i++;
+            } else if (order > 0) {
+                result.append(b.keys[j], copyOf(b.containers[j]));
+                j++;
+            } else {
+                result.append(a.keys[i], combine(a.containers[i], b.containers[j], Operation.OR));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Les ids de a absents de b
+     */
+    public static CompactBitmap andNot(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap(Math.max(4, a.size));
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                result.append(a.keys[i], combine(a.containers[i], b.containers[j], Operation.AND_NOT));
+            } else {
+                result.append(a.keys[i], copyOf(a.containers[i]));
+            }
+        }
+        return result;
+    }
+
+    private enum Operation {
+        AND,
+        OR,
+        AND_NOT
+    }
+
+    /**
+     * Deux tableaux triés : fusion directe. Sinon les deux conteneurs sont vus comme des bitsets
+     * et combinés mot par mot ; le résultat redevient un tableau s'il est assez petit.
+     */
+    private static Object combine(Object a, Object b, Operation operation) {
+        if (a instanceof char[] left && b instanceof char[] right) {
+            return merge(left, right, operation);
+        }
+        long[] left = toWords(a);
+        long[] right = toWords(b);
+        long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = switch (operation) {
+                case AND -> left[i] & right[i];
+                case OR -> left[i] | right[i];
+                case AND_NOT -> left[i] & ~right[i];
+            };
+        }
+        return shrink(words);
+    }
+
+    private static char[] merge(char[] a, char[] b, Operation operation) {
+        char[] result = new char[operation == Operation.OR ? a.length + b.length : a.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            int order = i == a.length ? 1 : j == b.length ? -1 : Character.compare(a[i], b[j]);
+            if (order < 0) {
+                if (operation != Operation.AND) {
+                    result[count++] = a[i];
+                }
+                i++;
+            } else if (order > 0) {
+                if (operation == Operation.OR) {
+                    result[count++] = b[j];
+                }
+                j++;
+            } else {
+                if (operation != Operation.AND_NOT) {
+                    result[count++] = a[i];
+                }
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Object add(Object container, char low) {
+        if (container instanceof char[] values) {
+            int position = Arrays.binarySearch(values, low);
+            if (position >= 0) {
+                return values;
+            }
+            if (values.length == MAX_ARRAY_SIZE) {
+                long[] words = toWords(values);
+                words[low >>> 6] |= 1L << low;
+                return words;
+            }
+            position = -position - 1;
+            char[] grown = new char[values.length + 1];
+            System.arraycopy(values, 0, grown, 0, position);
+            grown[position] = low;
+            System.arraycopy(values, position, grown, position + 1, values.length - position);
+            return grown;
+        }
+        long[] words = (long[]) container;
+        words[low >>> 6] |= 1L << low;
+        return words;
+    }
+
+    private static Object remove(Object container, char low) {
+        if (container instanceof char[] values) {
+            int position = Arrays.binarySearch(values, low);
+            if (position < 0) {
+                return values;
+            }
+            char[] shrunk = new char[values.length - 1];
+            System.arraycopy(values, 0, shrunk, 0, position);
+            System.arraycopy(values, position + 1, shrunk, position, values.length - position - 1);
+            return shrunk;
+        }
+        long[] words = (long[]) container;
+        words[low >>> 6] &= ~(1L << low);
+        return shrink(words);
+    }
+
+    private static int cardinality(Object container) {
+        if (container instanceof char[] values) {
+            return values.length;
+        }
+        int count = 0;
+        for (long word : (long[]) container) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static long[] toWords(Object container) {
+        if (container instanceof long[] words) {
+            return words;
+        }
+        long[] words = new long[WORDS];
+        for (char low : (char[]) container) {
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    /**
+     * Bitset redevenu peu rempli : reconverti en tableau trié.
+     */
+    private static Object shrink(long[] words) {
+        int count = cardinality(words);
+        if (count > MAX_ARRAY_SIZE) {
+            return words;
+        }
+        char[] values = new char[count];
+        int position = 0;
+        for (int word = 0; word < WORDS; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                values[position++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    private static Object copyOf(Object container) {
+        return container instanceof char[] values ? values.clone() : ((long[]) container).clone();
+    }
+
+    private int indexOf(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    /**
+     * Ajout en fin (clés croissantes) pendant une opération ; un conteneur vide n'est pas gardé.
+     */
+    private void append(long key, Object container) {
+        if (cardinality(container) > 0) {
+            insert(size, key, container);
+        }
+    }
+
+    private void insert(int index, long key, Object container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+}
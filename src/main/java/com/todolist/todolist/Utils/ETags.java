@@ -0,0 +1,59 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import com.todolist.todolist.Exception.PreconditionFailedException;
+
+/**
+ * Conversion entre la version d'une entité (@Version) et les headers HTTP ETag / If-Match.
+ *
+ * ETag envoyé : "3" (version entre guillemets, ETag fort).
+ * If-Match accepté : "3", W/"3" ou * (n'importe quelle version).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Extrait la version attendue du header If-Match.
+     *
+     * @param ifMatch La valeur du header (peut être null)
+     * @return La version attendue, ou null si le header est absent ou vaut *
+     * @throws BadRequestException 400 si le header n'est pas un ETag produit par l'API
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Header If-Match invalide: " + ifMatch);
+        }
+    }
+
+    /**
+     * Vérifie la version attendue par le client (If-Match) avant une modification.
+     *
+     * @throws PreconditionFailedException 412 si la ressource a été modifiée depuis la lecture du client
+     */
+    public static void checkVersion(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion == null ? 0L : currentVersion)) {
+            throw new PreconditionFailedException(
+                    "La ressource a été modifiée entre-temps (version actuelle : " + currentVersion + ")");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parsing du paramètre "fields=" (sparse fieldsets) des endpoints de liste.
+ *
+ * Exemple : GET /todos?fields=id,note,finalDate
+ * Le client ne reçoit que les champs demandés, et seules les colonnes correspondantes sont lues en base
+ * (projection SQL, voir TodoRepositoryImpl / UserRepositoryImpl).
+ */
+public final class FieldSelection {
+
+    public static final List<String> TODO_FIELDS = List.of("id", "description", "note", "finalDate", "recurrence", "tags", "rank", "createdAt", "user", "version");
+    public static final List<String> USER_FIELDS = List.of("id", "firstname", "lastname", "username", "email", "createdAt", "version");
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Valide et normalise la liste de champs demandés.
+     *
+     * Les champs sont renvoyés dans l'ordre des champs du DTO (et non dans l'ordre de la requête),
+     * pour que la réponse ait toujours la même forme que la réponse complète.
+     *
+     * @param fields La valeur brute du paramètre (ex : "id,note,finalDate")
+     * @param allowed Les champs autorisés, dans l'ordre du DTO
+     * @return Les champs demandés, sans doublon
+     * @throws RuntimeException si un champ est inconnu ou si la liste est vide
+     */
+    public static Set<String> parse(String fields, List<String> allowed) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Champ inconnu: " + name + " (champs possibles : " + String.join(",", allowed) + ")");
+            }
+            requested.add(name);
+        }
+
+        if (requested.isEmpty()) {
+            throw new BadRequestException("Le paramètre fields ne contient aucun champ");
+        }
+
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : allowed) {
+            if (requested.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        return ordered;
+    }
+}
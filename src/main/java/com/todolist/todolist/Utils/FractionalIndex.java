@@ -0,0 +1,178 @@
+package com.todolist.todolist.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clés de classement fractionnaires (todos.sort_rank) pour l'ordre manuel des todos.
+ *
+ * Une clé est une suite de chiffres en base 36 ("0-9a-z") lue comme la partie décimale d'un nombre
+ * entre 0 et 1 : "i" vaut 0,5 et "i8" un peu plus. L'ordre des nombres est celui des chaînes, ce qui permet
+ * un ORDER BY sort_rank directement sur l'index. Entre deux clés il en existe toujours une autre :
+ * déplacer un todo entre deux voisins ne modifie que la ligne du todo déplacé.
+ *
+ * Alphabet sans majuscules : la collation par défaut de MySQL ignore la casse, "A" et "a" y seraient égaux.
+ * Une clé ne se termine jamais par "0" ("i" et "i0" seraient le même nombre, sans clé possible entre les deux).
+ *
+ * Les clés s'allongent quand on insère souvent au même endroit (environ un caractère tous les cinq
+ * déplacements dans le même intervalle) ; spread() en redonne de courtes (voir TodoRankServiceImpl).
+ */
+public final class FractionalIndex {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    /**
+     * Ajout en fin (ou en tête) de liste : pas de 36^-4 sur les quatre premiers chiffres, soit
+     * 1,6 million d'ajouts successifs avant que les clés ne s'allongent.
+     */
+    private static final int STEP_DIGITS = 4;
+
+    /**
+     * Au plus 12 chiffres dans un long pour spread() (36^12 < 2^63).
+     */
+    private static final int MAX_SPREAD_DIGITS = 12;
+
+    private FractionalIndex() {
+    }
+
+    /**
+     * Clé strictement comprise entre before et after.
+     *
+     * @param before Clé précédente, ou null pour le début de la liste
+     * @param after Clé suivante, ou null pour la fin de la liste
+     * @throws IllegalArgumentException si before n'est pas strictement inférieure à after
+     */
+    public static String between(String before, String after) {
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Clés non ordonnées : " + before + " >= " + after);
+        }
+        if (before == null) {
+            return after == null ? "i" : decrement(after);
+        }
+        return after == null ? increment(before) : midpoint(before, after);
+    }
+
+    /**
+     * count clés croissantes et courtes, réparties entre lower et upper (null = borne de la liste).
+     * Sans bornes, elles occupent le milieu de l'espace [0,25 ; 0,75[ : il reste de la place des deux
+     * côtés pour les ajouts en tête et en fin.
+     */
+    public static List<String> spread(String lower, String upper, int count) {
+        List<String> keys = new ArrayList<>(count);
+        if (lower == null && upper == null) {
+            int digits = STEP_DIGITS;
+            long space = pow(digits);
+            while (space / 2 / (count + 1) < BASE * BASE && digits < MAX_SPREAD_DIGITS) {
+                digits++;
+                space *= BASE;
+            }
+            long step = Math.max(1, space / 2 / (count + 1));
+            for (int i = 1; i <= count; i++) {
+                keys.add(encode(space / 4 + i * step, digits));
+            }
+            return keys;
+        }
+        bisect(lower, upper, count, keys);
+        return keys;
+    }
+
+    /**
+     * Coupe l'intervalle en deux à chaque niveau : les clés gagnent environ un caractère
+     * tous les cinq niveaux, soit log2(count) / 5 caractères de plus que les bornes.
+     */
+    private static void bisect(String lower, String upper, int count, List<String> keys) {
+        if (count == 0) {
+            return;
+        }
+        String middle = between(lower, upper);
+        int left = (count - 1) / 2;
+        bisect(lower, middle, left, keys);
+        keys.add(middle);
+        bisect(middle, upper, count - 1 - left, keys);
+    }
+
+    /**
+     * Quatre premiers chiffres de key plus un pas : au plus quatre caractères tant qu'il reste de la place.
+     */
+    private static String increment(String key) {
+        char[] digits = prefix(key);
+        for (int i = STEP_DIGITS - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit < BASE - 1) {
+                digits[i] = DIGITS.charAt(digit + 1);
+                return new String(digits, 0, i + 1);
+            }
+        }
+        return midpoint(key, null);
+    }
+
+    private static String decrement(String key) {
+        char[] digits = prefix(key);
+        for (int i = STEP_DIGITS - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit > 0) {
+                digits[i] = DIGITS.charAt(digit - 1);
+                String decremented = stripZeros(new String(digits));
+                return decremented.isEmpty() ? midpoint("", key) : decremented;
+            }
+            digits[i] = DIGITS.charAt(BASE - 1);
+        }
+        return midpoint("", key);
+    }
+
+    /**
+     * Milieu de [lower, upper[ chiffre par chiffre ; upper null vaut 1. Quand deux chiffres voisins ne laissent
+     * pas de place, on garde celui de lower et on cherche au-delà de lower, sans borne supérieure.
+     */
+    private static String midpoint(String lower, String upper) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int low = i < lower.length() ? DIGITS.indexOf(lower.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? DIGITS.indexOf(upper.charAt(i)) : BASE;
+            if (low == high) {
+                key.append(DIGITS.charAt(low));
+                continue;
+            }
+            int middle = (low + high) / 2;
+            if (middle > low) {
+                return key.append(DIGITS.charAt(middle)).toString();
+            }
+            key.append(DIGITS.charAt(low));
+            upper = null;
+        }
+    }
+
+    private static char[] prefix(String key) {
+        char[] digits = new char[STEP_DIGITS];
+        for (int i = 0; i < STEP_DIGITS; i++) {
+            digits[i] = i < key.length() ? key.charAt(i) : '0';
+        }
+        return digits;
+    }
+
+    private static String encode(long value, int digits) {
+        char[] key = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            key[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return stripZeros(new String(key));
+    }
+
+    private static String stripZeros(String key) {
+        int end = key.length();
+        while (end > 0 && key.charAt(end - 1) == '0') {
+            end--;
+        }
+        return key.substring(0, end);
+    }
+
+    private static long pow(int digits) {
+        long value = 1;
+        for (int i = 0; i < digits; i++) {
+            value *= BASE;
+        }
+        return value;
+    }
+}
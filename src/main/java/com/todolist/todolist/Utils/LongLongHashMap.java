@@ -0,0 +1,270 @@
+package com.todolist.todolist.Utils;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Table de hachage long → long, thread-safe, sans objets (ni Long, ni Map.Entry).
+ *
+ * Pourquoi pas ConcurrentHashMap<Long, Long> ?
+ * - chaque get(...) avec une clé long alloue un Long (au-delà du cache -128..127)
+ * - chaque entrée coûte un nœud + deux Long (~64 octets) au lieu de 16 octets ici
+ *
+ * Structure : adressage ouvert, sondage linéaire, clés et valeurs entrelacées dans un seul tableau
+ * [clé0, valeur0, clé1, valeur1, ...]. La clé 0 marque une case vide, elle est donc stockée à part.
+ *
+ * Concurrence : StampedLock. Les lectures sont optimistes (aucun verrou pris, aucune écriture mémoire
+ * partagée) et ne sont refaites sous verrou que si une écriture a eu lieu pendant la lecture.
+ * Les écritures, rares dans nos usages, prennent le verrou exclusif.
+ *
+ * Suppression par décalage arrière (backward shift) : pas de "tombstones", une table qui voit
+ * beaucoup d'ajouts / suppressions ne se dégrade pas.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] table;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * Condition de suppression utilisée par removeIf.
+     */
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        this.table = new long[capacityFor(expectedSize) * 2];
+    }
+
+    /**
+     * @return La valeur associée à key, ou missing si la clé est absente
+     */
+    public long get(long key, long missing) {
+        long stamp = lock.tryOptimisticRead();
+        long value = find(key, missing);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(key, missing);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    public void put(long key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            insert(key, value, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Associe value à key sauf si la valeur actuelle est déjà plus grande (ex : date qui ne doit jamais reculer).
+     */
+    public void putIfGreater(long key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            insert(key, value, true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            if (key == EMPTY) {
+                if (hasZeroKey) {
+                    hasZeroKey = false;
+                    zeroValue = 0L;
+                    size--;
+                }
+                return;
+            }
+            int mask = mask(table);
+            int slot = slotOf(key, mask);
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = table[slot << 1];
+                if (current == key) {
+                    removeAt(slot);
+                    return;
+                }
+                if (current == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Supprime toutes les entrées qui vérifient predicate. La table est reconstruite avec les entrées
+     * conservées (une seule passe, pas de décalages successifs).
+     *
+     * @return Le nombre d'entrées supprimées
+     */
+    public int removeIf(EntryPredicate predicate) {
+        long stamp = lock.writeLock();
+        try {
+            int before = size;
+            long[] old = table;
+            table = new long[capacityFor(size) * 2];
+            size = 0;
+
+            if (hasZeroKey) {
+                size = 1;
+                if (predicate.test(EMPTY, zeroValue)) {
+                    hasZeroKey = false;
+                    zeroValue = 0L;
+                    size = 0;
+                }
+            }
+            for (int i = 0; i < old.length; i += 2) {
+                if (old[i] != EMPTY && !predicate.test(old[i], old[i + 1])) {
+                    insert(old[i], old[i + 1], false);
+                }
+            }
+            return before - size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Recherche sans verrou : peut lire un état incohérent pendant une écriture concurrente,
+     * ce que get() détecte avec validate() avant d'utiliser le résultat. Le nombre de sondages
+     * est borné pour qu'une lecture incohérente ne boucle jamais indéfiniment.
+     */
+    private long find(long key, long missing) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        long[] t = table;
+        int mask = mask(t);
+        int slot = slotOf(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long current = t[slot << 1];
+            if (current == key) {
+                return t[(slot << 1) + 1];
+            }
+            if (current == EMPTY) {
+                return missing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    private void insert(long key, long value, boolean onlyIfGreater) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                zeroValue = value;
+            } else if (!onlyIfGreater || value > zeroValue) {
+                zeroValue = value;
+            }
+            return;
+        }
+
+        int mask = mask(table);
+        int slot = slotOf(key, mask);
+        while (true) {
+            long current = table[slot << 1];
+            if (current == key) {
+                if (!onlyIfGreater || value > table[(slot << 1) + 1]) {
+                    table[(slot << 1) + 1] = value;
+                }
+                return;
+            }
+            if (current == EMPTY) {
+                table[slot << 1] = key;
+                table[(slot << 1) + 1] = value;
+                size++;
+                if (size * 2 > mask + 1) {
+                    resize();
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Décalage arrière : les entrées suivantes du même groupe sont remontées dans le trou
+     * si leur case idéale n'est pas située entre le trou et leur position actuelle.
+     */
+    private void removeAt(int slot) {
+        long[] t = table;
+        int mask = mask(t);
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (t[next << 1] != EMPTY) {
+            int ideal = slotOf(t[next << 1], mask);
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                t[gap << 1] = t[next << 1];
+                t[(gap << 1) + 1] = t[(next << 1) + 1];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        t[gap << 1] = EMPTY;
+        t[(gap << 1) + 1] = 0L;
+        size--;
+    }
+
+    private void resize() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        size = hasZeroKey ? 1 : 0;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != EMPTY) {
+                insert(old[i], old[i + 1], false);
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mask(long[] t) {
+        return (t.length >> 1) - 1;
+    }
+
+    /**
+     * Mélange des bits (constante de Fibonacci) : des ids séquentiels ne tombent pas dans des cases voisines.
+     */
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
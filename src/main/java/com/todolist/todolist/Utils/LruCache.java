@@ -0,0 +1,68 @@
+package com.todolist.todolist.Utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache mémoire borné, éviction de l'entrée la moins récemment lue (LRU).
+ * 
+ * LinkedHashMap en accessOrder=true déplace chaque entrée lue en fin de liste ;
+ * removeEldestEntry retire la plus ancienne dès que la capacité est dépassée.
+ * 
+ * Invalidation : clear() vide tout et incrémente une génération. Un lecteur note la génération
+ * avant d'interroger la base, puis appelle put(key, value, generation) : si une modification
+ * a eu lieu entre-temps, sa valeur (peut-être périmée) n'est pas mise en cache.
+ * 
+ * Cache local au nœud : avec plusieurs instances, c'est à l'appelant de le vider quand une modification
+ * est faite ailleurs (voir LocalCache et InvalidationBus).
+ */
+public class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private long generation;
+
+    public LruCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param generation La valeur de generation() lue avant de calculer value
+     */
+    public synchronized void put(K key, V value, long generation) {
+        if (this.generation == generation) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Copie des clés présentes (sans modifier l'ordre LRU), pour un parcours hors du verrou.
+     */
+    public synchronized List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+        generation++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+    }
+}
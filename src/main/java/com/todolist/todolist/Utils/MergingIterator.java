@@ -0,0 +1,59 @@
+package com.todolist.todolist.Utils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Fusion de plusieurs itérateurs déjà triés en un seul itérateur trié (k-way merge).
+ *
+ * Un tas contient l'élément courant de chaque source : next() renvoie le plus petit et lit l'élément
+ * suivant de la même source seulement. Les sources peuvent être infinies (occurrences d'une série
+ * récurrente) : rien n'est lu à l'avance au-delà d'un élément par source.
+ */
+public final class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> comparator.compare(a.value, b.value));
+        for (Iterator<? extends T> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        T value = head.value;
+        if (head.source.hasNext()) {
+            head.value = head.source.next();
+            heads.add(head);
+        }
+        return value;
+    }
+
+    private static final class Head<T> {
+
+        T value;
+        final Iterator<? extends T> source;
+
+        Head(T value, Iterator<? extends T> source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.todolist.todolist.Utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * File bornée plusieurs producteurs / un seul consommateur (MPSC), sans verrou.
+ *
+ * Les cases sont des objets créés une fois pour toutes (factory) et réutilisés : le producteur
+ * remplit la case qu'il a réservée au lieu d'allouer un nouvel objet par message.
+ *
+ * Algorithme (file bornée de D. Vyukov) : chaque case a un numéro de séquence.
+ * - case libre pour la position p : séquence == p
+ * - case publiée (lisible) pour la position p : séquence == p + 1
+ * - après lecture, le consommateur la rend libre pour le tour suivant : séquence == p + capacité
+ *
+ * Producteur : claim() réserve une position par CAS sur tail (échoue si la file est pleine),
+ * il remplit get(position), puis publish(position). Consommateur : drain(...) lit dans l'ordre
+ * les cases publiées. Une case réservée mais pas encore publiée bloque la lecture des suivantes
+ * jusqu'à sa publication (l'ordre est conservé).
+ */
+public final class MpscRingBuffer<E> {
+
+    public static final long FULL = -1L;
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Écrit uniquement par le consommateur, volatile pour que size() soit lisible par d'autres threads.
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity Arrondie à la puissance de 2 supérieure
+     */
+    public MpscRingBuffer(int capacity, Supplier<E> factory) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Réserve la prochaine case.
+     *
+     * @return La position réservée, ou FULL si la file est pleine
+     */
+    public long claim() {
+        long position = tail.get();
+        while (true) {
+            long sequence = sequences.getAcquire((int) (position & mask));
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return FULL;
+            } else {
+                // Un autre producteur a pris cette position entre-temps
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long position) {
+        return (E) slots[(int) (position & mask)];
+    }
+
+    /**
+     * Rend la case lisible par le consommateur. Les écritures faites dans la case avant cet appel
+     * lui sont visibles (écriture "release" de la séquence, lecture "acquire" dans drain).
+     */
+    public void publish(long position) {
+        sequences.setRelease((int) (position & mask), position + 1);
+    }
+
+    /**
+     * Lit jusqu'à max cases publiées, dans l'ordre. À n'appeler que depuis le thread consommateur.
+     * La case n'est rendue aux producteurs qu'après handler : il peut la lire sans copie.
+     *
+     * @return Le nombre de cases lues
+     */
+    public int drain(Consumer<E> handler, int max) {
+        long position = head;
+        int count = 0;
+        while (count < max) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            handler.accept(get(position));
+            sequences.setRelease(index, position + slots.length);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * @return Le nombre approximatif de cases réservées et pas encore lues
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,68 @@
+package com.todolist.todolist.Utils;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log INFO limité à maxPerMinute messages par minute et par clé (ex : type d'exception).
+ *
+ * Au-delà, les messages sont seulement comptés ; le premier message de la minute suivante indique
+ * combien ont été ignorés. Une rafale de 404 (scanner d'ids) produit donc au plus quelques lignes
+ * par minute au lieu d'une par requête.
+ *
+ * Sans verrou : un compteur par clé, remis à zéro par CAS au changement de fenêtre. Au moment précis
+ * du changement, un ou deux messages de plus peuvent passer, ce qui est sans importance ici.
+ */
+public final class RateLimitedLogger {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger logger;
+    private final int maxPerMinute;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger logger, int maxPerMinute) {
+        this.logger = logger;
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    /**
+     * @param key Clé de limitation, en nombre borné (jamais une valeur envoyée par le client)
+     */
+    public void info(String key, String format, Object... arguments) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        Window window = windows.computeIfAbsent(key, k -> new Window(System.nanoTime()));
+
+        long now = System.nanoTime();
+        long start = window.start.get();
+        if (now - start >= WINDOW_NANOS && window.start.compareAndSet(start, now)) {
+            window.count.set(0);
+            int suppressed = window.suppressed.getAndSet(0);
+            if (suppressed > 0) {
+                logger.info("{} : {} messages ignorés pendant la dernière minute", key, suppressed);
+            }
+        }
+
+        if (window.count.incrementAndGet() <= maxPerMinute) {
+            logger.info(format, arguments);
+        } else {
+            window.suppressed.incrementAndGet();
+        }
+    }
+
+    private static final class Window {
+        final AtomicLong start;
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicInteger suppressed = new AtomicInteger();
+
+        Window(long start) {
+            this.start = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Règle de récurrence d'un todo : sous-ensemble de RRULE (RFC 5545), la première occurrence étant finalDate.
+ *
+ * Syntaxe acceptée (insensible à la casse, ordre libre) :
+ * - "DAILY", "WEEKLY", "MONTHLY" : raccourcis de FREQ=...;INTERVAL=1
+ * - FREQ=DAILY|WEEKLY|MONTHLY (obligatoire)
+ * - INTERVAL=n : toutes les n périodes (1 par défaut)
+ * - BYDAY=MO,WE,FR : jours de la semaine, WEEKLY seulement (par défaut le jour de finalDate)
+ * - COUNT=n : nombre total d'occurrences, la première comprise
+ * - UNTIL=yyyyMMdd : dernier jour possible (inclus) ; COUNT et UNTIL sont exclusifs
+ *
+ * MONTHLY garde le jour du mois de finalDate ; comme dans la RFC, un mois sans ce jour (31, 30, 29 février)
+ * n'a pas d'occurrence.
+ *
+ * Les occurrences ne sont jamais stockées : iterator() les calcule une à une, en sautant directement
+ * à la période qui contient le début de la plage demandée (pas de parcours depuis finalDate).
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    public static final int MAX_INTERVAL = 999;
+    public static final int MAX_COUNT = 10_000;
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final List<String> DAY_CODES = List.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final int count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, int count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * @throws BadRequestException si la règle est invalide ou hors du sous-ensemble accepté
+     */
+    public static RecurrenceRule parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw invalid("règle vide");
+        }
+        String rule = value.trim().toUpperCase(Locale.ROOT);
+        if (rule.startsWith("RRULE:")) {
+            rule = rule.substring("RRULE:".length());
+        }
+        if (!rule.contains("=")) {
+            rule = "FREQ=" + rule;
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        int count = 0;
+        LocalDate until = null;
+
+        for (String part : rule.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator <= 0) {
+                throw invalid("partie \"" + part + "\" sans valeur");
+            }
+            String name = part.substring(0, separator);
+            String argument = part.substring(separator + 1);
+            switch (name) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(argument);
+                    } catch (IllegalArgumentException e) {
+                        throw invalid("FREQ doit valoir DAILY, WEEKLY ou MONTHLY");
+                    }
+                }
+                case "INTERVAL" -> interval = parseInt(name, argument, MAX_INTERVAL);
+                case "COUNT" -> count = parseInt(name, argument, MAX_COUNT);
+                case "UNTIL" -> {
+                    try {
+                        until = LocalDate.parse(argument, UNTIL_FORMAT);
+                    } catch (DateTimeParseException e) {
+                        throw invalid("UNTIL doit respecter le format yyyyMMdd");
+                    }
+                }
+                case "BYDAY" -> {
+                    for (String day : argument.split(",")) {
+                        int index = DAY_CODES.indexOf(day);
+                        if (index < 0) {
+                            throw invalid("BYDAY accepte MO, TU, WE, TH, FR, SA, SU");
+                        }
+                        byDay.add(DayOfWeek.of(index + 1));
+                    }
+                }
+                default -> throw invalid("partie " + name + " non prise en charge");
+            }
+        }
+
+        if (frequency == null) {
+            throw invalid("FREQ est obligatoire");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw invalid("BYDAY n'est accepté qu'avec FREQ=WEEKLY");
+        }
+        if (count > 0 && until != null) {
+            throw invalid("COUNT et UNTIL ne peuvent pas être utilisés ensemble");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Occurrences de la série commencée à start, à partir de from (inclus), dans l'ordre chronologique.
+     * L'itérateur est infini sans COUNT ni UNTIL : c'est à l'appelant de s'arrêter à la fin de sa plage.
+     */
+    public Iterator<LocalDateTime> iterator(LocalDateTime start, LocalDateTime from) {
+        return switch (frequency) {
+            case DAILY -> new PeriodIterator(start, from, ChronoUnit.DAYS, 1);
+            case MONTHLY -> new PeriodIterator(start, from, ChronoUnit.MONTHS, 1);
+            case WEEKLY -> new PeriodIterator(start, from, ChronoUnit.WEEKS, daysOf(start).size());
+        };
+    }
+
+    /**
+     * @return true si date est une occurrence de la série commencée à start
+     */
+    public boolean isOccurrence(LocalDateTime start, LocalDateTime date) {
+        Iterator<LocalDateTime> occurrences = iterator(start, date);
+        return occurrences.hasNext() && occurrences.next().equals(date);
+    }
+
+    /**
+     * Forme normalisée, enregistrée dans todos.recurrence (ex : "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH").
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=");
+            String separator = "";
+            for (DayOfWeek day : byDay) {
+                rule.append(separator).append(DAY_CODES.get(day.getValue() - 1));
+                separator = ",";
+            }
+        }
+        if (count > 0) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return rule.toString();
+    }
+
+    private Set<DayOfWeek> daysOf(LocalDateTime start) {
+        return byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay;
+    }
+
+    private static int parseInt(String name, String argument, int max) {
+        try {
+            int value = Integer.parseInt(argument);
+            if (value >= 1 && value <= max) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // message commun ci-dessous
+        }
+        throw invalid(name + " doit être un entier entre 1 et " + max);
+    }
+
+    private static BadRequestException invalid(String reason) {
+        return new BadRequestException("Récurrence invalide : " + reason);
+    }
+
+    /**
+     * Parcourt les périodes (jours, semaines ou mois) retenues par INTERVAL, à partir de celle qui précède from.
+     *
+     * Chaque période a perPeriod occurrences (BYDAY en WEEKLY, 1 sinon), ce qui donne directement le rang
+     * de la première occurrence visitée pour COUNT. Seule exception : la première semaine, dont les jours
+     * antérieurs à start ne comptent pas (voir firstWeekCount), et les mois sautés de MONTHLY (voir skippedMonths).
+     */
+    private final class PeriodIterator implements Iterator<LocalDateTime> {
+
+        private final LocalDateTime start;
+        private final LocalDateTime from;
+        private final ChronoUnit unit;
+        private final LocalDateTime origin;
+        private final DayOfWeek[] days;
+
+        private long period;
+        private int dayIndex;
+        private long rank;
+        private LocalDateTime next;
+
+        PeriodIterator(LocalDateTime start, LocalDateTime from, ChronoUnit unit, int perPeriod) {
+            this.start = start;
+            this.from = from;
+            this.unit = unit;
+            this.days = unit == ChronoUnit.WEEKS ? daysOf(start).toArray(new DayOfWeek[0]) : null;
+            this.origin = unit == ChronoUnit.WEEKS
+                    ? start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : start;
+
+            // Période précédant from (arrondie à un multiple d'INTERVAL) : inutile de parcourir celles d'avant
+            long skip = from.isAfter(start) ? Math.max(0, unit.between(origin, from) - 1) : 0;
+            this.period = skip - skip % interval;
+            this.rank = rankAt(period, perPeriod);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime current = next;
+            advance();
+            return current;
+        }
+
+        /**
+         * Nombre d'occurrences des périodes antérieures à period.
+         */
+        private long rankAt(long period, int perPeriod) {
+            if (period == 0) {
+                return 0;
+            }
+            long periods = period / interval;
+            if (unit == ChronoUnit.WEEKS) {
+                return firstWeekCount() + (periods - 1) * perPeriod;
+            }
+            if (unit == ChronoUnit.MONTHS) {
+                return periods - skippedMonths(period);
+            }
+            return periods;
+        }
+
+        private long firstWeekCount() {
+            long count = 0;
+            for (DayOfWeek day : days) {
+                if (day.compareTo(start.getDayOfWeek()) >= 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Mois retenus avant period qui n'ont pas le jour de start (au plus 12 tests par an parcouru).
+         */
+        private long skippedMonths(long period) {
+            long skipped = 0;
+            for (long month = interval; month < period; month += interval) {
+                if (!hasDay(month)) {
+                    skipped++;
+                }
+            }
+            return skipped;
+        }
+
+        private boolean hasDay(long month) {
+            return start.plusMonths(month).getDayOfMonth() == start.getDayOfMonth();
+        }
+
+        private void advance() {
+            while (true) {
+                if (count > 0 && rank >= count) {
+                    next = null;
+                    return;
+                }
+                LocalDateTime candidate = candidate();
+                if (candidate == null) {
+                    continue;
+                }
+                if (until != null && candidate.toLocalDate().isAfter(until)) {
+                    next = null;
+                    return;
+                }
+                if (candidate.isBefore(start)) {
+                    continue;
+                }
+                rank++;
+                if (!candidate.isBefore(from)) {
+                    next = candidate;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Occurrence suivante du parcours, ou null si la période n'en a pas (mois sans ce jour) ;
+         * la position (period, dayIndex) avance dans tous les cas.
+         */
+        private LocalDateTime candidate() {
+            switch (unit) {
+                case WEEKS -> {
+                    LocalDateTime date = origin.plusWeeks(period)
+                            .plusDays(days[dayIndex].getValue() - 1)
+                            .with(start.toLocalTime());
+                    if (++dayIndex == days.length) {
+                        dayIndex = 0;
+                        period += interval;
+                    }
+                    return date;
+                }
+                case MONTHS -> {
+                    long month = period;
+                    period += interval;
+                    return hasDay(month) ? start.plusMonths(month) : null;
+                }
+                default -> {
+                    LocalDateTime date = start.plusDays(period);
+                    period += interval;
+                    return date;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des noms d'étiquettes : espaces retirés, minuscules, lettres / chiffres / "_" / "-".
+ * "Travail" et " travail " désignent la même étiquette.
+ *
+ * Un nom ne commence pas par "-" : dans le filtre GET /todos?tags=, "-nom" signifie "sans cette étiquette".
+ */
+public final class TagNames {
+
+    public static final int MAX_LENGTH = 50;
+    public static final int MAX_PER_TODO = 20;
+
+    private static final Pattern VALID = Pattern.compile("[\\p{L}\\p{N}_][\\p{L}\\p{N}_-]*");
+
+    private TagNames() {
+    }
+
+    /**
+     * @return Les noms normalisés, sans doublon, triés
+     * @throws BadRequestException si un nom est invalide ou s'il y en a plus de MAX_PER_TODO
+     */
+    public static Set<String> normalize(Collection<String> names) {
+        Set<String> normalized = new TreeSet<>();
+        for (String name : names) {
+            normalized.add(normalize(name));
+        }
+        if (normalized.size() > MAX_PER_TODO) {
+            throw new BadRequestException("Un todo a au plus " + MAX_PER_TODO + " étiquettes");
+        }
+        return normalized;
+    }
+
+    public static String normalize(String name) {
+        String normalized = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || normalized.length() > MAX_LENGTH || !VALID.matcher(normalized).matches()) {
+            throw new BadRequestException("Étiquette invalide : \"" + name + "\" (1 à " + MAX_LENGTH
+                    + " lettres, chiffres, _ ou -, sans - au début)");
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,30 @@
+package com.todolist.todolist.Utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Effets de bord en mémoire (caches, index, compteurs) qui ne doivent suivre que des écritures validées.
+ */
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Exécute action après le commit de la transaction en cours, ou tout de suite s'il n'y en a pas.
+     * Rien n'est exécuté si la transaction est annulée.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
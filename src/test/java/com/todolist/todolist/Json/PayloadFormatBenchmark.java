@@ -0,0 +1,64 @@
+package com.todolist.todolist.Json;
+
+import com.todolist.todolist.Json.Todo.BasicTodo;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparaison JSON / CBOR / Smile pour une réponse de GET /todos : taille du payload,
+ * temps d'encodage et de décodage, sur plusieurs tailles de liste réalistes.
+ *
+ * Ce n'est pas un test JUnit (pas exécuté par mvn test). Lancement :
+ * mvn -q test-compile exec:java -Dexec.mainClass=com.todolist.todolist.Json.PayloadFormatBenchmark \
+ *     -Dexec.classpathScope=test
+ */
+public class PayloadFormatBenchmark {
+
+    private static final int[] LIST_SIZES = {20, 200, 2000};
+    private static final int WARMUP_ROUNDS = 300;
+    private static final int MEASURED_ROUNDS = 300;
+
+    private static final TypeReference<List<BasicTodo>> TODO_LIST = new TypeReference<>() {
+    };
+
+    public static void main(String[] args) {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", JsonMapper.builder().build());
+        mappers.put("cbor", CBORMapper.builder().build());
+        mappers.put("smile", SmileMapper.builder().build());
+
+        System.out.printf("%-6s %-6s %10s %12s %12s%n", "items", "format", "octets", "encode ms", "decode ms");
+        for (int size : LIST_SIZES) {
+            List<BasicTodo> todos = TodoSerializationBenchmark.sampleTodos(size);
+            for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+                ObjectMapper mapper = entry.getValue();
+                byte[] payload = mapper.writeValueAsBytes(todos);
+
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    mapper.readValue(mapper.writeValueAsBytes(todos), TODO_LIST);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    mapper.writeValueAsBytes(todos);
+                }
+                double encodeMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    mapper.readValue(payload, TODO_LIST);
+                }
+                double decodeMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+
+                System.out.printf("%-6d %-6s %10d %12.3f %12.3f%n", size, entry.getKey(), payload.length, encodeMs, decodeMs);
+            }
+        }
+    }
+}
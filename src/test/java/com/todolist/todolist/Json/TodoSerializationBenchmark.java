@@ -0,0 +1,115 @@
+package com.todolist.todolist.Json;
+
+import com.todolist.todolist.Json.Todo.BasicTodo;
+import com.todolist.todolist.Json.User.BasicUser;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark de la sérialisation de List<BasicTodo> (GET /todos).
+ *
+ * Compare :
+ * - "default" : BeanSerializer réflexif de Jackson (les @JsonSerialize sont neutralisés par un mix-in)
+ * - "tuned"   : BasicTodoSerializer / BasicUserSerializer
+ *
+ * Ce n'est pas un test JUnit (pas exécuté par mvn test). Lancement :
+ * mvn -q test-compile exec:java -Dexec.mainClass=com.todolist.todolist.Json.TodoSerializationBenchmark \
+ *     -Dexec.classpathScope=test -Dexec.args="5000"
+ *
+ * Le benchmark vérifie d'abord que les deux chemins produisent exactement le même JSON.
+ */
+public class TodoSerializationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    @JsonSerialize(using = ValueSerializer.None.class)
+    private abstract static class DefaultSerialization {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        List<BasicTodo> todos = sampleTodos(size);
+
+        ObjectWriter tuned = JsonMapper.builder().build().writer();
+        ObjectWriter reflective = JsonMapper.builder()
+                .addMixIn(BasicTodo.class, DefaultSerialization.class)
+                .addMixIn(BasicUser.class, DefaultSerialization.class)
+                .build()
+                .writer();
+
+        byte[] tunedJson = tuned.writeValueAsBytes(todos);
+        byte[] defaultJson = reflective.writeValueAsBytes(todos);
+        if (!Arrays.equals(tunedJson, defaultJson)) {
+            throw new IllegalStateException("Les deux sérialiseurs ne produisent pas le même JSON");
+        }
+
+        System.out.printf("Liste de %d todos, %d octets de JSON%n", size, tunedJson.length);
+        double defaultOps = measure("default", reflective, todos);
+        double tunedOps = measure("tuned", tuned, todos);
+        System.out.printf("Gain : x%.2f%n", tunedOps / defaultOps);
+    }
+
+    /**
+     * @return Le débit en listes sérialisées par seconde
+     */
+    private static double measure(String name, ObjectWriter writer, List<BasicTodo> todos) {
+        // Flux qui ignore les octets et ne se ferme jamais (writeValue ferme le flux à chaque appel)
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            writer.writeValue(sink, todos);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            writer.writeValue(sink, todos);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double opsPerSecond = MEASURED_ROUNDS / (elapsed / 1_000_000_000.0);
+        System.out.printf("%-8s %10.1f listes/s  %8.3f ms/liste%n", name, opsPerSecond, elapsed / 1_000_000.0 / MEASURED_ROUNDS);
+        return opsPerSecond;
+    }
+
+    static List<BasicTodo> sampleTodos(int size) {
+        LocalDateTime userCreatedAt = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+        BasicUser owner = new BasicUser(42L, "Ada", "Lovelace", "ada", "ada@example.com", userCreatedAt, 3L);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 5, 18, 30, 0);
+
+        List<BasicTodo> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Le converter crée un BasicUser par todo à partir du même User : même date, objets distincts
+            BasicUser user = new BasicUser(owner.getId(), owner.getFirstname(), owner.getLastname(),
+                    owner.getUsername(), owner.getEmail(), owner.getCreatedAt(), owner.getVersion());
+            todos.add(new BasicTodo(
+                    (long) i + 1,
+                    i % 3 == 0 ? null : "Description du todo n°" + i + " avec un \"peu\" de texte",
+                    "Note " + i,
+                    base.plusHours(i).plusNanos(i % 7 == 0 ? 0 : i * 1_000_000L),
+                    i % 4 == 0 ? "FREQ=WEEKLY;BYDAY=MO,TH" : null,
+                    i % 2 == 0 ? List.of() : List.of("travail", "urgent"),
+                    i % 5 == 0 ? null : "i" + Integer.toString(i, 36),
+                    base.minusDays(i % 30).plusSeconds(i),
+                    user,
+                    (long) i % 5
+            ));
+        }
+        return todos;
+    }
+}
@@ -0,0 +1,102 @@
+package com.todolist.todolist.Service.Impl;
+
+import com.todolist.todolist.Entity.Todo;
+import com.todolist.todolist.Entity.TodoOccurrence;
+import com.todolist.todolist.Json.Todo.AgendaItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OccurrenceIteratorTest {
+
+    @Test
+    void listsOccurrencesOfTheRangeOnly() {
+        Todo todo = todo("FREQ=DAILY", LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        List<AgendaItem> items = agenda(todo, LocalDateTime.of(2025, 1, 3, 0, 0), LocalDateTime.of(2025, 1, 6, 0, 0), Map.of());
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 3, 9, 0),
+                LocalDateTime.of(2025, 1, 4, 9, 0),
+                LocalDateTime.of(2025, 1, 5, 9, 0)
+        ), items.stream().map(AgendaItem::getOccurrenceDate).toList());
+    }
+
+    @Test
+    void appliesExceptions() {
+        Todo todo = todo("FREQ=DAILY", LocalDateTime.of(2025, 1, 1, 9, 0));
+        TodoOccurrence completed = occurrence(todo, LocalDateTime.of(2025, 1, 2, 9, 0));
+        completed.setCompletedAt(LocalDateTime.of(2025, 1, 2, 10, 0));
+        TodoOccurrence cancelled = occurrence(todo, LocalDateTime.of(2025, 1, 3, 9, 0));
+        cancelled.setCancelled(true);
+        // Déplacée : sautée ici, TodoServiceImpl l'ajoute à sa nouvelle date
+        TodoOccurrence moved = occurrence(todo, LocalDateTime.of(2025, 1, 4, 9, 0));
+        moved.setFinalDate(LocalDateTime.of(2025, 1, 10, 9, 0));
+
+        List<AgendaItem> items = agenda(todo, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 6, 0, 0), Map.of(
+                completed.getOccurrenceDate(), completed,
+                cancelled.getOccurrenceDate(), cancelled,
+                moved.getOccurrenceDate(), moved
+        ));
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 1, 9, 0),
+                LocalDateTime.of(2025, 1, 2, 9, 0),
+                LocalDateTime.of(2025, 1, 5, 9, 0)
+        ), items.stream().map(AgendaItem::getOccurrenceDate).toList());
+        assertEquals(List.of(false, true, false), items.stream().map(AgendaItem::isCompleted).toList());
+    }
+
+    @Test
+    void monthlyCountWithSkippedMonths() {
+        // COUNT=4 depuis le 31/01 : 31/01, 31/03, 31/05, 31/07 ; rien en août même s'il a un 31
+        Todo todo = todo("FREQ=MONTHLY;COUNT=4", LocalDateTime.of(2025, 1, 31, 9, 0));
+
+        List<AgendaItem> items = agenda(todo, LocalDateTime.of(2025, 5, 1, 0, 0), LocalDateTime.of(2025, 12, 1, 0, 0), Map.of());
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 5, 31, 9, 0),
+                LocalDateTime.of(2025, 7, 31, 9, 0)
+        ), items.stream().map(AgendaItem::getOccurrenceDate).toList());
+    }
+
+    @Test
+    void weeklyCountWithPartialFirstWeek() {
+        // Début un vendredi avec BYDAY=MO,FR et COUNT=3 : 03/01, 06/01, 10/01
+        Todo todo = todo("FREQ=WEEKLY;BYDAY=MO,FR;COUNT=3", LocalDateTime.of(2025, 1, 3, 18, 0));
+
+        List<AgendaItem> items = agenda(todo, LocalDateTime.of(2025, 1, 6, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0), Map.of());
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 6, 18, 0),
+                LocalDateTime.of(2025, 1, 10, 18, 0)
+        ), items.stream().map(AgendaItem::getOccurrenceDate).toList());
+    }
+
+    private static List<AgendaItem> agenda(Todo todo, LocalDateTime from, LocalDateTime to, Map<LocalDateTime, TodoOccurrence> exceptions) {
+        List<AgendaItem> items = new ArrayList<>();
+        new OccurrenceIterator(todo, from, to, exceptions).forEachRemaining(items::add);
+        return items;
+    }
+
+    private static Todo todo(String recurrence, LocalDateTime finalDate) {
+        Todo todo = new Todo();
+        todo.setId(1L);
+        todo.setNote("Réunion");
+        todo.setRecurrence(recurrence);
+        todo.setFinalDate(finalDate);
+        return todo;
+    }
+
+    private static TodoOccurrence occurrence(Todo todo, LocalDateTime date) {
+        TodoOccurrence occurrence = new TodoOccurrence();
+        occurrence.setTodo(todo);
+        occurrence.setOccurrenceDate(date);
+        return occurrence;
+    }
+}
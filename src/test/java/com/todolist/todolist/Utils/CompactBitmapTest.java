@@ -0,0 +1,142 @@
+package com.todolist.todolist.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactBitmapTest {
+
+    private static final long CONTAINER = 1L << 16;
+
+    @Test
+    void addRemoveContainsAcrossContainers() {
+        CompactBitmap bitmap = new CompactBitmap();
+        long[] ids = {0, 1, CONTAINER - 1, CONTAINER, 5 * CONTAINER + 7, 1L << 40};
+        for (long id : ids) {
+            bitmap.add(id);
+        }
+        bitmap.add(1);
+
+        assertArrayEquals(ids, bitmap.toArray());
+        assertEquals(ids.length, bitmap.cardinality());
+        assertTrue(bitmap.contains(CONTAINER));
+        assertFalse(bitmap.contains(CONTAINER + 1));
+
+        bitmap.remove(CONTAINER);
+        bitmap.remove(CONTAINER + 1);
+        assertFalse(bitmap.contains(CONTAINER));
+        assertArrayEquals(new long[]{0, 1, CONTAINER - 1, 5 * CONTAINER + 7, 1L << 40}, bitmap.toArray());
+
+        for (long id : ids) {
+            bitmap.remove(id);
+        }
+        assertTrue(bitmap.isEmpty());
+    }
+
+    /**
+     * Passage tableau → bitset au-delà de 4096 valeurs dans une tranche, et retour au tableau.
+     */
+    @Test
+    void denseContainerConvertsBothWays() {
+        CompactBitmap bitmap = new CompactBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long id = CONTAINER; id < CONTAINER + 10_000; id += 2) {
+            bitmap.add(id);
+            expected.add(id);
+        }
+        assertContent(expected, bitmap);
+
+        for (long id = CONTAINER; id < CONTAINER + 9_000; id += 2) {
+            bitmap.remove(id);
+            expected.remove(id);
+        }
+        assertContent(expected, bitmap);
+    }
+
+    @Test
+    void operationsOnSparseAndDenseContainers() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            TreeSet<Long> left = new TreeSet<>();
+            TreeSet<Long> right = new TreeSet<>();
+            CompactBitmap a = randomBitmap(random, left);
+            CompactBitmap b = randomBitmap(random, right);
+
+            TreeSet<Long> union = new TreeSet<>(left);
+            union.addAll(right);
+            TreeSet<Long> intersection = new TreeSet<>(left);
+            intersection.retainAll(right);
+            TreeSet<Long> difference = new TreeSet<>(left);
+            difference.removeAll(right);
+
+            assertContent(union, CompactBitmap.or(a, b));
+            assertContent(intersection, CompactBitmap.and(a, b));
+            assertContent(difference, CompactBitmap.andNot(a, b));
+
+            // Les opérations ne modifient pas leurs arguments
+            assertContent(left, a);
+            assertContent(right, b);
+        }
+    }
+
+    @Test
+    void operationsWithEmptyBitmap() {
+        CompactBitmap empty = new CompactBitmap();
+        CompactBitmap bitmap = new CompactBitmap();
+        bitmap.add(3);
+        bitmap.add(2 * CONTAINER);
+
+        assertArrayEquals(bitmap.toArray(), CompactBitmap.or(empty, bitmap).toArray());
+        assertTrue(CompactBitmap.and(empty, bitmap).isEmpty());
+        assertTrue(CompactBitmap.andNot(empty, bitmap).isEmpty());
+        assertArrayEquals(bitmap.toArray(), CompactBitmap.andNot(bitmap, empty).toArray());
+        assertTrue(CompactBitmap.andNot(bitmap, bitmap).isEmpty());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (long id = 0; id < 5000; id++) {
+            bitmap.add(id);
+        }
+        CompactBitmap copy = bitmap.copy();
+        copy.remove(10);
+        copy.add(CONTAINER);
+
+        assertTrue(bitmap.contains(10));
+        assertFalse(bitmap.contains(CONTAINER));
+        assertEquals(5000, bitmap.cardinality());
+        assertEquals(5000, copy.cardinality());
+    }
+
+    /**
+     * Ids répartis sur quatre tranches, certaines peu remplies (tableau), d'autres denses (bitset).
+     */
+    private static CompactBitmap randomBitmap(Random random, TreeSet<Long> ids) {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int container = 0; container < 4; container++) {
+            if (random.nextInt(4) == 0) {
+                continue;
+            }
+            int count = random.nextBoolean() ? random.nextInt(200) : 3000 + random.nextInt(20_000);
+            for (int i = 0; i < count; i++) {
+                long id = container * CONTAINER + random.nextInt((int) CONTAINER);
+                bitmap.add(id);
+                ids.add(id);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertContent(TreeSet<Long> expected, CompactBitmap actual) {
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), actual.toArray());
+        assertEquals(expected.size(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+    }
+}
@@ -0,0 +1,34 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldSelectionTest {
+
+    @Test
+    void fieldsFollowTheDtoOrder() {
+        assertEquals(List.of("id", "note", "tags", "version"),
+                List.copyOf(FieldSelection.parse("version, tags,note,id,note", FieldSelection.TODO_FIELDS)));
+        assertEquals(List.of("id", "username"),
+                List.copyOf(FieldSelection.parse("username,id", FieldSelection.USER_FIELDS)));
+    }
+
+    @Test
+    void everyTodoFieldCanBeSelected() {
+        for (String field : List.of("id", "description", "note", "finalDate", "recurrence", "tags", "rank", "createdAt", "user", "version")) {
+            assertEquals(List.of(field), List.copyOf(FieldSelection.parse(field, FieldSelection.TODO_FIELDS)));
+        }
+    }
+
+    @Test
+    void rejectsUnknownOrEmptySelections() {
+        assertThrows(BadRequestException.class, () -> FieldSelection.parse("id,password", FieldSelection.USER_FIELDS));
+        assertThrows(BadRequestException.class, () -> FieldSelection.parse("tags", FieldSelection.USER_FIELDS));
+        assertThrows(BadRequestException.class, () -> FieldSelection.parse(" , ", FieldSelection.TODO_FIELDS));
+    }
+}
@@ -0,0 +1,135 @@
+package com.todolist.todolist.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FractionalIndexTest {
+
+    @Test
+    void betweenWithoutBounds() {
+        assertEquals("i", FractionalIndex.between(null, null));
+        assertEquals("i001", FractionalIndex.between("i", null));
+        assertEquals("hzzz", FractionalIndex.between(null, "i"));
+    }
+
+    @Test
+    void betweenIsStrictlyInside() {
+        String[][] pairs = {
+                {"a", "b"}, {"a", "a1"}, {"az", "b"}, {"hzzz", "i"}, {"i", "i001"}, {"0001", "0002"}, {"y", "z"}, {"zz", "zzz"}
+        };
+        for (String[] pair : pairs) {
+            assertStrictlyBetween(pair[0], FractionalIndex.between(pair[0], pair[1]), pair[1]);
+        }
+        assertStrictlyBetween("zzzz", FractionalIndex.between("zzzz", null), null);
+    }
+
+    /**
+     * Insertions au hasard dans une liste triée, dont des séries au même endroit (clés qui s'allongent).
+     */
+    @Test
+    void randomInsertionsKeepTheOrder() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int position = i % 100 < 30 ? keys.size() / 2 : random.nextInt(keys.size() + 1);
+            String before = position == 0 ? null : keys.get(position - 1);
+            String after = position == keys.size() ? null : keys.get(position);
+            String key = FractionalIndex.between(before, after);
+
+            assertStrictlyBetween(before, key, after);
+            keys.add(position, key);
+        }
+    }
+
+    @Test
+    void appendsAndPrependsStayShort() {
+        String last = null;
+        String first = null;
+        for (int i = 0; i < 10_000; i++) {
+            String next = FractionalIndex.between(last, null);
+            assertStrictlyBetween(last, next, null);
+            assertTrue(next.length() <= 4, next);
+            last = next;
+
+            String previous = FractionalIndex.between(null, first);
+            assertStrictlyBetween(null, previous, first);
+            assertTrue(previous.length() <= 4, previous);
+            first = previous;
+        }
+    }
+
+    /**
+     * Plus de place sur les quatre premiers chiffres : decrement() repasse par midpoint("", key).
+     */
+    @Test
+    void decrementUnderflowFallsBackToMidpoint() {
+        assertEquals("0000i", FractionalIndex.between(null, "0001"));
+        assertEquals("00000i", FractionalIndex.between(null, "00001"));
+        assertEquals("000000i", FractionalIndex.between(null, "000001"));
+
+        String first = "0001";
+        for (int i = 0; i < 200; i++) {
+            String previous = FractionalIndex.between(null, first);
+            assertStrictlyBetween(null, previous, first);
+            first = previous;
+        }
+    }
+
+    @Test
+    void incrementOverflowFallsBackToMidpoint() {
+        String key = FractionalIndex.between("zzzz", null);
+        assertStrictlyBetween("zzzz", key, null);
+        assertTrue(key.startsWith("zzzz"), key);
+    }
+
+    @Test
+    void spreadIsIncreasingAndInsideItsBounds() {
+        String[][] bounds = {{null, null}, {"a", null}, {null, "a"}, {"a", "a1"}, {"hzzz", "i"}, {"0001", "0002"}};
+        for (String[] bound : bounds) {
+            for (int count : new int[]{0, 1, 2, 7, 64, 1000}) {
+                List<String> keys = FractionalIndex.spread(bound[0], bound[1], count);
+
+                assertEquals(count, keys.size());
+                String previous = bound[0];
+                for (String key : keys) {
+                    assertStrictlyBetween(previous, key, bound[1]);
+                    previous = key;
+                }
+            }
+        }
+    }
+
+    @Test
+    void spreadWithoutBoundsLeavesRoomAtBothEnds() {
+        List<String> keys = FractionalIndex.spread(null, null, 100_000);
+
+        assertTrue(keys.get(0).compareTo("8") > 0, keys.get(0));
+        assertTrue(keys.get(keys.size() - 1).compareTo("r") < 0, keys.get(keys.size() - 1));
+        assertTrue(keys.stream().allMatch(key -> key.length() <= 6));
+    }
+
+    @Test
+    void rejectsUnorderedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.spread("b", "a", 3));
+    }
+
+    /**
+     * before < key < after (null = borne de la liste), et jamais de "0" final.
+     */
+    private static void assertStrictlyBetween(String before, String key, String after) {
+        assertFalse(key.isEmpty());
+        assertFalse(key.endsWith("0"), key);
+        assertTrue(before == null || before.compareTo(key) < 0, before + " < " + key);
+        assertTrue(after == null || key.compareTo(after) < 0, key + " < " + after);
+    }
+}
@@ -0,0 +1,150 @@
+package com.todolist.todolist.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class MpscRingBufferTest {
+
+    /**
+     * Case réutilisable, comme LogEvent.
+     */
+    private static final class Slot {
+        long value;
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<>(5, Slot::new).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8, Slot::new).capacity());
+        assertEquals(2, new MpscRingBuffer<>(1, Slot::new).capacity());
+    }
+
+    @Test
+    void claimReturnsFullWhenNoSlotIsFree() {
+        MpscRingBuffer<Slot> buffer = new MpscRingBuffer<>(4, Slot::new);
+        for (int i = 0; i < 4; i++) {
+            offer(buffer, i);
+        }
+
+        assertEquals(MpscRingBuffer.FULL, buffer.claim());
+        assertEquals(4, buffer.size());
+
+        // Une case lue est rendue aux producteurs
+        assertEquals(1, buffer.drain(slot -> { }, 1));
+        assertNotEquals(MpscRingBuffer.FULL, buffer.claim());
+    }
+
+    @Test
+    void claimedButUnpublishedSlotBlocksTheFollowingOnes() {
+        MpscRingBuffer<Slot> buffer = new MpscRingBuffer<>(4, Slot::new);
+        long first = buffer.claim();
+        offer(buffer, 2);
+
+        List<Long> read = new ArrayList<>();
+        assertEquals(0, buffer.drain(slot -> read.add(slot.value), 10));
+
+        buffer.get(first).value = 1;
+        buffer.publish(first);
+        assertEquals(2, buffer.drain(slot -> read.add(slot.value), 10));
+        assertEquals(List.of(1L, 2L), read);
+    }
+
+    @Test
+    void keepsOrderAcrossWraparound() {
+        MpscRingBuffer<Slot> buffer = new MpscRingBuffer<>(4, Slot::new);
+        List<Long> read = new ArrayList<>();
+        long next = 0;
+        // Plusieurs tours de la file, avec des lectures partielles pour décaler head et tail
+        for (int round = 0; round < 10; round++) {
+            while (buffer.size() < buffer.capacity()) {
+                offer(buffer, next++);
+            }
+            buffer.drain(slot -> read.add(slot.value), 3);
+        }
+        buffer.drain(slot -> read.add(slot.value), Integer.MAX_VALUE);
+
+        assertEquals(next, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            assertEquals(i, read.get(i));
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void severalProducersOneConsumer() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<Slot> buffer = new MpscRingBuffer<>(64, Slot::new);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        long position;
+                        while ((position = buffer.claim()) == MpscRingBuffer.FULL) {
+                            // yield plutôt qu'une attente active : la machine de test peut n'avoir qu'un cœur
+                            Thread.yield();
+                        }
+                        buffer.get(position).value = base + i;
+                        buffer.publish(position);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            // Chaque producteur publie ses valeurs dans l'ordre : le consommateur doit les voir dans cet ordre
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            int[] received = new int[producers];
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            int total = 0;
+            while (total < producers * perProducer && System.nanoTime() < deadline) {
+                int count = buffer.drain(slot -> {
+                    int producer = (int) (slot.value / perProducer);
+                    long sequence = slot.value % perProducer;
+                    assertEquals(lastSeen[producer] + 1, sequence);
+                    lastSeen[producer] = sequence;
+                    received[producer]++;
+                }, 256);
+                if (count == 0) {
+                    Thread.yield();
+                }
+                total += count;
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            int[] expected = new int[producers];
+            Arrays.fill(expected, perProducer);
+            assertArrayEquals(expected, received);
+            assertEquals(0, buffer.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void offer(MpscRingBuffer<Slot> buffer, long value) {
+        long position = buffer.claim();
+        assertNotEquals(MpscRingBuffer.FULL, position);
+        buffer.get(position).value = value;
+        buffer.publish(position);
+    }
+}
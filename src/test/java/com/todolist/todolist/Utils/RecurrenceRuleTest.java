@@ -0,0 +1,134 @@
+package com.todolist.todolist.Utils;
+
+import com.todolist.todolist.Exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void parseNormalizesShortcutsAndOrder() {
+        assertEquals("FREQ=DAILY", RecurrenceRule.parse("daily").toString());
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH",
+                RecurrenceRule.parse("RRULE:byday=TH,MO;interval=2;freq=weekly").toString());
+        assertEquals("FREQ=MONTHLY;UNTIL=20261231", RecurrenceRule.parse("UNTIL=20261231;FREQ=MONTHLY").toString());
+    }
+
+    @Test
+    void parseRejectsUnsupportedRules() {
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse(" "));
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse("YEARLY"));
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20261231"));
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=0"));
+        assertThrows(BadRequestException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYMONTH=1"));
+    }
+
+    @Test
+    void monthlySkipsMonthsWithoutTheDay() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+        List<LocalDateTime> dates = take(RecurrenceRule.parse("MONTHLY").iterator(start, start), 5);
+
+        assertEquals(List.of(
+                start,
+                LocalDateTime.of(2025, 3, 31, 9, 0),
+                LocalDateTime.of(2025, 5, 31, 9, 0),
+                LocalDateTime.of(2025, 7, 31, 9, 0),
+                LocalDateTime.of(2025, 8, 31, 9, 0)
+        ), dates);
+    }
+
+    @Test
+    void monthlyCountIsRankedAcrossSkippedMonths() {
+        // 31/01, 31/03, 31/05, 31/07, 31/08 : les mois sautés ne comptent pas dans COUNT
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;COUNT=5");
+
+        assertEquals(List.of(LocalDateTime.of(2025, 7, 31, 9, 0), LocalDateTime.of(2025, 8, 31, 9, 0)),
+                take(rule.iterator(start, LocalDateTime.of(2025, 7, 1, 0, 0)), 10));
+        assertTrue(take(rule.iterator(start, LocalDateTime.of(2025, 9, 1, 0, 0)), 10).isEmpty());
+    }
+
+    @Test
+    void weeklyCountStartsInAPartialFirstWeek() {
+        // Début un mercredi : la première semaine n'a que WE et FR, le lundi précédent ne compte pas
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 30);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=4");
+
+        assertEquals(List.of(
+                start,
+                LocalDateTime.of(2025, 1, 3, 8, 30),
+                LocalDateTime.of(2025, 1, 6, 8, 30),
+                LocalDateTime.of(2025, 1, 8, 8, 30)
+        ), take(rule.iterator(start, start), 10));
+        assertEquals(List.of(LocalDateTime.of(2025, 1, 8, 8, 30)),
+                take(rule.iterator(start, LocalDateTime.of(2025, 1, 7, 0, 0)), 10));
+        assertTrue(take(rule.iterator(start, LocalDateTime.of(2025, 1, 9, 0, 0)), 10).isEmpty());
+    }
+
+    @Test
+    void untilIsInclusive() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 23, 0);
+        List<LocalDateTime> dates = take(RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;UNTIL=20250105").iterator(start, start), 10);
+
+        assertEquals(List.of(start, start.plusDays(2), start.plusDays(4)), dates);
+    }
+
+    /**
+     * Démarrer l'itérateur en cours de série (saut direct à la période de from) doit donner exactement
+     * la suite du parcours complet depuis start.
+     */
+    @Test
+    void iteratorFromAnyDateMatchesFullIteration() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 31, 10, 0);
+        List<String> rules = List.of(
+                "FREQ=DAILY;INTERVAL=3;COUNT=40",
+                "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,SA;COUNT=30",
+                "FREQ=WEEKLY;BYDAY=TU;COUNT=12",
+                "FREQ=MONTHLY;COUNT=12",
+                "FREQ=MONTHLY;INTERVAL=5;COUNT=8",
+                "FREQ=WEEKLY;BYDAY=SU,TH;UNTIL=20240601"
+        );
+        for (String value : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(value);
+            List<LocalDateTime> all = take(rule.iterator(start, start), 1000);
+            for (LocalDateTime from = start.minusDays(3); from.isBefore(start.plusYears(5)); from = from.plusDays(1).plusHours(5)) {
+                List<LocalDateTime> expected = new ArrayList<>();
+                for (LocalDateTime date : all) {
+                    if (!date.isBefore(from)) {
+                        expected.add(date);
+                    }
+                }
+                assertEquals(expected, take(rule.iterator(start, from), 1000), value + " depuis " + from);
+            }
+        }
+    }
+
+    @Test
+    void isOccurrence() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+        RecurrenceRule rule = RecurrenceRule.parse("MONTHLY");
+
+        assertTrue(rule.isOccurrence(start, LocalDateTime.of(2025, 3, 31, 9, 0)));
+        assertFalse(rule.isOccurrence(start, LocalDateTime.of(2025, 2, 28, 9, 0)));
+        assertFalse(rule.isOccurrence(start, LocalDateTime.of(2025, 3, 31, 10, 0)));
+        assertFalse(rule.isOccurrence(start, LocalDateTime.of(2024, 12, 31, 9, 0)));
+    }
+
+    private static List<LocalDateTime> take(Iterator<LocalDateTime> iterator, int max) {
+        List<LocalDateTime> dates = new ArrayList<>();
+        while (iterator.hasNext() && dates.size() < max) {
+            dates.add(iterator.next());
+        }
+        return dates;
+    }
+}